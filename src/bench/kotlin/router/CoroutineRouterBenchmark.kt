@@ -0,0 +1,111 @@
+package router
+
+import io.vertx.core.Future
+import io.vertx.core.Promise
+import io.vertx.core.Vertx
+import io.vertx.core.http.HttpClientOptions
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.logging.LoggerFactory
+import io.vertx.ext.web.Router
+import io.vertx.kotlin.coroutines.await
+import me.wang007.annotation.Deploy
+import me.wang007.annotation.Route
+import me.wang007.boot.BootOptions
+import me.wang007.boot.VertxBoot
+import me.wang007.router.CoroutineRouter
+import me.wang007.verticle.HttpServerVerticle
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 协程handler和普通callback handler的对比。
+ *
+ * 两个route都等待一个在下一次eventLoop循环完成的Future，区别只在于callback还是挂起/恢复。
+ * 不参与单元测试，通过bench profile运行：
+ * mvn -Pbench test-compile exec:java -Dexec.mainClass=router.CoroutineRouterBenchmarkKt -Dexec.classpathScope=test
+ *
+ * created by wang007 on 2026/10/19
+ */
+private const val Port = 18080
+private const val Requests = 200_000
+private const val Concurrency = 64
+
+private val logger = LoggerFactory.getLogger("router.CoroutineRouterBenchmark")
+
+@Route(server = "bench")
+class BenchRouter : CoroutineRouter<HttpServerVerticle>() {
+
+    override suspend fun start(router: Router) {
+        router.get("/callback").handler { rc ->
+            nextTick().onComplete { rc.response().end("ok") }
+        }
+        router.get("/coroutine") { rc ->
+            nextTick().await()
+            rc.response().end("ok")
+        }
+    }
+
+    private fun nextTick(): Future<Void> {
+        val promise = Promise.promise<Void>()
+        vertx.runOnContext { promise.complete() }
+        return promise.future()
+    }
+}
+
+/**
+ * 懒部署，由VertxBoot#deploy部署，部署完成时已经监听端口
+ */
+@Deploy(instances = 1, lazy = true)
+class BenchServer : HttpServerVerticle() {
+
+    override fun serverName(): String = "bench"
+
+    override fun addressAndPort(): HttpServerVerticle.AddressAndPort = HttpServerVerticle.AddressAndPort(Port)
+}
+
+fun main() {
+    val vertx = Vertx.vertx()
+    val boot = VertxBoot.create(vertx).start(BootOptions().setBasePath(listOf("router")))
+    val deployed = CompletableFuture<String>()
+    boot.deploy(BenchServer::class.java).onComplete { ar ->
+        if (ar.succeeded()) deployed.complete(ar.result()) else deployed.completeExceptionally(ar.cause())
+    }
+    deployed.get()
+
+    //预热
+    run(vertx, "/callback", Requests / 4)
+    run(vertx, "/coroutine", Requests / 4)
+
+    for (path in listOf("/callback", "/coroutine", "/callback", "/coroutine")) {
+        val cost = run(vertx, path, Requests)
+        logger.info("$path: $Requests requests in ${cost}ms, ${Requests * 1000L / cost} req/s")
+    }
+    vertx.close()
+}
+
+private fun run(vertx: Vertx, path: String, total: Int): Long {
+    val client = vertx.createHttpClient(HttpClientOptions().setMaxPoolSize(Concurrency).setKeepAlive(true))
+    val remaining = AtomicInteger(total)
+    val failed = AtomicInteger()
+    val done = CountDownLatch(total)
+    val start = System.currentTimeMillis()
+
+    fun send() {
+        if (remaining.getAndDecrement() <= 0) return
+        client.request(HttpMethod.GET, Port, "localhost", path)
+                .compose { req -> req.send() }
+                .compose { resp -> resp.body() }
+                .onComplete { ar ->
+                    if (ar.failed()) failed.incrementAndGet()
+                    done.countDown()
+                    send()
+                }
+    }
+    repeat(Concurrency) { send() }
+    done.await()
+    val cost = System.currentTimeMillis() - start
+    client.close()
+    check(failed.get() == 0) { "$path: ${failed.get()} requests failed" }
+    return maxOf(cost, 1)
+}
@@ -0,0 +1,52 @@
+package me.wang007.annotation;
+
+import me.wang007.cache.CacheLoader;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明一个由vertx-start管理的缓存组件
+ *
+ * 注意：该注解只能使用到{@link CacheLoader}的实现类上。
+ * 启动时创建一次，所有verticle实例通过{@link me.wang007.boot.VertxBoot#cache(Class)}获取同一个缓存。
+ *
+ * <code>
+ *     \@Cache(value = "user", maxSize = 100_000, ttl = 60_000)
+ *     public class UserCacheLoader implements CacheLoader{@code <}String, JsonObject{@code >} {
+ *         public Future{@code <}JsonObject{@code >} load(String id) {
+ *         }
+ *     }
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cache {
+
+    /**
+     * @return 缓存名， 默认是首字母小写的类名
+     */
+    String value() default "";
+
+    /**
+     * @return 最大entry数
+     */
+    int maxSize() default 10_000;
+
+    /**
+     * @return 写入之后的存活时间， 单位：ms。 {@code <=} 0 表示不过期
+     */
+    long ttl() default 0;
+
+    /**
+     * true: 按照eventLoop分片， 分片内无锁， 每个分片的容量为 maxSize / eventLoop数。只能在eventLoop线程上访问
+     * false: 所有eventLoop共享一份， 通过锁保护
+     *
+     * @return 是否按照eventLoop分片
+     */
+    boolean sharded() default false;
+}
@@ -0,0 +1,60 @@
+package me.wang007.annotation;
+
+import me.wang007.client.ClientFactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明一个由vertx-start管理的client， 例如：数据库连接池、redis client、web client等
+ *
+ * 注意：该注解只能使用到{@link ClientFactory}的实现类上。
+ * 区别于在{@link me.wang007.verticle.HttpServerVerticle}的init方法中创建client(每个实例各自一个连接池)，
+ * 这里声明的client只会按照{@link #scope()}创建， 连接池的总大小可以在属性文件中配置：
+ *
+ * <code>
+ *     vertx-start.client.{@code <}name{@code >}.pool-size=20
+ * </code>
+ *
+ * 在httpServer监听端口之前完成预热， 所有httpServer实例undeploy之后按照声明的逆序关闭。
+ *
+ * created by wang007 on 2026/10/19
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Client {
+
+    /**
+     * @return client名， 默认是首字母小写的类名
+     */
+    String value() default "";
+
+    Scope scope() default Scope.SHARED;
+
+    /**
+     * 属性文件中没有配置时使用。{@link Scope#PER_EVENT_LOOP}时按照eventLoop数平分
+     *
+     * @return 连接池的总大小， {@code <=} 0 表示使用client自己的默认值
+     */
+    int poolSize() default 0;
+
+    /**
+     * @return 创建顺序， 升序。 关闭时逆序
+     */
+    int order() default 0;
+
+    enum Scope {
+
+        /**
+         * 所有verticle实例共享一个client
+         */
+        SHARED,
+
+        /**
+         * 每个eventLoop一个client， 在该eventLoop上第一次使用时创建。 只能在eventLoop线程上获取
+         */
+        PER_EVENT_LOOP
+    }
+}
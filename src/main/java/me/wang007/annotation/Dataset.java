@@ -0,0 +1,45 @@
+package me.wang007.annotation;
+
+import me.wang007.cache.DatasetParser;
+import me.wang007.cache.OffHeapStore;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明一个启动时加载的静态数据集
+ *
+ * 注意：该注解只能使用到{@link DatasetParser}的实现类上。
+ * 启动时在部署verticle之前， 通过FileChannel.map只读映射source文件， 交给parser解析成{@link OffHeapStore}。
+ * 配置了snapshot时， 解析结果写入snapshot文件， 下次启动时snapshot比source新的话直接映射snapshot， 不再解析。
+ *
+ * 所有verticle实例通过{@link me.wang007.boot.VertxBoot#dataset(String)}获取同一份只读数据。
+ *
+ * created by wang007 on 2026/10/19
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Dataset {
+
+    /**
+     * @return 数据集名， 默认是首字母小写的类名
+     */
+    String value() default "";
+
+    /**
+     * @return 源文件路径， 不超过2GB
+     */
+    String source();
+
+    /**
+     * @return 预编译的二进制文件路径。 默认为空，即每次启动都解析source
+     */
+    String snapshot() default "";
+
+    /**
+     * @return slab的大小， 单条entry不能超过该大小
+     */
+    int slabSize() default OffHeapStore.Default_Slab_Size;
+}
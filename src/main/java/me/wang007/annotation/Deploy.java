@@ -80,4 +80,63 @@ public @interface Deploy {
      */
     int order() default 0;
 
+    /**
+     * 懒部署。启动时不部署该verticle，而是在{@link #addresses()}中任一地址第一次收到消息时，
+     * 或者通过{@link me.wang007.boot.VertxBoot#deploy(Class)}主动请求时才部署。
+     *
+     * @return 是否懒部署
+     */
+    boolean lazy() default false;
+
+    /**
+     * 懒部署verticle所监听的eventBus地址。
+     * 部署之前，这些地址上的消息会先被缓存，待verticle部署完成后再转发过去。
+     *
+     * 只在{@link #lazy()} = true时有效
+     *
+     * @return eventBus地址
+     */
+    String[] addresses() default {};
+
+    /**
+     * 懒部署verticle的空闲超时时间，单位：ms。
+     * 超过该时间{@link #addresses()}上没有收到消息，verticle会被卸载，下次收到消息时再重新部署。
+     *
+     * 只在{@link #lazy()} = true时有效, {@code <=} 0 表示不卸载
+     *
+     * @return 空闲超时时间
+     */
+    long idleTimeout() default 0;
+
+    /**
+     * 集群模式下的部署位置， 非集群模式下当作只有一个节点的集群
+     *
+     * @return 部署位置
+     */
+    Placement placement() default Placement.PER_NODE;
+
+    /**
+     * 集群中部署该verticle的节点数， 只在{@link #placement()} = {@link Placement#N_PER_CLUSTER}时有效
+     *
+     * @return 节点数
+     */
+    int clusterInstances() default 1;
+
+    enum Placement {
+
+        /**
+         * 每个节点都部署
+         */
+        PER_NODE,
+
+        /**
+         * 整个集群只有一个节点部署， 该节点离开之后转移到其他节点
+         */
+        SINGLETON,
+
+        /**
+         * 集群中{@link #clusterInstances()}个节点部署
+         */
+        N_PER_CLUSTER
+    }
 }
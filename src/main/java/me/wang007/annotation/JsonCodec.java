@@ -0,0 +1,26 @@
+package me.wang007.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 编译时为pojo生成json的序列化、反序列化代码，生成的类名为 类名 + JsonCodec， 和pojo在同一个包下。
+ *
+ * 序列化时直接写入buffer， 不需要先构建JsonObject再encode； 反序列化时使用流式解析， 不需要先解析成JsonObject。
+ * 通过{@link me.wang007.json.PojoCodecs}使用， 或者在route中通过{@link me.wang007.router.JsonRoutes}声明输入、输出的类型。
+ *
+ * pojo需要有public的无参构造器， 属性为public的getter/setter或者public的字段。 值为null的属性不会输出。
+ *
+ * 支持的属性类型： 基本类型及其包装类型、String、enum、Instant、JsonObject、JsonArray、被{@link JsonCodec}注解的pojo、
+ * 元素为以上类型的List、Set、key为String的Map， 以及Object(按照值的实际类型处理)。
+ *
+ * 注意：需要开启注解处理(默认开启)， 使用的是vertx-start jar中的{@link me.wang007.codegen.JsonCodecProcessor}。
+ *
+ * created by wang007 on 2026/10/19
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JsonCodec {
+}
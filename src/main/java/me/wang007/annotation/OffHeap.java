@@ -0,0 +1,38 @@
+package me.wang007.annotation;
+
+import me.wang007.cache.OffHeapLoader;
+import me.wang007.cache.OffHeapStore;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明一个由vertx-start管理的堆外存储
+ *
+ * 注意：该注解只能使用到{@link OffHeapLoader}的实现类上。
+ * 启动时在部署verticle之前构建一次， 注册到{@link me.wang007.boot.VertxBoot#registry()}中，
+ * 所有verticle实例通过{@code boot.registry().get(OffHeapStore.key(name))}获取同一份数据。
+ *
+ * created by wang007 on 2026/10/19
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OffHeap {
+
+    /**
+     * @return 存储名， 默认是首字母小写的类名
+     */
+    String value() default "";
+
+    /**
+     * @return 映射的文件路径。 默认为空，即保存在direct ByteBuffer中， 需要足够的-XX:MaxDirectMemorySize
+     */
+    String file() default "";
+
+    /**
+     * @return slab的大小， 单条entry不能超过该大小
+     */
+    int slabSize() default OffHeapStore.Default_Slab_Size;
+}
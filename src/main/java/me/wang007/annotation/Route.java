@@ -69,4 +69,20 @@ public @interface Route {
      */
     boolean sharedMount() default true;
 
+    /**
+     * 是否在虚拟线程上执行该LoadRouter中的所有handler， 需要JDK 21+， 否则在worker线程池中执行。
+     * 只需要部分route在虚拟线程上执行的话， 使用{@link me.wang007.router.VirtualThreads#handler(io.vertx.core.Handler)}
+     *
+     * @return true: 在虚拟线程上执行 false: 在eventLoop上执行
+     */
+    boolean virtualThread() default false;
+
+    /**
+     * 挂载到哪个httpServer上， 和{@link me.wang007.verticle.HttpServerVerticle#serverName()}相同时才挂载。
+     * 默认挂载到默认的httpServer上(serverName为"")
+     *
+     * @return httpServer名
+     */
+    String server() default "";
+
 }
@@ -0,0 +1,67 @@
+package me.wang007.annotation;
+
+import me.wang007.socket.SocketEndpoint;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明一个WebSocket或者SSE(server-sent events)端点， 由{@link me.wang007.verticle.HttpServerVerticle}注册
+ *
+ * 注意：该注解只能使用到{@link SocketEndpoint}的实现类上。
+ *
+ * <code>
+ *  \@Socket("/live")
+ *  public class LiveEndpoint implements SocketEndpoint {
+ *
+ *      public void onOpen(SocketConnection connection) {
+ *          connection.subscribe("dashboard");
+ *      }
+ *  }
+ *
+ *  //任意线程中广播， 所有订阅了该topic的连接都会收到
+ *  broadcaster.publish("dashboard", new JsonObject().put("qps", 1000));
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Socket {
+
+    /**
+     * @return 请求路径， 完全匹配
+     */
+    String value();
+
+    Type type() default Type.WEBSOCKET;
+
+    /**
+     * @return 连接的写队列满时的处理方式
+     */
+    SlowConsumer slowConsumer() default SlowConsumer.COALESCE;
+
+    /**
+     * @return 注册到哪个httpServer上， 见{@link me.wang007.annotation.Route#server()}
+     */
+    String server() default "";
+
+    enum Type {
+        WEBSOCKET, SSE
+    }
+
+    enum SlowConsumer {
+
+        /**
+         * 关闭连接
+         */
+        DROP,
+
+        /**
+         * 写队列满时每个topic只保留最新的一条广播消息， 直接发送的消息全部保留， drain之后再写出
+         */
+        COALESCE
+    }
+}
@@ -0,0 +1,155 @@
+package me.wang007.boot;
+
+/**
+ * verticle实例数弹性伸缩的参数，通过{@link me.wang007.verticle.VerticleConfig#autoscale()}提供
+ *
+ * 每隔{@link #sampleInterval}采样一次verticle所在eventLoop的延迟和任务队列长度。
+ * 连续{@link #scaleUpSamples}次超过上限，增加一个实例； 连续{@link #scaleDownSamples}次低于下限，减少一个实例。
+ * 上、下限之间的区间和{@link #cooldown}一起构成滞后区间，避免实例数来回抖动。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class AutoscaleOptions {
+
+    /**
+     * 最小实例数，默认是{@link me.wang007.annotation.Deploy#instances()}。
+     * 必须满足 minInstances {@code <=} instances {@code <=} maxInstances， 否则启动时报错。
+     * 小于instances时先部署minInstances个实例， 再逐个补齐到instances， 空闲时可以缩容到minInstances
+     */
+    private int minInstances = -1;
+
+    /**
+     * 最大实例数
+     */
+    private int maxInstances = Integer.MAX_VALUE;
+
+    /**
+     * 采样间隔， 单位：ms
+     */
+    private long sampleInterval = 1000;
+
+    /**
+     * eventLoop延迟超过该值则认为繁忙， 单位：ms
+     */
+    private long scaleUpLag = 20;
+
+    /**
+     * eventLoop延迟低于该值则认为空闲， 单位：ms
+     */
+    private long scaleDownLag = 2;
+
+    /**
+     * eventLoop任务队列长度超过该值则认为繁忙
+     */
+    private int scaleUpQueueDepth = 1000;
+
+    /**
+     * eventLoop任务队列长度低于该值则认为空闲
+     */
+    private int scaleDownQueueDepth = 10;
+
+    /**
+     * 连续繁忙多少次采样之后扩容
+     */
+    private int scaleUpSamples = 3;
+
+    /**
+     * 连续空闲多少次采样之后缩容
+     */
+    private int scaleDownSamples = 30;
+
+    /**
+     * 两次伸缩之间的最小间隔， 单位：ms
+     */
+    private long cooldown = 10_000;
+
+    public int getMinInstances() {
+        return minInstances;
+    }
+
+    public AutoscaleOptions setMinInstances(int minInstances) {
+        this.minInstances = minInstances;
+        return this;
+    }
+
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+
+    public AutoscaleOptions setMaxInstances(int maxInstances) {
+        this.maxInstances = maxInstances;
+        return this;
+    }
+
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public AutoscaleOptions setSampleInterval(long sampleInterval) {
+        this.sampleInterval = sampleInterval;
+        return this;
+    }
+
+    public long getScaleUpLag() {
+        return scaleUpLag;
+    }
+
+    public AutoscaleOptions setScaleUpLag(long scaleUpLag) {
+        this.scaleUpLag = scaleUpLag;
+        return this;
+    }
+
+    public long getScaleDownLag() {
+        return scaleDownLag;
+    }
+
+    public AutoscaleOptions setScaleDownLag(long scaleDownLag) {
+        this.scaleDownLag = scaleDownLag;
+        return this;
+    }
+
+    public int getScaleUpQueueDepth() {
+        return scaleUpQueueDepth;
+    }
+
+    public AutoscaleOptions setScaleUpQueueDepth(int scaleUpQueueDepth) {
+        this.scaleUpQueueDepth = scaleUpQueueDepth;
+        return this;
+    }
+
+    public int getScaleDownQueueDepth() {
+        return scaleDownQueueDepth;
+    }
+
+    public AutoscaleOptions setScaleDownQueueDepth(int scaleDownQueueDepth) {
+        this.scaleDownQueueDepth = scaleDownQueueDepth;
+        return this;
+    }
+
+    public int getScaleUpSamples() {
+        return scaleUpSamples;
+    }
+
+    public AutoscaleOptions setScaleUpSamples(int scaleUpSamples) {
+        this.scaleUpSamples = scaleUpSamples;
+        return this;
+    }
+
+    public int getScaleDownSamples() {
+        return scaleDownSamples;
+    }
+
+    public AutoscaleOptions setScaleDownSamples(int scaleDownSamples) {
+        this.scaleDownSamples = scaleDownSamples;
+        return this;
+    }
+
+    public long getCooldown() {
+        return cooldown;
+    }
+
+    public AutoscaleOptions setCooldown(long cooldown) {
+        this.cooldown = cooldown;
+        return this;
+    }
+}
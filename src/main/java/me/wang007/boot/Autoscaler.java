@@ -0,0 +1,168 @@
+package me.wang007.boot;
+
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.Deployment;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * verticle实例数的弹性伸缩器。
+ *
+ * 定时往verticle的每个context提交一个探测任务，任务从提交到执行的时间即为eventLoop的延迟，用来近似eventLoop的繁忙程度；
+ * 同时读取eventLoop中等待执行的任务数。 根据{@link AutoscaleOptions}的上、下限增加或减少实例。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class Autoscaler {
+
+    private static final Logger logger = LoggerFactory.getLogger(Autoscaler.class);
+
+    private final Vertx vertx;
+
+    private final VerticleDeployment deployment;
+
+    private final AutoscaleOptions options;
+
+    private final int minInstances;
+
+    private final int maxInstances;
+
+    private long timerId = -1;
+
+    //下面的状态只在timer的context上访问
+    private int busySamples;
+    private int idleSamples;
+    private long lastScaleTime;
+    private boolean scaling;
+
+    /**
+     * 最近一次采样的结果
+     */
+    private volatile long lastLag;
+    private volatile int lastQueueDepth;
+
+    public Autoscaler(Vertx vertx, VerticleDeployment deployment) {
+        this.vertx = vertx;
+        this.deployment = deployment;
+        this.options = deployment.getAutoscale();
+        int base = deployment.getOptions().getInstances();
+        this.minInstances = options.getMinInstances() > 0 ? options.getMinInstances() : base;
+        this.maxInstances = Math.max(options.getMaxInstances(), minInstances);
+    }
+
+    public synchronized void start() {
+        if (timerId != -1) return;
+        logger.info("autoscale verticle -> {}, instances: [{}, {}]",
+                deployment.getVerticleName(), minInstances, maxInstances);
+        timerId = vertx.setPeriodic(options.getSampleInterval(), id -> sample());
+    }
+
+    public synchronized void stop() {
+        if (timerId == -1) return;
+        vertx.cancelTimer(timerId);
+        timerId = -1;
+    }
+
+    /**
+     * @return 最近一次采样的eventLoop平均延迟， 单位：ms
+     */
+    public long lastLag() {
+        return lastLag;
+    }
+
+    /**
+     * @return 最近一次采样的eventLoop平均任务队列长度
+     */
+    public int lastQueueDepth() {
+        return lastQueueDepth;
+    }
+
+    private void sample() {
+        if (!deployment.deployed() || scaling) return;
+
+        int instances = deployment.instances();
+        if (instances < minInstances) {
+            scale(true);
+            return;
+        }
+
+        List<Context> contexts = contexts();
+        if (contexts.isEmpty()) return;
+
+        int queueDepth = 0;
+        for (Context ctx : contexts) {
+            queueDepth += pendingTasks(ctx);
+        }
+        queueDepth = queueDepth / contexts.size();
+        lastQueueDepth = queueDepth;
+
+        int depth = queueDepth;
+        AtomicLong totalLag = new AtomicLong();
+        int[] remain = {contexts.size()};
+        Context current = vertx.getOrCreateContext();
+        for (Context ctx : contexts) {
+            long submitted = System.nanoTime();
+            ctx.runOnContext(v -> {
+                long lag = (System.nanoTime() - submitted) / 1_000_000;
+                totalLag.addAndGet(lag);
+                current.runOnContext(v1 -> {
+                    if (--remain[0] == 0) decide(totalLag.get() / contexts.size(), depth);
+                });
+            });
+        }
+    }
+
+    private void decide(long lag, int queueDepth) {
+        lastLag = lag;
+        boolean busy = lag > options.getScaleUpLag() || queueDepth > options.getScaleUpQueueDepth();
+        boolean idle = lag < options.getScaleDownLag() && queueDepth < options.getScaleDownQueueDepth();
+
+        busySamples = busy ? busySamples + 1 : 0;
+        idleSamples = idle ? idleSamples + 1 : 0;
+
+        if (System.currentTimeMillis() - lastScaleTime < options.getCooldown()) return;
+
+        int instances = deployment.instances();
+        if (busySamples >= options.getScaleUpSamples() && instances < maxInstances) {
+            logger.info("verticle -> {} busy, lag: {}ms, queue depth: {}", deployment.getVerticleName(), lag, queueDepth);
+            scale(true);
+        } else if (idleSamples >= options.getScaleDownSamples() && instances > minInstances) {
+            scale(false);
+        }
+    }
+
+    private void scale(boolean up) {
+        scaling = true;
+        busySamples = 0;
+        idleSamples = 0;
+        (up ? deployment.scaleUp(vertx).mapEmpty() : deployment.scaleDown(vertx)).onComplete(ar -> {
+            scaling = false;
+            lastScaleTime = System.currentTimeMillis();
+        });
+    }
+
+    private List<Context> contexts() {
+        List<Context> contexts = new ArrayList<>();
+        for (String id : deployment.deploymentIds()) {
+            Deployment d = ((VertxInternal) vertx).getDeployment(id);
+            if (d != null) contexts.addAll(d.getContexts());
+        }
+        return contexts;
+    }
+
+    private static int pendingTasks(Context ctx) {
+        if (!(ctx instanceof ContextInternal)) return 0;
+        Object loop = ((ContextInternal) ctx).nettyEventLoop();
+        if (loop instanceof SingleThreadEventExecutor) return ((SingleThreadEventExecutor) loop).pendingTasks();
+        return 0;
+    }
+
+}
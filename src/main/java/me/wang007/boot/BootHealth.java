@@ -0,0 +1,128 @@
+package me.wang007.boot;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.warmup.Readiness;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * 应用的健康、就绪状态， 通过{@link VertxBoot#health()}获取
+ *
+ * 健康：没有{@link DeploymentState#FAILED}的verticle。
+ * 就绪：所有verticle都是{@link DeploymentState#READY}(懒部署、集群模式下待命的verticle允许是{@link DeploymentState#PENDING})，
+ * 并且所有httpServer实例都预热完成({@link Readiness})。
+ *
+ * 部署状态变化时重新计算并编码好响应体， /health, /ready 请求直接返回编码好的结果， 不需要遍历和序列化。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class BootHealth {
+
+    private final Collection<VerticleDeployment> deployments;
+
+    private volatile Supplier<Readiness> readiness = () -> null;
+
+    private volatile Snapshot snapshot;
+
+    BootHealth(Collection<VerticleDeployment> deployments) {
+        this.deployments = deployments;
+        update();
+    }
+
+    void readiness(Supplier<Readiness> readiness) {
+        this.readiness = readiness;
+    }
+
+    /**
+     * 重新计算状态
+     */
+    synchronized void update() {
+        boolean healthy = true, deployed = true;
+        JsonArray verticles = new JsonArray();
+        for (VerticleDeployment deployment : deployments) {
+            DeploymentState state = deployment.getState();
+            if (state == DeploymentState.FAILED) healthy = false;
+            if (state != DeploymentState.READY && !(state == DeploymentState.PENDING && (deployment.getDeploy().lazy() || deployment.isStandby()))) {
+                deployed = false;
+            }
+            verticles.add(deployment.toJson());
+        }
+        JsonObject json = new JsonObject().put("verticles", verticles);
+        snapshot = new Snapshot(healthy, deployed,
+                encode(json.copy().put("status", healthy ? "UP" : "DOWN")),
+                encode(json.copy().put("status", "READY")),
+                encode(json.copy().put("status", "NOT_READY")));
+    }
+
+    public boolean isHealthy() {
+        return snapshot.healthy;
+    }
+
+    public boolean isReady() {
+        if (!snapshot.deployed) return false;
+        Readiness r = readiness.get();
+        return r == null || r.isReady();
+    }
+
+    /**
+     * @return 当前状态， 每次调用都会重新生成
+     */
+    public JsonObject toJson() {
+        Snapshot s = snapshot;
+        return new JsonObject(Buffer.buffer(s.healthBody)).put("ready", isReady());
+    }
+
+    /**
+     * @return 健康检查handler， 健康时返回200， 否则返回503
+     */
+    public Handler<RoutingContext> healthHandler() {
+        return ctx -> {
+            Snapshot s = snapshot;
+            end(ctx, s.healthy ? 200 : 503, s.healthBody);
+        };
+    }
+
+    /**
+     * @return 就绪检查handler， 就绪时返回200， 否则返回503
+     */
+    public Handler<RoutingContext> readyHandler() {
+        return ctx -> {
+            Snapshot s = snapshot;
+            if (isReady()) end(ctx, 200, s.readyBody);
+            else end(ctx, 503, s.notReadyBody);
+        };
+    }
+
+    private static void end(RoutingContext ctx, int status, byte[] body) {
+        ctx.response().setStatusCode(status)
+                .putHeader("Content-Type", "application/json")
+                .end(Buffer.buffer(Unpooled.wrappedBuffer(body)));
+    }
+
+    private static byte[] encode(JsonObject json) {
+        return json.encode().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Snapshot {
+        final boolean healthy;
+        final boolean deployed;
+        final byte[] healthBody;
+        final byte[] readyBody;
+        final byte[] notReadyBody;
+
+        Snapshot(boolean healthy, boolean deployed, byte[] healthBody, byte[] readyBody, byte[] notReadyBody) {
+            this.healthy = healthy;
+            this.deployed = deployed;
+            this.healthBody = healthBody;
+            this.readyBody = readyBody;
+            this.notReadyBody = notReadyBody;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package me.wang007.boot;
 
+import me.wang007.cluster.ClusterCoordinator;
 import me.wang007.constant.VertxBootConst;
 
 import java.util.Collections;
@@ -20,6 +21,12 @@ public class BootOptions {
      */
     private String configFilePath = VertxBootConst.Default_Properties_Path;
 
+    /**
+     * 集群成员管理， 用于{@link me.wang007.annotation.Deploy#placement()}。
+     * 为null时， 集群模式的vertx使用{@link me.wang007.cluster.VertxClusterCoordinator}， 非集群模式当做只有一个节点
+     */
+    private ClusterCoordinator clusterCoordinator;
+
     public List<String> getBasePath() {
         return basePath;
     }
@@ -37,4 +44,13 @@ public class BootOptions {
         this.configFilePath = configFilePath;
         return this;
     }
+
+    public ClusterCoordinator getClusterCoordinator() {
+        return clusterCoordinator;
+    }
+
+    public BootOptions setClusterCoordinator(ClusterCoordinator clusterCoordinator) {
+        this.clusterCoordinator = clusterCoordinator;
+        return this;
+    }
 }
@@ -0,0 +1,185 @@
+package me.wang007.boot;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import me.wang007.annotation.Deploy;
+import me.wang007.cluster.ClusterCoordinator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 集群模式下， 按照{@link Deploy#placement()}部署verticle
+ *
+ * 使用rendezvous hash(最高随机权重)选择部署的节点： 每个节点对每个verticle算一个分数， 分数最高的N个节点部署。
+ * 所有节点根据相同的成员列表独立计算， 结果相同， 不需要加锁或者选主；
+ * 节点离开时只有它负责的verticle会转移到其他节点(单例的故障转移)， 节点加入时只有少量verticle会迁移过去。
+ *
+ * 成员变化的通知在各个节点上不是同时到达的， 迁移的短暂时间内单例可能同时在两个节点上运行或者都不运行。
+ *
+ * 分配给当前节点的verticle部署失败({@link DeploymentState#FAILED})之后， 按照指数退避的间隔一直重试， 直到部署成功或者分配给了其他节点。
+ *
+ * 一般由{@link VertxComponentLoader}创建， 集群verticle不会在当前节点直接部署。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class ClusterPlacement {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterPlacement.class);
+
+    /**
+     * 部署失败之后第一次重试的间隔， 单位：ms
+     */
+    public static final long Default_Retry_Delay = 1000;
+
+    /**
+     * 部署失败之后重试的最大间隔， 单位：ms
+     */
+    public static final long Max_Retry_Delay = 60_000;
+
+    private final Vertx vertx;
+
+    private final ClusterCoordinator coordinator;
+
+    private final long retryDelay;
+
+    private final List<VerticleDeployment> deployments = new CopyOnWriteArrayList<>();
+
+    /**
+     * 等待重试的verticle {@code ->} timerId， 由this保护
+     */
+    private final Map<VerticleDeployment, Long> retryTimers = new HashMap<>();
+
+    /**
+     * verticle连续部署失败的次数， 由this保护
+     */
+    private final Map<VerticleDeployment, Integer> failures = new HashMap<>();
+
+    public ClusterPlacement(Vertx vertx, ClusterCoordinator coordinator) {
+        this(vertx, coordinator, Default_Retry_Delay);
+    }
+
+    /**
+     * @param vertx       vertx实例
+     * @param coordinator 集群成员
+     * @param retryDelay  部署失败之后第一次重试的间隔， 单位：ms
+     */
+    public ClusterPlacement(Vertx vertx, ClusterCoordinator coordinator, long retryDelay) {
+        this.vertx = vertx;
+        this.coordinator = coordinator;
+        this.retryDelay = Math.max(1, retryDelay);
+    }
+
+    /**
+     * 在{@link #start()}之前添加
+     *
+     * @param deployment 集群verticle
+     */
+    public void add(VerticleDeployment deployment) {
+        deployment.standby(true);
+        deployments.add(deployment);
+    }
+
+    /**
+     * 监听成员变化并部署分配给当前节点的verticle
+     */
+    public void start() {
+        coordinator.membershipHandler(v -> rebalance());
+        rebalance();
+    }
+
+    /**
+     * 根据当前的成员列表， 部署分配给当前节点的verticle， 卸载不再分配给当前节点的verticle
+     */
+    public synchronized void rebalance() {
+        List<String> nodes = coordinator.nodes();
+        String self = coordinator.nodeId();
+        for (VerticleDeployment deployment : deployments) {
+            Deploy deploy = deployment.getDeploy();
+            int n = deploy.placement() == Deploy.Placement.SINGLETON ? 1 : Math.max(1, deploy.clusterInstances());
+            boolean owned = owners(deployment.getVerticleName(), nodes, n).contains(self);
+            DeploymentState state = deployment.getState();
+
+            if (owned && state == DeploymentState.PENDING) {
+                logger.info("verticle -> {} placed on this node: {}, placement: {}", deployment.getVerticleName(), self, deploy.placement());
+                deployment.standby(false);
+                deployment.deploy(vertx).onComplete(ar -> deployed(deployment, ar.succeeded()));
+            } else if (owned && state == DeploymentState.FAILED) {
+                scheduleRetry(deployment);
+            } else if (!owned && state == DeploymentState.READY) {
+                logger.info("verticle -> {} moved to other node, undeploy it", deployment.getVerticleName());
+                deployment.standby(true);
+                deployment.undeploy(vertx);
+            } else if (!owned && state == DeploymentState.FAILED) {
+                //已经由其他节点负责， 不再重试。 再次分配到当前节点时马上部署
+                cancelRetry(deployment);
+                deployment.standby(true);
+                deployment.reset();
+            }
+        }
+    }
+
+    private synchronized void deployed(VerticleDeployment deployment, boolean succeeded) {
+        if (succeeded) failures.remove(deployment);
+        rebalance();    //部署期间成员可能发生了变化， 失败时安排重试
+    }
+
+    private void scheduleRetry(VerticleDeployment deployment) {
+        if (retryTimers.containsKey(deployment)) return;
+        int n = failures.merge(deployment, 1, Integer::sum);
+        long delay = Math.min(retryDelay << Math.min(n - 1, 16), Math.max(retryDelay, Max_Retry_Delay));
+        logger.warn("verticle -> {} deployed failed on this node, retry in {}ms. failures: {}", deployment.getVerticleName(), delay, n);
+        retryTimers.put(deployment, vertx.setTimer(delay, id -> retry(deployment)));
+    }
+
+    private synchronized void retry(VerticleDeployment deployment) {
+        retryTimers.remove(deployment);
+        deployment.reset();
+        rebalance();
+    }
+
+    private void cancelRetry(VerticleDeployment deployment) {
+        Long timerId = retryTimers.remove(deployment);
+        if (timerId != null) vertx.cancelTimer(timerId);
+        failures.remove(deployment);
+    }
+
+    /**
+     * @param name  verticle名
+     * @param nodes 所有节点
+     * @param n     需要的节点数
+     * @return 分数最高的n个节点
+     */
+    public static List<String> owners(String name, List<String> nodes, int n) {
+        List<String> sorted = new ArrayList<>(nodes);
+        int nameHash = hash(name);
+        sorted.sort(Comparator.comparingLong((String node) -> score(nameHash, node)).reversed().thenComparing(node -> node));
+        return sorted.subList(0, Math.min(n, sorted.size()));
+    }
+
+    private static long score(int nameHash, String node) {
+        long h = ((long) nameHash << 32) ^ (hash(node) & 0xFFFFFFFFL);
+        //splitmix64
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * 不使用String#hashCode， 保证不同jvm上的结果相同(虽然String#hashCode的算法也是固定的)
+     */
+    private static int hash(String s) {
+        int h = 0x811c9dc5;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,29 @@
+package me.wang007.boot;
+
+/**
+ * verticle的部署状态
+ *
+ * created by wang007 on 2026/10/19
+ */
+public enum DeploymentState {
+
+    /**
+     * 还没有部署， 或者已经卸载。 懒部署的verticle等待消息时也是该状态
+     */
+    PENDING,
+
+    /**
+     * 部署中， 包括失败之后的重试
+     */
+    DEPLOYING,
+
+    /**
+     * 所有实例部署成功
+     */
+    READY,
+
+    /**
+     * 部署失败， 并且不会再重试
+     */
+    FAILED
+}
@@ -0,0 +1,210 @@
+package me.wang007.boot;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import me.wang007.annotation.Deploy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 懒部署的verticle， 即{@link Deploy#lazy()} = true
+ *
+ * 未部署时，在{@link Deploy#addresses()}上注册占位consumer。第一条消息到来时触发部署，
+ * 部署期间收到的消息先缓存起来，部署完成后注销占位consumer，再把消息转发给真正的consumer。
+ *
+ * 空闲卸载期间本节点发出的消息先暂存， 卸载完成并注册占位consumer之后再投递， 见{@link #hold(DeliveryContext)}。
+ *
+ * 注意：publish的消息转发时用的是send, 即只会转发给其中一个consumer。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class LazyDeployment {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyDeployment.class);
+
+    private final VerticleDeployment deployment;
+
+    private final Vertx vertx;
+
+    private final String[] addresses;
+
+    private final long idleTimeout;
+
+    //下面的状态加锁访问
+    private final List<MessageConsumer<Object>> placeholders = new ArrayList<>();
+    private final List<Message<Object>> pending = new ArrayList<>();
+    private Future<String> deploying;
+    private Future<Void> undeploying;
+    private final List<DeliveryContext<?>> held = new ArrayList<>();
+
+    /**
+     * 最后一次收到消息的时间
+     */
+    private volatile long lastActive;
+
+    private long timerId = -1;
+
+    public LazyDeployment(Vertx vertx, VerticleDeployment deployment) {
+        Deploy deploy = deployment.getDeploy();
+        this.vertx = vertx;
+        this.deployment = deployment;
+        this.addresses = deploy.addresses();
+        this.idleTimeout = deploy.idleTimeout();
+    }
+
+    /**
+     * 注册占位consumer，等待消息的到来
+     */
+    public synchronized void arm() {
+        if (deployment.deployed() || !placeholders.isEmpty()) return;
+        for (String address : addresses) {
+            placeholders.add(vertx.eventBus().consumer(address, this::onMessage));
+        }
+        logger.info("lazy verticle -> {} waiting for messages", deployment.getVerticleName());
+    }
+
+    /**
+     * 主动部署该verticle
+     *
+     * @return deploymentId
+     */
+    public synchronized Future<String> activate() {
+        if (deployment.deployed()) return Future.succeededFuture(deployment.getDeploymentId());
+        if (deploying != null) return deploying;
+        if (undeploying != null) {
+            //等待卸载完成之后再部署
+            Promise<String> promise = Promise.promise();
+            undeploying.onComplete(ar -> activate().onComplete(promise));
+            return promise.future();
+        }
+
+        logger.info("deploy lazy verticle -> {}", deployment.getVerticleName());
+        Promise<String> promise = Promise.promise();
+        deploying = promise.future();
+        deployment.deploy(vertx).onComplete(ar -> {
+            List<Message<Object>> messages;
+            synchronized (this) {
+                deploying = null;
+                messages = new ArrayList<>(pending);
+                pending.clear();
+                if (ar.succeeded()) {
+                    placeholders.forEach(MessageConsumer::unregister);
+                    placeholders.clear();
+                    touch();
+                    startIdleTimer();
+                }
+            }
+            if (ar.succeeded()) {
+                messages.forEach(this::forward);
+            } else {
+                messages.forEach(msg -> msg.fail(500, "lazy verticle deployed failed"));
+            }
+            promise.handle(ar);
+        });
+        //部署可能同步完成， 此时deploying已经被置为null
+        return promise.future();
+    }
+
+    /**
+     * 在eventBus的outbound拦截器中调用。 卸载期间发给该verticle的消息暂存起来， 注册占位consumer之后再继续投递，
+     * 避免投递给正在卸载的verticle或者没有consumer
+     *
+     * @param ctx 发送消息的上下文
+     * @return true：已暂存， 不要调用{@link DeliveryContext#next()}
+     */
+    public boolean hold(DeliveryContext<?> ctx) {
+        synchronized (this) {
+            if (undeploying == null) return false;
+            held.add(ctx);
+            return true;
+        }
+    }
+
+    /**
+     * @return 该懒部署verticle监听的地址， 即{@link Deploy#addresses()}
+     */
+    public String[] getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * 刷新最后活跃时间
+     */
+    public void touch() {
+        lastActive = System.currentTimeMillis();
+    }
+
+    public Vertx getVertx() {
+        return vertx;
+    }
+
+    public VerticleDeployment getDeployment() {
+        return deployment;
+    }
+
+    private void onMessage(Message<Object> msg) {
+        synchronized (this) {
+            pending.add(msg);
+        }
+        activate();
+    }
+
+    private void forward(Message<Object> msg) {
+        DeliveryOptions options = new DeliveryOptions().setHeaders(msg.headers());
+        if (msg.replyAddress() == null) {
+            vertx.eventBus().send(msg.address(), msg.body(), options);
+            return;
+        }
+        vertx.eventBus().request(msg.address(), msg.body(), options, ar -> {
+            if (ar.succeeded()) {
+                Message<Object> reply = ar.result();
+                msg.reply(reply.body(), new DeliveryOptions().setHeaders(reply.headers()));
+            } else if (ar.cause() instanceof ReplyException) {
+                ReplyException e = (ReplyException) ar.cause();
+                msg.fail(e.failureCode(), e.getMessage());
+            } else {
+                msg.fail(500, ar.cause().getMessage());
+            }
+        });
+    }
+
+    private void undeployed() {
+        List<DeliveryContext<?>> messages;
+        synchronized (this) {
+            undeploying = null;
+            arm();
+            messages = new ArrayList<>(held);
+            held.clear();
+        }
+        //投递给占位consumer， 触发重新部署
+        messages.forEach(DeliveryContext::next);
+    }
+
+    private void startIdleTimer() {
+        if (idleTimeout <= 0 || timerId != -1) return;
+        long period = Math.max(idleTimeout / 2, 1000);
+        timerId = vertx.setPeriodic(period, id -> {
+            if (System.currentTimeMillis() - lastActive < idleTimeout) return;
+            synchronized (this) {
+                if (deploying != null || !deployment.deployed()) return;
+                vertx.cancelTimer(timerId);
+                timerId = -1;
+                logger.info("lazy verticle -> {} idle timeout, undeploy it", deployment.getVerticleName());
+                //卸载完成之后再注册占位consumer， 避免和真正的consumer轮流接收消息
+                Future<Void> f = deployment.undeploy(vertx);
+                undeploying = f;
+                f.onComplete(ar -> undeployed());
+            }
+        });
+    }
+
+}
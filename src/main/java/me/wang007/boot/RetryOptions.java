@@ -0,0 +1,77 @@
+package me.wang007.boot;
+
+/**
+ * verticle部署失败之后的重试参数，通过{@link me.wang007.verticle.VerticleConfig#retry()}提供
+ *
+ * 第n次重试的间隔 = min({@link #initialDelay} * {@link #multiplier}^(n-1), {@link #maxDelay})
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class RetryOptions {
+
+    /**
+     * 最多重试次数， 不包括第一次部署
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 第一次重试的间隔， 单位：ms
+     */
+    private long initialDelay = 1000;
+
+    /**
+     * 每次重试间隔的倍数
+     */
+    private double multiplier = 2;
+
+    /**
+     * 最大重试间隔， 单位：ms
+     */
+    private long maxDelay = 30_000;
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public RetryOptions setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    public RetryOptions setInitialDelay(long initialDelay) {
+        this.initialDelay = initialDelay;
+        return this;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public RetryOptions setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public RetryOptions setMaxDelay(long maxDelay) {
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * @param retries 第几次重试， 从1开始
+     * @return 重试间隔， 单位：ms。 -1：不再重试
+     */
+    long delay(int retries) {
+        if (retries > maxRetries) return -1;
+        double delay = initialDelay * Math.pow(multiplier, retries - 1);
+        return (long) Math.min(delay, maxDelay);
+    }
+}
@@ -1,18 +1,36 @@
 package me.wang007.boot;
 
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.shareddata.LocalMap;
+import me.wang007.cache.Cache;
+import me.wang007.cache.CacheLoader;
+import me.wang007.cache.CacheManager;
+import me.wang007.cache.OffHeapStore;
+import me.wang007.client.ClientRegistry;
+import me.wang007.cluster.ClusterCoordinator;
+import me.wang007.cluster.VertxClusterCoordinator;
 import me.wang007.constant.VertxBootConst;
 import me.wang007.container.Container;
 import me.wang007.container.DefaultContainer;
 import me.wang007.exception.InitialException;
+import me.wang007.monitor.BlockingDetector;
 //import me.wang007.json.JsonSend;
 //import me.wang007.json.codec.JsonSendMessageCodec;
+import me.wang007.shared.EventLoopRegistry;
+import me.wang007.shared.SharedRegistry;
+import me.wang007.trace.Tracer;
 import me.wang007.utils.SharedReference;
 import me.wang007.utils.StringUtils;
 import me.wang007.verticle.StartVerticleFactory;
+import me.wang007.warmup.Readiness;
+import me.wang007.web.AccessLog;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -20,6 +38,11 @@ import java.util.function.Consumer;
  */
 public class SimpleVertxBoot implements VertxBootWithHook {
 
+    /**
+     * vertx {@code ->} vertxBoot, 用于{@link VertxBoot#get(Vertx)}
+     */
+    static final Map<Vertx, VertxBoot> boots = new ConcurrentHashMap<>();
+
     private final Vertx vertx;
 
     /**
@@ -29,6 +52,20 @@ public class SimpleVertxBoot implements VertxBootWithHook {
 
     private final PropertiesLoader prLoader ;   //属性加载器
 
+    private final VertxComponentLoader vcl;     //用于加载vert.x相关的组件
+
+    private volatile BlockingDetector blockingDetector = new BlockingDetector(0);
+
+    private volatile Tracer tracer = new Tracer(-1, 0);
+
+    private final CacheManager cacheManager = new CacheManager();
+
+    private final ClientRegistry clientRegistry = new ClientRegistry();
+
+    private final SharedRegistry registry = new SharedRegistry();
+
+    private final EventLoopRegistry eventLoopRegistry = new EventLoopRegistry();
+
     //hooks
     private Consumer<VertxBoot> beforeLoadComponentsHook;
     private Consumer<VertxBoot> afterLoadComponentsHook;
@@ -39,6 +76,7 @@ public class SimpleVertxBoot implements VertxBootWithHook {
     public SimpleVertxBoot(Vertx vertx) {
         this.vertx = vertx;
         this.prLoader = new PropertiesLoader();
+        this.vcl = new VertxComponentLoader();
     }
 
     /**
@@ -51,7 +89,14 @@ public class SimpleVertxBoot implements VertxBootWithHook {
 //        vertx.eventBus().registerDefaultCodec(JsonArraySend.class, new JsonArraySendMessageCodec());
 //        vertx.eventBus().registerDefaultCodec(JsonSend.class, new JsonSendMessageCodec());
 
-        //将container, vertxBoot设置到SharedData中
+        //关联vertx和vertxBoot
+        if (boots.putIfAbsent(vertx, this) != null) {
+            throw new InitialException("Vertx boot already exist for this vertx instance.");
+        }
+        //vertx关闭时解除关联， 避免关闭的vertx和vertxBoot一直被引用
+        ((VertxInternal) vertx).addCloseHook(this::close);
+
+        //兼容通过SharedData获取vertxBoot的旧代码， 在废弃的api删除之前保留
         LocalMap<String, SharedReference<?>> startMap = vertx.sharedData().getLocalMap(VertxBootConst.Key_Vertx_Start);
         startMap.put(VertxBootConst.Key_Vertx_Boot, new SharedReference<>(this));
 
@@ -64,8 +109,26 @@ public class SimpleVertxBoot implements VertxBootWithHook {
             prLoader.loadProperties(configFilePath);
         }
 
-        //用于加载vert.x相关的组件
-        VertxComponentLoader vcl = new VertxComponentLoader();
+        //handler阻塞检测
+        String threshold = getProperty(VertxBootConst.Blocking_Threshold_Key);
+        if (StringUtils.isNotBlank(threshold)) {
+            BlockingDetector detector = new BlockingDetector(Long.parseLong(threshold.trim()));
+            if (detector.enabled()) {
+                detector.start();
+                vertx.eventBus().addInboundInterceptor(detector.eventBusInterceptor());
+            }
+            blockingDetector = detector;
+        }
+
+        //请求跟踪
+        String sampleRate = getProperty(VertxBootConst.Trace_Sample_Rate_Key);
+        if (StringUtils.isNotBlank(sampleRate)) {
+            String bufferSize = getProperty(VertxBootConst.Trace_Buffer_Size_Key);
+            Tracer t = new Tracer(Double.parseDouble(sampleRate.trim()),
+                    StringUtils.isNotBlank(bufferSize) ? Integer.parseInt(bufferSize.trim()) : Tracer.Default_Buffer_Size);
+            t.install(vertx.eventBus());
+            tracer = t;
+        }
 
         if(beforeLoadComponentsHook != null) beforeLoadComponentsHook.accept(this); //执行hook
         String[] basePathArr = new String[options.getBasePath().size()];
@@ -73,7 +136,19 @@ public class SimpleVertxBoot implements VertxBootWithHook {
         DefaultContainer.init(basePathArr);     //启动容器，加载Component
         if(afterLoadComponentsHook != null) afterLoadComponentsHook.accept(this);  //执行hook
 
+        cacheManager.createCaches(this);    //创建缓存组件， 在部署verticle之前完成
+        cacheManager.createOffHeapStores(this);
+        cacheManager.createDatasets(this);  //只加载一次， 所有verticle实例共享只读数据
+        clientRegistry.createClients(this);
+
         if(beforeDeployedHook != null) beforeDeployedHook.accept(this); //执行hook
+        vcl.getHealth().readiness(() -> registry.get(Readiness.Key));
+        ClusterCoordinator coordinator = options.getClusterCoordinator();
+        if (coordinator == null && vertx.isClustered()) coordinator = new VertxClusterCoordinator(vertx);
+        if (coordinator != null) {
+            logger.info("cluster mode, node id: {}", coordinator.nodeId());
+            vcl.setClusterCoordinator(coordinator);
+        }
         vcl.executeDeploy(vertx);  //加载vert.x相关的组件
         if(afterDeployedHook != null) afterDeployedHook.accept(this);    //执行hook
 
@@ -82,6 +157,18 @@ public class SimpleVertxBoot implements VertxBootWithHook {
         return this;
     }
 
+    /**
+     * vertx关闭时回调， 先取消就绪， 关闭共享的访问日志
+     */
+    private void close(Promise<Void> completion) {
+        Readiness readiness = registry.get(Readiness.Key);
+        if (readiness != null) readiness.shutdown();
+        AccessLog accessLog = registry.get(AccessLog.Key);
+        if (accessLog != null) accessLog.close();
+        boots.remove(vertx, this);
+        completion.complete();
+    }
+
 
 
     @Override
@@ -135,6 +222,57 @@ public class SimpleVertxBoot implements VertxBootWithHook {
     }
 
 
+    @Override
+    public Future<String> deploy(Class<? extends Verticle> verticleClass) {
+        if (!start) return Future.failedFuture(new InitialException("Vertx boot has not been started."));
+        return vcl.deploy(verticleClass);
+    }
+
+    @Override
+    public BlockingDetector blockingDetector() {
+        return blockingDetector;
+    }
+
+    @Override
+    public Tracer tracer() {
+        return tracer;
+    }
+
+    @Override
+    public <K, V> Cache<K, V> cache(Class<? extends CacheLoader<K, V>> loaderClass) {
+        return cacheManager.getCache(loaderClass);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    @Override
+    public OffHeapStore dataset(String name) {
+        return registry.get(OffHeapStore.key(name));
+    }
+
+    @Override
+    public BootHealth health() {
+        return vcl.getHealth();
+    }
+
+    @Override
+    public ClientRegistry clients() {
+        return clientRegistry;
+    }
+
+    @Override
+    public SharedRegistry registry() {
+        return registry;
+    }
+
+    @Override
+    public EventLoopRegistry eventLoopRegistry() {
+        return eventLoopRegistry;
+    }
+
     @Override
     public VertxBoot start(BootOptions options) {
         assertNotStart();
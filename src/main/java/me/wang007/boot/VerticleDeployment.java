@@ -0,0 +1,380 @@
+package me.wang007.boot;
+
+import io.vertx.core.*;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import me.wang007.annotation.Deploy;
+import me.wang007.container.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static me.wang007.verticle.StartVerticleFactory.Start_Prefix;
+
+/**
+ * 一个被{@link Deploy}注解的{@link Verticle}的部署描述。
+ *
+ * 保存部署参数和部署之后的deploymentId，用于后续的重复部署、卸载。
+ * 同时记录部署状态{@link DeploymentState}， 用于{@link BootHealth}。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class VerticleDeployment {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerticleDeployment.class);
+
+    private final Component component;
+
+    private final String verticleName;
+
+    private final DeploymentOptions options;
+
+    /**
+     * {@link me.wang007.verticle.VerticleConfig#deployedHandler()}
+     */
+    private final Handler<AsyncResult<String>> deployedHandler;
+
+    /**
+     * 部署成功之后的deploymentId, 未部署时为null
+     */
+    private volatile String deploymentId;
+
+    /**
+     * 弹性伸缩时额外部署的实例，每个deploymentId对应一个实例
+     */
+    private final List<String> extraDeploymentIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * {@link me.wang007.verticle.VerticleConfig#autoscale()}, 可为null
+     */
+    private final AutoscaleOptions autoscale;
+
+    /**
+     * {@link me.wang007.verticle.VerticleConfig#retry()}, 可为null
+     */
+    private final RetryOptions retry;
+
+    /**
+     * 最初部署的实例数。 开启弹性伸缩并且最小实例数小于{@link #targetInstances()}时为最小实例数，
+     * 其余的实例通过{@link #scaleUp(Vertx)}部署， 这样才能缩容到最小实例数
+     */
+    private final int primaryInstances;
+
+    /**
+     * 弹性伸缩器， 部署成功之后开启， 卸载时停止。 没有开启弹性伸缩时为null
+     */
+    private volatile Autoscaler autoscaler;
+
+    private volatile DeploymentState state = DeploymentState.PENDING;
+
+    /**
+     * 最近一次部署失败的原因
+     */
+    private volatile Throwable failure;
+
+    /**
+     * 本次部署的尝试次数， 包括重试
+     */
+    private volatile int attempts;
+
+    /**
+     * 状态、实例数变化时回调
+     */
+    private volatile Handler<VerticleDeployment> changeHandler;
+
+    /**
+     * 集群模式下， 没有分配到当前节点的verticle为待命状态
+     */
+    private volatile boolean standby;
+
+    public VerticleDeployment(Component component, DeploymentOptions options, Handler<AsyncResult<String>> deployedHandler,
+                              AutoscaleOptions autoscale, RetryOptions retry) {
+        this.component = component;
+        this.verticleName = component.getClazz().getName();
+        this.options = options;
+        this.deployedHandler = deployedHandler;
+        this.autoscale = autoscale;
+        this.retry = retry;
+        int min = autoscale != null && autoscale.getMinInstances() > 0 ? autoscale.getMinInstances() : options.getInstances();
+        this.primaryInstances = Math.min(min, options.getInstances());
+    }
+
+    /**
+     * 执行部署。 配置了{@link RetryOptions}时， 失败之后按照退避间隔重试
+     *
+     * @param vertx vertx实例
+     * @return deploymentId， 重试全部失败之后才会失败
+     */
+    public Future<String> deploy(Vertx vertx) {
+        Promise<String> promise = Promise.promise();
+        attempts = 0;
+        doDeploy(vertx, promise);
+        return promise.future();
+    }
+
+    private void doDeploy(Vertx vertx, Promise<String> promise) {
+        attempts++;
+        changeState(DeploymentState.DEPLOYING);
+        DeploymentOptions opts = new DeploymentOptions(options).setInstances(primaryInstances);
+        vertx.deployVerticle(Start_Prefix + ':' + verticleName, opts, ar -> {
+            if (ar.succeeded()) {
+                deploymentId = ar.result();
+                failure = null;
+                //补齐到部署参数中的实例数之后再开启弹性伸缩
+                fill(vertx, options.getInstances() - primaryInstances).onComplete(v -> {
+                    logger.info(" {} deployed successfully.", verticleName);
+                    changeState(DeploymentState.READY);
+                    startAutoscaler(vertx);
+                    if (deployedHandler != null) deployedHandler.handle(ar);
+                    promise.handle(ar);
+                });
+                return;
+            } else {
+                failure = ar.cause();
+                long delay = retry != null ? retry.delay(attempts) : -1;
+                if (delay >= 0) {
+                    logger.error(verticleName + " deployed failed, retry in " + delay + "ms. attempts: " + attempts, ar.cause());
+                    vertx.setTimer(Math.max(1, delay), id -> doDeploy(vertx, promise));
+                    return;
+                }
+                logger.error("", ar.cause());
+                String failLog =
+                        "\r\n****************************************************\r\n" +
+                                verticleName + " deployed failed!!!\r\n" +
+                                "please check it and restart.\r\n" +
+                                "****************************************************\r\n";
+
+                logger.error(failLog);
+                logger.error("verticle deployment failed, please restart...");
+                changeState(DeploymentState.FAILED);
+            }
+
+            if (deployedHandler != null) deployedHandler.handle(ar);
+            promise.handle(ar);
+        });
+    }
+
+    /**
+     * 卸载verticle
+     *
+     * @param vertx vertx实例
+     * @return future
+     */
+    public Future<Void> undeploy(Vertx vertx) {
+        String id = deploymentId;
+        if (id == null) return Future.succeededFuture();
+        deploymentId = null;
+        Autoscaler a = autoscaler;
+        if (a != null) a.stop();
+        for (String extraId : extraDeploymentIds) {
+            vertx.undeploy(extraId);
+        }
+        extraDeploymentIds.clear();
+        Promise<Void> promise = Promise.promise();
+        changeState(DeploymentState.PENDING);
+        vertx.undeploy(id, ar -> {
+            if (ar.succeeded()) logger.info(" {} undeployed successfully.", verticleName);
+            else logger.error(verticleName + " undeployed failed.", ar.cause());
+            promise.handle(ar);
+        });
+        return promise.future();
+    }
+
+    /**
+     * 额外部署一个实例
+     *
+     * @param vertx vertx实例
+     * @return deploymentId
+     */
+    public Future<String> scaleUp(Vertx vertx) {
+        Promise<String> promise = Promise.promise();
+        DeploymentOptions opts = new DeploymentOptions(options).setInstances(1);
+        vertx.deployVerticle(Start_Prefix + ':' + verticleName, opts, ar -> {
+            if (ar.succeeded()) {
+                extraDeploymentIds.add(ar.result());
+                logger.info(" {} scaled up, instances: {}", verticleName, instances());
+                fireChange();
+            } else {
+                logger.error(verticleName + " scaled up failed.", ar.cause());
+            }
+            promise.handle(ar);
+        });
+        return promise.future();
+    }
+
+    /**
+     * 卸载一个额外部署的实例， 最初部署的实例不会被卸载
+     *
+     * @param vertx vertx实例
+     * @return future
+     */
+    public Future<Void> scaleDown(Vertx vertx) {
+        if (extraDeploymentIds.isEmpty()) return Future.succeededFuture();
+        String id = extraDeploymentIds.remove(extraDeploymentIds.size() - 1);
+        fireChange();
+        Promise<Void> promise = Promise.promise();
+        vertx.undeploy(id, ar -> {
+            if (ar.succeeded()) logger.info(" {} scaled down, instances: {}", verticleName, instances());
+            else logger.error(verticleName + " scaled down failed.", ar.cause());
+            promise.handle(ar);
+        });
+        return promise.future();
+    }
+
+    private Future<Void> fill(Vertx vertx, int count) {
+        Future<Void> future = Future.succeededFuture();
+        for (int i = 0; i < count; i++) {
+            //失败时scaleUp已经打印了日志， 弹性伸缩会继续补齐
+            future = future.compose(v -> scaleUp(vertx).<Void>mapEmpty().otherwiseEmpty());
+        }
+        return future;
+    }
+
+    private synchronized void startAutoscaler(Vertx vertx) {
+        if (autoscale == null || !deployed()) return;
+        if (autoscaler == null) autoscaler = new Autoscaler(vertx, this);
+        autoscaler.start();
+    }
+
+    private void changeState(DeploymentState state) {
+        this.state = state;
+        fireChange();
+    }
+
+    private void fireChange() {
+        Handler<VerticleDeployment> handler = changeHandler;
+        if (handler != null) handler.handle(this);
+    }
+
+    /**
+     * @param changeHandler 状态、实例数变化时回调
+     */
+    void changeHandler(Handler<VerticleDeployment> changeHandler) {
+        this.changeHandler = changeHandler;
+    }
+
+    /**
+     * 部署失败之后重置为{@link DeploymentState#PENDING}， 以便再次部署。 其他状态不变
+     */
+    synchronized void reset() {
+        if (state == DeploymentState.FAILED) changeState(DeploymentState.PENDING);
+    }
+
+    /**
+     * @param standby 是否待命
+     */
+    void standby(boolean standby) {
+        if (this.standby == standby) return;
+        this.standby = standby;
+        fireChange();
+    }
+
+    /**
+     * @return 集群模式下， verticle分配给了其他节点时返回true
+     */
+    public boolean isStandby() {
+        return standby;
+    }
+
+    public DeploymentState getState() {
+        return state;
+    }
+
+    /**
+     * @return 最近一次部署失败的原因， 部署成功之后为null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return 最近一次部署的尝试次数， 包括重试
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return 部署参数中的实例数， 不包括弹性伸缩额外部署的
+     */
+    public int targetInstances() {
+        return options.getInstances();
+    }
+
+    public boolean deployed() {
+        return deploymentId != null;
+    }
+
+    /**
+     * @return 当前的实例数， 未部署时为0
+     */
+    public int instances() {
+        if (!deployed()) return 0;
+        return primaryInstances + extraDeploymentIds.size();
+    }
+
+    /**
+     * @return 所有的deploymentId， 包括弹性伸缩额外部署的
+     */
+    public List<String> deploymentIds() {
+        String id = deploymentId;
+        if (id == null) return Collections.emptyList();
+        List<String> ids = new ArrayList<>(extraDeploymentIds.size() + 1);
+        ids.add(id);
+        ids.addAll(extraDeploymentIds);
+        return ids;
+    }
+
+    public Component getComponent() {
+        return component;
+    }
+
+    public String getVerticleName() {
+        return verticleName;
+    }
+
+    public DeploymentOptions getOptions() {
+        return options;
+    }
+
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public AutoscaleOptions getAutoscale() {
+        return autoscale;
+    }
+
+    public RetryOptions getRetry() {
+        return retry;
+    }
+
+    /**
+     * @return 弹性伸缩器， 没有开启弹性伸缩或者还没有部署过时为null
+     */
+    public Autoscaler getAutoscaler() {
+        return autoscaler;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject()
+                .put("name", verticleName)
+                .put("state", state.name())
+                .put("instances", instances())
+                .put("targetInstances", targetInstances())
+                .put("attempts", attempts);
+        if (getDeploy().placement() != Deploy.Placement.PER_NODE) {
+            json.put("placement", getDeploy().placement().name()).put("standby", standby);
+        }
+        Throwable err = failure;
+        if (err != null) json.put("failure", String.valueOf(err.getMessage()));
+        return json;
+    }
+
+    public Deploy getDeploy() {
+        return component.getAnnotation(Deploy.class);
+    }
+}
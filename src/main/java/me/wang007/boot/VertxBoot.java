@@ -1,15 +1,29 @@
 package me.wang007.boot;
 
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import me.wang007.cache.Cache;
+import me.wang007.cache.CacheLoader;
+import me.wang007.cache.OffHeapStore;
+import me.wang007.client.ClientRegistry;
 import me.wang007.constant.VertxBootConst;
 import me.wang007.container.Container;
+import me.wang007.exception.VertxStartException;
+import me.wang007.monitor.BlockingDetector;
+import me.wang007.shared.EventLoopRegistry;
+import me.wang007.shared.SharedRegistry;
+import me.wang007.trace.Tracer;
 import me.wang007.utils.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 
 /**
@@ -25,6 +39,27 @@ public interface VertxBoot {
         return new SimpleVertxBoot(vertx);
     }
 
+    /**
+     * 创建集群模式的vertx和vertxBoot。
+     * 被{@link me.wang007.annotation.Deploy}注解的verticle按照{@link me.wang007.annotation.Deploy#placement()}在集群中部署
+     *
+     * @param options vertx参数， 需要配置clusterManager
+     * @return vertxBoot
+     */
+    static Future<VertxBootWithHook> createClustered(VertxOptions options) {
+        return Vertx.clusteredVertx(options).map(SimpleVertxBoot::new);
+    }
+
+    /**
+     * 获取vertx实例对应的vertxBoot
+     *
+     * @param vertx vertx实例
+     * @return vertxBoot, 未启动时为null
+     */
+    static VertxBoot get(Vertx vertx) {
+        return SimpleVertxBoot.boots.get(vertx);
+    }
+
     /**
      * 获取配置文件中加载好的属性
      *
@@ -55,6 +90,107 @@ public interface VertxBoot {
      */
     Vertx vertx();
 
+    /**
+     * 主动部署被{@link me.wang007.annotation.Deploy}注解的verticle。
+     *
+     * 主要用于{@link me.wang007.annotation.Deploy#lazy()}懒部署的verticle， 已部署的verticle直接返回deploymentId
+     *
+     * @param verticleClass verticle class
+     * @return deploymentId
+     */
+    Future<String> deploy(Class<? extends Verticle> verticleClass);
+
+    /**
+     * eventLoop阻塞检测器， 通过{@link VertxBootConst#Blocking_Threshold_Key}配置阈值
+     *
+     * @return 阻塞检测器， 未开启时{@link BlockingDetector#enabled()}为false
+     */
+    BlockingDetector blockingDetector();
+
+    /**
+     * 请求跟踪， 通过{@link VertxBootConst#Trace_Sample_Rate_Key}配置采样率
+     *
+     * @return tracer， 未开启时{@link Tracer#enabled()}为false
+     */
+    Tracer tracer();
+
+    /**
+     * 应用级别的共享对象注册表， 所有verticle实例共享
+     *
+     * @return registry
+     */
+    SharedRegistry registry();
+
+    /**
+     * eventLoop级别的注册表， 同一个eventLoop上的verticle实例共享， 没有跨线程的竞争
+     *
+     * @return registry
+     */
+    EventLoopRegistry eventLoopRegistry();
+
+    /**
+     * 获取被{@link me.wang007.annotation.Cache}注解的缓存组件
+     *
+     * @param loaderClass 缓存加载器
+     * @return cache， 不存在时返回null
+     */
+    <K, V> Cache<K, V> cache(Class<? extends CacheLoader<K, V>> loaderClass);
+
+    /**
+     * @param name 缓存名
+     * @return cache， 不存在时返回null
+     */
+    <K, V> Cache<K, V> cache(String name);
+
+    /**
+     * 获取被{@link me.wang007.annotation.Dataset}或者{@link me.wang007.annotation.OffHeap}声明的只读数据
+     *
+     * @param name 数据集名
+     * @return store， 不存在时返回null
+     */
+    OffHeapStore dataset(String name);
+
+    /**
+     * 被{@link me.wang007.annotation.Client}注解的client的注册表
+     *
+     * @return clients
+     */
+    ClientRegistry clients();
+
+    /**
+     * 应用的健康、就绪状态， 根据verticle的部署状态和httpServer的预热状态计算
+     *
+     * @return health
+     */
+    BootHealth health();
+
+    /**
+     * 同步等待future完成， 用于虚拟线程或者worker线程中，不能在eventLoop线程上调用。
+     *
+     * 只是当前线程挂起等待结果， future的回调仍然在其原来的context上执行。
+     * 在虚拟线程上调用时，挂起的只是虚拟线程，不会占用平台线程。
+     *
+     * @param future future
+     * @param <T>    结果类型
+     * @return future的结果
+     * @see me.wang007.router.VirtualThreads
+     */
+    default <T> T await(Future<T> future) {
+        if (Context.isOnEventLoopThread()) {
+            throw new IllegalStateException("can not await future on event loop thread");
+        }
+        try {
+            return future.toCompletionStage().toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VertxStartException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new VertxStartException(cause);
+        }
+    }
+
     /**
      * 启动 vertx-start
      * @return this
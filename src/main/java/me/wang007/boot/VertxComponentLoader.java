@@ -9,13 +9,19 @@ import me.wang007.container.Container;
 import me.wang007.container.DefaultContainer;
 import me.wang007.exception.ErrorUsedAnnotationException;
 import me.wang007.annotation.Route;
+import me.wang007.annotation.Socket;
+import me.wang007.cluster.ClusterCoordinator;
 import me.wang007.exception.VertxStartException;
 import me.wang007.router.LoadRouter;
+import me.wang007.verticle.HttpServerVerticle;
 import me.wang007.verticle.VerticleConfig;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
-import static me.wang007.verticle.StartVerticleFactory.Start_Prefix;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 加载vert.x相关的组件， 例如：{@link Verticle}, {@link LoadRouter}
@@ -26,13 +32,32 @@ public class VertxComponentLoader {
 
     private static final Logger logger = LoggerFactory.getLogger(VertxComponentLoader.class);
 
+    private final Map<Class<?>, VerticleDeployment> deployments = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, LazyDeployment> lazyDeployments = new ConcurrentHashMap<>();
+
+    /**
+     * 懒部署verticle按照地址索引， 用于eventBus拦截器中刷新活跃时间
+     */
+    private final Map<String, List<LazyDeployment>> lazyAddresses = new ConcurrentHashMap<>();
+
+    private final BootHealth health = new BootHealth(deployments.values());
+
+    /**
+     * 集群成员， 为null时当做只有一个节点， 所有verticle都在当前节点部署
+     */
+    private ClusterCoordinator clusterCoordinator;
+
     /**
      * 从容器中获取被{@link Deploy}注解的{@link Verticle}组件，并执行部署操作。
      *
      * @param vertx     vertx实例
      */
     public void executeDeploy(Vertx vertx) {
+        ClusterPlacement placement = clusterCoordinator == null ? null :
+                new ClusterPlacement(vertx, clusterCoordinator);
         List<Component> components = DefaultContainer.get().getComponentsByAnnotation(Deploy.class);
+        List<HttpServerVerticle> httpServers = new ArrayList<>();
         components.stream()
                 .filter(c -> {
                     Deploy deploy = c.getAnnotation(Deploy.class);
@@ -55,59 +80,170 @@ public class VertxComponentLoader {
                 })
                 .forEach(component -> {
                     String verticleName = component.getClazz().getName();
-                    logger.info("deploy verticle -> {}", verticleName);
+                    VerticleDeployment deployment = createDeployment(component, httpServers);
+                    deployments.put(component.getClazz(), deployment);
+                    deployment.changeHandler(d -> health.update());
+                    health.update();
 
                     Deploy deploy = component.getAnnotation(Deploy.class);
-                    Verticle instance;
-                    try {
-                        instance = (Verticle) component.getClazz().newInstance();
-                    } catch (Exception e) {
-                        throw new VertxStartException("create verticle instance failed, verticle: " + component.getClazz().getName(), e);
+                    if (deploy.lazy() && deploy.placement() != Deploy.Placement.PER_NODE) {
+                        logger.warn("lazy verticle: {} ignored placement: {}, deployed per node", verticleName, deploy.placement());
                     }
-
-                    VerticleConfig config = instance instanceof VerticleConfig ? (VerticleConfig) instance : null;
-                    DeploymentOptions options = config != null ? config.options() : new DeploymentOptions();
-                    if (options == null)
-                        throw new VertxStartException(component.getClazz().getName() + " #options() returned null");
-
-                    boolean requireSingle = config != null && config.requireSingle();
-
-                    //verticle实例数
-                    int instanceCount;
-                    if (deploy.instances() == Integer.MAX_VALUE)
-                        instanceCount = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
-                    else if (deploy.instances() == Integer.MAX_VALUE - 2)
-                        instanceCount = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE / 2;
-                    else instanceCount = deploy.instances();
-
-                    boolean worker = deploy.worker();
-
-                    if (instanceCount != DeploymentOptions.DEFAULT_INSTANCES) options.setInstances(instanceCount);
-                    if (worker != DeploymentOptions.DEFAULT_WORKER) options.setWorker(worker);
-                    if (requireSingle && options.getInstances() != 1)
-                        throw new IllegalStateException("verticleName must be single instance");
-
-                    Handler<AsyncResult<String>> deployedHandler = config != null ? config.deployedHandler() : null;
-                    //部署完成提示
-                    Handler<AsyncResult<String>> delegateHandler = ar -> {
-                        if (ar.succeeded()) {
-                            logger.info(" {} deployed successfully.", verticleName);
-                        } else {
-                            logger.error("", ar.cause());
-                            String failLog =
-                                    "\r\n****************************************************\r\n" +
-                                            verticleName + " deployed failed!!!\r\n" +
-                                            "please check it and restart.\r\n" +
-                                            "****************************************************\r\n";
-
-                            logger.error(failLog);
-                            logger.error("verticle deployment failed, please restart...");
+                    if (deploy.lazy()) {
+                        logger.info("lazy verticle -> {}", verticleName);
+                        LazyDeployment lazy = new LazyDeployment(vertx, deployment);
+                        lazyDeployments.put(component.getClazz(), lazy);
+                        for (String address : lazy.getAddresses()) {
+                            lazyAddresses.computeIfAbsent(address, k -> new CopyOnWriteArrayList<>()).add(lazy);
                         }
-
-                        if (deployedHandler != null) deployedHandler.handle(ar);
-                    };
-                    vertx.deployVerticle(Start_Prefix + ':' + verticleName, options, delegateHandler);
+                        lazy.arm();
+                        return;
+                    }
+                    if (placement != null && deploy.placement() != Deploy.Placement.PER_NODE) {
+                        logger.info("cluster verticle -> {}, placement: {}", verticleName, deploy.placement());
+                        placement.add(deployment);
+                        return;
+                    }
+                    logger.info("deploy verticle -> {}", verticleName);
+                    deployment.deploy(vertx);
                 });
+
+        if (placement != null) placement.start();
+
+        //包括懒部署、集群部署的httpServer
+        for (Component c : HttpServerVerticle.unmatchedComponents(httpServers)) {
+            Route route = c.getAnnotation(Route.class);
+            String server = route != null ? route.server() : c.getAnnotation(Socket.class).server();
+            logger.warn("component: {} declared server: \"{}\", but no HttpServerVerticle#serverName() matched, not mounted",
+                    c.getClazz().getName(), server.trim());
+        }
+
+        if (!lazyAddresses.isEmpty()) {
+            //记录懒部署verticle的活跃时间，用于空闲卸载
+            vertx.eventBus().addInboundInterceptor(ctx -> {
+                List<LazyDeployment> lazies = lazyAddresses.get(ctx.message().address());
+                if (lazies != null) {
+                    for (int i = 0; i < lazies.size(); i++) lazies.get(i).touch();
+                }
+                ctx.next();
+            });
+            //空闲卸载期间的消息由LazyDeployment暂存
+            vertx.eventBus().addOutboundInterceptor(ctx -> {
+                List<LazyDeployment> lazies = lazyAddresses.get(ctx.message().address());
+                if (lazies != null) {
+                    for (int i = 0; i < lazies.size(); i++) {
+                        if (lazies.get(i).hold(ctx)) return;
+                    }
+                }
+                ctx.next();
+            });
+        }
+    }
+
+    /**
+     * 主动部署指定的verticle。
+     * 懒部署的verticle，如果还没部署，那么执行部署； 已部署的verticle， 直接返回deploymentId
+     *
+     * @param verticleClass 被{@link Deploy}注解的verticle
+     * @return deploymentId
+     */
+    public Future<String> deploy(Class<? extends Verticle> verticleClass) {
+        LazyDeployment lazy = lazyDeployments.get(verticleClass);
+        if (lazy != null) {
+            return lazy.activate();
+        }
+
+        VerticleDeployment deployment = deployments.get(verticleClass);
+        if (deployment == null) {
+            return Future.failedFuture(new VertxStartException("not found @Deploy verticle: " + verticleClass.getName()));
+        }
+        if (!deployment.deployed()) {
+            return Future.failedFuture(new VertxStartException("verticle has not been deployed: " + verticleClass.getName()));
+        }
+        return Future.succeededFuture(deployment.getDeploymentId());
+    }
+
+    /**
+     * 在{@link #executeDeploy(Vertx)}之前设置
+     *
+     * @param clusterCoordinator 集群成员
+     */
+    public void setClusterCoordinator(ClusterCoordinator clusterCoordinator) {
+        this.clusterCoordinator = clusterCoordinator;
+    }
+
+    /**
+     * @return 应用的健康、就绪状态
+     */
+    public BootHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * @return 所有verticle的部署描述
+     */
+    public Map<Class<?>, VerticleDeployment> getDeployments() {
+        return Collections.unmodifiableMap(deployments);
+    }
+
+    /**
+     * 根据{@link Deploy}和{@link VerticleConfig}创建部署描述
+     *
+     * @param component   verticle组件
+     * @param httpServers 收集httpServer实例， 用于检查{@link Route#server()}
+     * @return 部署描述
+     */
+    private VerticleDeployment createDeployment(Component component, List<HttpServerVerticle> httpServers) {
+        Deploy deploy = component.getAnnotation(Deploy.class);
+        Verticle instance;
+        try {
+            instance = (Verticle) component.getClazz().newInstance();
+        } catch (Exception e) {
+            throw new VertxStartException("create verticle instance failed, verticle: " + component.getClazz().getName(), e);
+        }
+        if (instance instanceof HttpServerVerticle) httpServers.add((HttpServerVerticle) instance);
+
+        VerticleConfig config = instance instanceof VerticleConfig ? (VerticleConfig) instance : null;
+        DeploymentOptions options = config != null ? config.options() : new DeploymentOptions();
+        if (options == null)
+            throw new VertxStartException(component.getClazz().getName() + " #options() returned null");
+
+        boolean requireSingle = config != null && config.requireSingle();
+
+        //verticle实例数
+        int instanceCount;
+        if (deploy.instances() == Integer.MAX_VALUE)
+            instanceCount = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+        else if (deploy.instances() == Integer.MAX_VALUE - 2)
+            instanceCount = VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE / 2;
+        else instanceCount = deploy.instances();
+
+        boolean worker = deploy.worker();
+
+        if (instanceCount != DeploymentOptions.DEFAULT_INSTANCES) options.setInstances(instanceCount);
+        if (worker != DeploymentOptions.DEFAULT_WORKER) options.setWorker(worker);
+        if (requireSingle && options.getInstances() != 1)
+            throw new IllegalStateException("verticleName must be single instance");
+        if (deploy.lazy() && deploy.addresses().length == 0)
+            logger.warn("lazy verticle: {} not declared addresses, only deployed by VertxBoot#deploy", component.getClazz().getName());
+
+        AutoscaleOptions autoscale = config != null ? config.autoscale() : null;
+        if (autoscale != null && (requireSingle || options.isWorker())) {
+            logger.warn("autoscale only support multi-instance event loop verticle, ignored. verticle: {}", component.getClazz().getName());
+            autoscale = null;
+        }
+        if (autoscale != null) {
+            int base = options.getInstances();
+            int min = autoscale.getMinInstances() > 0 ? autoscale.getMinInstances() : base;
+            if (min > base || base > autoscale.getMaxInstances()) {
+                throw new VertxStartException("autoscale instances must be min <= instances <= max, min: " + min +
+                        ", instances: " + base + ", max: " + autoscale.getMaxInstances() + ", verticle: " + component.getClazz().getName());
+            }
+        }
+
+        Handler<AsyncResult<String>> deployedHandler = config != null ? config.deployedHandler() : null;
+        RetryOptions retry = config != null ? config.retry() : null;
+        return new VerticleDeployment(component, options, deployedHandler, autoscale, retry);
     }
 
 
@@ -0,0 +1,43 @@
+package me.wang007.cache;
+
+import io.vertx.core.Future;
+
+/**
+ * 由vertx-start管理的本地缓存，通过{@link me.wang007.boot.VertxBoot#cache(Class)}获取。
+ *
+ * 有界， 使用W-TinyLFU淘汰， 支持ttl。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface Cache<K, V> {
+
+    /**
+     * 获取value， 未命中时通过{@link CacheLoader}加载。 并发的未命中合并为一次加载
+     *
+     * @param key key
+     * @return value
+     */
+    Future<V> get(K key);
+
+    /**
+     * @param key key
+     * @return value or null, 不会触发加载
+     */
+    V getIfPresent(K key);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    /**
+     * @return 缓存名
+     */
+    String name();
+
+    /**
+     * @return 命中率等统计
+     */
+    CacheStats stats();
+}
@@ -0,0 +1,49 @@
+package me.wang007.cache;
+
+import io.vertx.core.Future;
+import me.wang007.boot.VertxBoot;
+
+/**
+ * 缓存未命中时加载value，实现类需要用{@link me.wang007.annotation.Cache}注解。
+ *
+ * 同一个key并发的未命中只会调用一次{@link #load(Object)}， 其他请求等待这次加载的结果。
+ *
+ * <code>
+ *     \@Cache(value = "user", maxSize = 100_000, ttl = 60_000, sharded = true)
+ *     public class UserCacheLoader implements CacheLoader{@code <}String, JsonObject{@code >} {
+ *
+ *         private UserClient client;
+ *
+ *         public void init(VertxBoot boot) {
+ *             client = boot.registry().get(UserClient.Key);
+ *         }
+ *
+ *         public Future{@code <}JsonObject{@code >} load(String id) {
+ *             return client.find(id);
+ *         }
+ *     }
+ *
+ *     //使用
+ *     Cache{@code <}String, JsonObject{@code >} cache = boot.cache(UserCacheLoader.class);
+ *     cache.get(id).onSuccess(user {@code ->} ...);
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface CacheLoader<K, V> {
+
+    /**
+     * 缓存创建之后调用
+     *
+     * @param boot vertxBoot
+     */
+    default void init(VertxBoot boot) {}
+
+    /**
+     * 加载value
+     *
+     * @param key key
+     * @return value， 结果为null时不缓存
+     */
+    Future<V> load(K key);
+}
@@ -0,0 +1,249 @@
+package me.wang007.cache;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import me.wang007.annotation.Dataset;
+import me.wang007.annotation.OffHeap;
+import me.wang007.boot.VertxBoot;
+import me.wang007.container.Component;
+import me.wang007.container.DefaultContainer;
+import me.wang007.exception.ErrorUsedAnnotationException;
+import me.wang007.exception.VertxStartException;
+import me.wang007.shared.SharedRegistry;
+import me.wang007.utils.StringUtils;
+import me.wang007.utils.VertxUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 创建、保存被{@link me.wang007.annotation.Cache}注解的缓存组件， 构建被{@link OffHeap}注解的堆外存储和被{@link Dataset}注解的数据集
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class CacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheManager.class);
+
+    private final Map<Class<?>, Cache<?, ?>> byClass = new HashMap<>();
+
+    private final Map<String, Cache<?, ?>> byName = new HashMap<>();
+
+    /**
+     * 从容器中获取缓存组件，并创建缓存。 只在启动时调用一次
+     *
+     * @param boot vertxBoot
+     */
+    @SuppressWarnings("unchecked")
+    public void createCaches(VertxBoot boot) {
+        int eventLoops = VertxUtils.eventLoopCount(boot.vertx());
+        for (Component c : DefaultContainer.get().getComponentsByAnnotation(me.wang007.annotation.Cache.class)) {
+            if (!CacheLoader.class.isAssignableFrom(c.getClazz())) {
+                throw new ErrorUsedAnnotationException("@Cache can only be used on CacheLoader, component:" + c.getClazz().getName());
+            }
+            me.wang007.annotation.Cache an = c.getAnnotation(me.wang007.annotation.Cache.class);
+            String name = StringUtils.isNotBlank(an.value()) ? an.value().trim() : c.getComponentName();
+
+            CacheLoader<Object, Object> loader;
+            try {
+                loader = (CacheLoader<Object, Object>) c.getClazz().newInstance();
+            } catch (Exception e) {
+                throw new VertxStartException("create cache loader instance failed, loader: " + c.getClazz().getName(), e);
+            }
+
+            Cache<Object, Object> cache = an.sharded() ?
+                    new ShardedCache<>(name, loader, an.maxSize(), an.ttl(), eventLoops) :
+                    new SharedCache<>(name, loader, an.maxSize(), an.ttl());
+            if (byName.put(name, cache) != null) {
+                throw new VertxStartException("repeated cache name: " + name);
+            }
+            byClass.put(c.getClazz(), cache);
+            loader.init(boot);
+            logger.info("cache -> {} created, maxSize: {}, ttl: {}ms, sharded: {}", name, an.maxSize(), an.ttl(), an.sharded());
+        }
+    }
+
+    /**
+     * 构建被{@link OffHeap}注解的堆外存储， 注册到{@link VertxBoot#registry()}中。 只在启动时调用一次
+     *
+     * @param boot vertxBoot
+     */
+    public void createOffHeapStores(VertxBoot boot) {
+        for (Component c : DefaultContainer.get().getComponentsByAnnotation(OffHeap.class)) {
+            if (!OffHeapLoader.class.isAssignableFrom(c.getClazz())) {
+                throw new ErrorUsedAnnotationException("@OffHeap can only be used on OffHeapLoader, component:" + c.getClazz().getName());
+            }
+            OffHeap an = c.getAnnotation(OffHeap.class);
+            String name = StringUtils.isNotBlank(an.value()) ? an.value().trim() : c.getComponentName();
+
+            OffHeapStore.Builder builder = StringUtils.isBlank(an.file()) ?
+                    OffHeapStore.builder() : OffHeapStore.builder(Paths.get(an.file().trim()));
+            builder.slabSize(an.slabSize());
+            long start = System.currentTimeMillis();
+            OffHeapStore store;
+            try {
+                ((OffHeapLoader) c.getClazz().newInstance()).load(boot, builder);
+                store = builder.build();
+            } catch (VertxStartException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new VertxStartException("load off-heap store failed, loader: " + c.getClazz().getName(), e);
+            }
+            if (boot.registry().put(OffHeapStore.key(name), store) != null) {
+                throw new VertxStartException("repeated off-heap store name: " + name);
+            }
+            logger.info("off-heap store -> {} loaded, entries: {}, memory: {}MB, cost: {}ms",
+                    name, store.size(), store.memoryUsage() >> 20, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 加载被{@link Dataset}注解的数据集， 注册到{@link VertxBoot#registry()}中。 只在启动时调用一次
+     *
+     * @param boot vertxBoot
+     */
+    public void createDatasets(VertxBoot boot) {
+        for (Component c : DefaultContainer.get().getComponentsByAnnotation(Dataset.class)) {
+            if (!DatasetParser.class.isAssignableFrom(c.getClazz())) {
+                throw new ErrorUsedAnnotationException("@Dataset can only be used on DatasetParser, component:" + c.getClazz().getName());
+            }
+            Dataset an = c.getAnnotation(Dataset.class);
+            String name = StringUtils.isNotBlank(an.value()) ? an.value().trim() : c.getComponentName();
+            Path source = Paths.get(an.source().trim());
+            Path snapshot = StringUtils.isBlank(an.snapshot()) ? null : Paths.get(an.snapshot().trim());
+            DatasetParser parser;
+            try {
+                parser = (DatasetParser) c.getClazz().newInstance();
+            } catch (Exception e) {
+                throw new VertxStartException("create dataset parser instance failed, parser: " + c.getClazz().getName(), e);
+            }
+            loadDataset(boot.registry(), name, parser, source, snapshot, an.slabSize());
+        }
+    }
+
+    /**
+     * 加载一个数据集， 注册到registry中。 snapshot存在且比source新时直接打开snapshot， 否则解析source
+     *
+     * @param registry 注册表， 一般为{@link VertxBoot#registry()}
+     * @param name     数据集名， 见{@link OffHeapStore#key(String)}
+     * @param parser   解析器， snapshot有效时不会调用
+     * @param source   源文件
+     * @param snapshot 快照文件， 可以为null
+     * @param slabSize 见{@link OffHeapStore.Builder#slabSize(int)}
+     * @return 数据集
+     * @throws VertxStartException 名字重复或者解析失败
+     */
+    public static OffHeapStore loadDataset(SharedRegistry registry, String name, DatasetParser parser,
+                                           Path source, Path snapshot, int slabSize) {
+        //先检查名字， 避免重复的数据集白白解析一次
+        if (registry.get(OffHeapStore.key(name)) != null) {
+            throw new VertxStartException("repeated dataset name: " + name);
+        }
+        long start = System.currentTimeMillis();
+        OffHeapStore store = snapshotUpToDate(source, snapshot) ? openSnapshot(snapshot) : null;
+        boolean fromSnapshot = store != null;
+        if (store == null) {
+            try {
+                store = parse(parser, source, snapshot, slabSize);
+            } catch (VertxStartException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new VertxStartException("parse dataset failed, parser: " + parser.getClass().getName() + ", source: " + source, e);
+            }
+        }
+        if (registry.put(OffHeapStore.key(name), store) != null) {
+            throw new VertxStartException("repeated dataset name: " + name);
+        }
+        logger.info("dataset -> {} loaded from {}, entries: {}, cost: {}ms",
+                name, fromSnapshot ? snapshot : source, store.size(), System.currentTimeMillis() - start);
+        return store;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(Class<? extends CacheLoader<K, V>> loaderClass) {
+        return (Cache<K, V>) byClass.get(loaderClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String name) {
+        return (Cache<K, V>) byName.get(name);
+    }
+
+    /**
+     * @return 所有缓存， key为缓存名
+     */
+    public Map<String, Cache<?, ?>> getCaches() {
+        return Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * snapshot存在且比source新
+     */
+    private static boolean snapshotUpToDate(Path source, Path snapshot) {
+        if (snapshot == null || !Files.isRegularFile(snapshot)) return false;
+        try {
+            return !Files.exists(source) ||
+                    Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(source)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * snapshot损坏时返回null， 重新解析
+     */
+    private static OffHeapStore openSnapshot(Path snapshot) {
+        try {
+            return OffHeapStore.open(snapshot);
+        } catch (VertxStartException e) {
+            logger.warn("open dataset snapshot failed, reparse source. snapshot: " + snapshot, e);
+            return null;
+        }
+    }
+
+    /**
+     * 解析到临时文件之后再替换snapshot， 解析中途失败不会留下不完整的snapshot
+     */
+    private static OffHeapStore parse(DatasetParser parser, Path source, Path snapshot, int slabSize) throws Exception {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new VertxStartException("dataset source too large to map, max 2GB, source: " + source);
+            }
+            ByteBuffer view = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+            if (snapshot == null) {
+                OffHeapStore.Builder builder = OffHeapStore.builder().slabSize(slabSize);
+                parser.parse(view, builder);
+                return builder.build();
+            }
+
+            Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+            OffHeapStore.Builder builder = OffHeapStore.builder(tmp).slabSize(slabSize);
+            OffHeapStore store;
+            try {
+                parser.parse(view, builder);
+                store = builder.build();
+            } catch (Throwable e) {
+                //解析失败， 关闭builder并删除不完整的临时文件
+                builder.discard();
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ex) {
+                    e.addSuppressed(ex);
+                }
+                throw e;
+            }
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return store;
+        }
+    }
+}
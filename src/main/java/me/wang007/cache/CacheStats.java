@@ -0,0 +1,63 @@
+package me.wang007.cache;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存的统计
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class CacheStats {
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder loads = new LongAdder();
+    final LongAdder loadFailures = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 实际调用{@link CacheLoader#load(Object)}的次数， 合并的未命中只算一次
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    public long loadFailures() {
+        return loadFailures.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("hits", hits())
+                .put("misses", misses())
+                .put("hitRate", hitRate())
+                .put("loads", loads())
+                .put("loadFailures", loadFailures())
+                .put("evictions", evictions());
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats" + toJson().encode();
+    }
+}
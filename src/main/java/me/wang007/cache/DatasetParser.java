@@ -0,0 +1,22 @@
+package me.wang007.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 被{@link me.wang007.annotation.Dataset}注解的数据集的解析器
+ *
+ * 在启动线程上同步执行， 可以阻塞。 snapshot有效时不会执行。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface DatasetParser {
+
+    /**
+     * 解析source， 把数据写入builder
+     *
+     * @param source  只读映射的源文件
+     * @param builder builder， 不需要调用build
+     * @throws Exception 解析失败， 启动失败
+     */
+    void parse(ByteBuffer source, OffHeapStore.Builder builder) throws Exception;
+}
@@ -0,0 +1,92 @@
+package me.wang007.cache;
+
+/**
+ * TinyLFU中用于估算访问频率的count-min sketch。
+ *
+ * 每个long存16个4bit的计数器， 每个key通过4个hash分别定位一个计数器，取最小值作为频率。
+ * 计数次数达到采样数时， 所有计数器减半， 使得频率随时间衰减。
+ *
+ * 非线程安全
+ *
+ * created by wang007 on 2026/10/19
+ */
+class FrequencySketch {
+
+    private static final long[] Seeds = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long Reset_Mask = 0x7777777777777777L;
+
+    private final long[] table;
+
+    private final int tableMask;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    FrequencySketch(int maxSize) {
+        int size = tableSizeFor(Math.max(maxSize, 8));
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = maxSize <= Integer.MAX_VALUE / 10 ? maxSize * 10 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return key的估算频率， 最大15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            long h = indexHash(hash, i);
+            int index = (int) h & tableMask;
+            int offset = (int) ((h >>> 32) & 15) << 2;
+            int count = (int) ((table[index] >>> offset) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            long h = indexHash(hash, i);
+            int index = (int) h & tableMask;
+            int offset = (int) ((h >>> 32) & 15) << 2;
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) reset();
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & Reset_Mask;
+        }
+        additions = additions >>> 1;
+    }
+
+    private static long indexHash(int hash, int i) {
+        long h = (hash + Seeds[i]) * Seeds[i];
+        return h ^ (h >>> 29);
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int tableSizeFor(int cap) {
+        int n = Integer.highestOneBit(cap - 1) << 1;
+        return n <= 0 ? 1 << 30 : Math.min(n, 1 << 30);
+    }
+}
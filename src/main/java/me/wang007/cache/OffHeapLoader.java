@@ -0,0 +1,22 @@
+package me.wang007.cache;
+
+import me.wang007.boot.VertxBoot;
+
+/**
+ * 被{@link me.wang007.annotation.OffHeap}注解的堆外存储的数据加载器
+ *
+ * 在启动线程上同步执行， 可以阻塞。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface OffHeapLoader {
+
+    /**
+     * 把数据写入builder
+     *
+     * @param boot    vertxBoot
+     * @param builder builder， 不需要调用build
+     * @throws Exception 加载失败， 启动失败
+     */
+    void load(VertxBoot boot, OffHeapStore.Builder builder) throws Exception;
+}
@@ -0,0 +1,432 @@
+package me.wang007.cache;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import me.wang007.exception.VertxStartException;
+import me.wang007.shared.SharedKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 堆外的只读key-value存储， 用于大的、读多写少的共享数据（地理数据，商品目录等）。
+ *
+ * 数据保存在direct ByteBuffer slab中，或者内存映射文件中，不占用堆内存，不会增加GC的停顿时间。
+ * 通过{@link Builder}一次性构建，构建完成之后不可变， 所有线程无锁读取。
+ * {@link #get(String)}返回的是指向slab的只读{@link Buffer}， 没有拷贝。
+ *
+ * entry的格式： int keyLen, int valueLen, key bytes, value bytes。 entry不会跨slab。
+ * 索引是开放寻址（线性探测）的hash表，同样在堆外， 每个槽位12个字节： int hash, int slab + 1, int offset。
+ *
+ * 文件格式： 64字节的header， 之后是slab区（第i个slab在 Header_Size + i * slabSize）， 最后是索引区。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class OffHeapStore {
+
+    public static final int Default_Slab_Size = 256 * 1024 * 1024;
+
+    private static final int Magic = 0x56534F48;    //VSOH
+    private static final int Version = 1;
+    private static final int Header_Size = 64;
+    private static final int Slot_Size = 12;
+    private static final int Entry_Header_Size = 8;
+    private static final int Max_Index_Capacity = 1 << 27;
+
+    private static final Map<String, SharedKey<OffHeapStore>> keys = new ConcurrentHashMap<>();
+
+    private final ByteBuffer[] slabs;
+
+    private final ByteBuffer index;
+
+    private final int mask;
+
+    private final long size;
+
+    private OffHeapStore(ByteBuffer[] slabs, ByteBuffer index, long size) {
+        this.slabs = slabs;
+        this.index = index;
+        this.mask = index.capacity() / Slot_Size - 1;
+        this.size = size;
+    }
+
+    /**
+     * 同名的key是同一个实例， 用于在{@link me.wang007.shared.SharedRegistry}中共享
+     *
+     * <code>
+     *     OffHeapStore geo = boot.registry().get(OffHeapStore.key("geo"));
+     * </code>
+     *
+     * @param name store的名称
+     * @return key
+     */
+    public static SharedKey<OffHeapStore> key(String name) {
+        return keys.computeIfAbsent(name, n -> SharedKey.of(n, OffHeapStore.class));
+    }
+
+    /**
+     * @return 数据保存在direct ByteBuffer中的builder
+     */
+    public static Builder builder() {
+        return new Builder(null);
+    }
+
+    /**
+     * 数据写入文件， 构建完成之后只读映射。 文件已存在的话会被覆盖
+     *
+     * @param file 文件
+     * @return builder
+     */
+    public static Builder builder(Path file) {
+        Objects.requireNonNull(file, "file require not null");
+        return new Builder(file);
+    }
+
+    /**
+     * 只读映射{@link #builder(Path)}构建出的文件， 不需要重新构建。
+     * 打开的耗时只跟page cache有关， 跟数据量无关。
+     *
+     * @param file 文件
+     * @return store
+     */
+    public static OffHeapStore open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Header_Size);
+            if (header.getInt(0) != Magic || header.getInt(4) != Version) {
+                throw new VertxStartException("not an off-heap store file: " + file);
+            }
+            int slabSize = header.getInt(8);
+            int slabCount = header.getInt(12);
+            int lastUsed = header.getInt(16);
+            int capacity = header.getInt(20);
+            long size = header.getLong(24);
+            long indexOffset = header.getLong(32);
+
+            ByteBuffer[] slabs = new ByteBuffer[slabCount];
+            for (int i = 0; i < slabCount; i++) {
+                int length = i == slabCount - 1 ? lastUsed : slabSize;
+                slabs[i] = channel.map(FileChannel.MapMode.READ_ONLY, Header_Size + (long) i * slabSize, length).asReadOnlyBuffer();
+            }
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) capacity * Slot_Size);
+            return new OffHeapStore(slabs, index, size);
+        } catch (IOException e) {
+            throw new VertxStartException("open off-heap store failed, file: " + file, e);
+        }
+    }
+
+    /**
+     * @param key key
+     * @return 只读的value， 不存在时返回null
+     */
+    public Buffer get(String key) {
+        return get(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param key key
+     * @return 只读的value， 不存在时返回null
+     */
+    public Buffer get(Buffer key) {
+        return get(key.getBytes());
+    }
+
+    /**
+     * @param key key
+     * @return 只读的value， 不存在时返回null
+     */
+    public Buffer get(byte[] key) {
+        int hash = hash(key);
+        int slot = hash & mask;
+        for (; ; ) {
+            int p = slot * Slot_Size;
+            int slabPlusOne = index.getInt(p + 4);
+            if (slabPlusOne == 0) return null;
+            if (index.getInt(p) == hash) {
+                ByteBuffer slab = slabs[slabPlusOne - 1];
+                int offset = index.getInt(p + 8);
+                if (keyEquals(slab, offset, key)) {
+                    int valueLen = slab.getInt(offset + 4);
+                    return slice(slab, offset + Entry_Header_Size + key.length, valueLen);
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return entry数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return 占用的堆外内存（或映射的文件大小）， 单位：byte
+     */
+    public long memoryUsage() {
+        long total = index.capacity();
+        for (ByteBuffer slab : slabs) total += slab.capacity();
+        return total;
+    }
+
+    private static Buffer slice(ByteBuffer slab, int offset, int length) {
+        ByteBuffer dup = slab.duplicate();
+        dup.limit(offset + length);
+        dup.position(offset);
+        return Buffer.buffer(Unpooled.wrappedBuffer(dup.slice()));
+    }
+
+    private static boolean keyEquals(ByteBuffer slab, int offset, byte[] key) {
+        if (slab.getInt(offset) != key.length) return false;
+        int start = offset + Entry_Header_Size;
+        for (int i = 0; i < key.length; i++) {
+            if (slab.get(start + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean keyEquals(ByteBuffer slab, int offset, ByteBuffer other, int otherOffset) {
+        int len = slab.getInt(offset);
+        if (other.getInt(otherOffset) != len) return false;
+        int a = offset + Entry_Header_Size, b = otherOffset + Entry_Header_Size;
+        for (int i = 0; i < len; i++) {
+            if (slab.get(a + i) != other.get(b + i)) return false;
+        }
+        return true;
+    }
+
+    private static int hash(byte[] key) {
+        int h = 0;
+        for (byte b : key) h = 31 * h + b;
+        return mix(h);
+    }
+
+    private static int hash(ByteBuffer slab, int start, int len) {
+        int h = 0;
+        for (int i = 0; i < len; i++) h = 31 * h + slab.get(start + i);
+        return mix(h);
+    }
+
+    /**
+     * murmur3 fmix32
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * 非线程安全， 一般在启动时由一个线程构建
+     */
+    public static class Builder {
+
+        private final Path file;
+
+        private FileChannel channel;
+
+        private int slabSize = Default_Slab_Size;
+
+        private final List<ByteBuffer> slabs = new ArrayList<>();
+
+        private ByteBuffer current;
+
+        private long puts;
+
+        private boolean built;
+
+        private Builder(Path file) {
+            this.file = file;
+        }
+
+        /**
+         * @param slabSize 每个slab的大小， 单条entry不能超过该大小。 默认256MB
+         * @return this
+         */
+        public Builder slabSize(int slabSize) {
+            if (current != null) throw new IllegalStateException("slabSize must be set before put");
+            if (slabSize <= Entry_Header_Size) throw new IllegalArgumentException("slabSize too small: " + slabSize);
+            this.slabSize = slabSize;
+            return this;
+        }
+
+        public Builder put(String key, String value) {
+            return put(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public Builder put(String key, Buffer value) {
+            return put(key.getBytes(StandardCharsets.UTF_8), value.getBytes());
+        }
+
+        public Builder put(Buffer key, Buffer value) {
+            return put(key.getBytes(), value.getBytes());
+        }
+
+        /**
+         * key重复时， 后put的覆盖先put的
+         *
+         * @param key   key
+         * @param value value
+         * @return this
+         */
+        public Builder put(byte[] key, byte[] value) {
+            if (built) throw new IllegalStateException("off-heap store already built");
+            long entrySize = (long) Entry_Header_Size + key.length + value.length;
+            if (entrySize > slabSize) {
+                throw new IllegalArgumentException("entry size " + entrySize + " exceeds slab size " + slabSize);
+            }
+            if (current == null || current.remaining() < entrySize) nextSlab();
+            current.putInt(key.length).putInt(value.length).put(key).put(value);
+            puts++;
+            return this;
+        }
+
+        /**
+         * @return 不可变的store， builder不能再使用
+         */
+        public OffHeapStore build() {
+            if (built) throw new IllegalStateException("off-heap store already built");
+            built = true;
+            long capacity = Long.highestOneBit(Math.max(16, puts * 2 - 1)) << 1;
+            if (capacity > Max_Index_Capacity) {
+                throw new IllegalArgumentException("too many entries for one off-heap store: " + puts);
+            }
+            int lastUsed = current == null ? 0 : current.position();
+            ByteBuffer index = ByteBuffer.allocateDirect((int) capacity * Slot_Size);
+            long size = buildIndex(index, lastUsed);
+
+            if (file == null) {
+                ByteBuffer[] arr = new ByteBuffer[slabs.size()];
+                for (int i = 0; i < arr.length; i++) {
+                    ByteBuffer slab = slabs.get(i).duplicate();
+                    slab.clear();
+                    if (i == arr.length - 1) slab.limit(lastUsed);
+                    arr[i] = slab.slice().asReadOnlyBuffer();
+                }
+                return new OffHeapStore(arr, index.asReadOnlyBuffer(), size);
+            }
+
+            try {
+                writeFile(index, lastUsed, size);
+            } catch (IOException e) {
+                throw new VertxStartException("write off-heap store failed, file: " + file, e);
+            }
+            return open(file);
+        }
+
+        /**
+         * 放弃构建， 关闭文件并丢弃已映射的slab。 文件由调用方删除， mapping在gc时释放
+         */
+        void discard() {
+            built = true;
+            slabs.clear();
+            current = null;
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+            }
+        }
+
+        private void nextSlab() {
+            if (current != null && current.remaining() >= 4) current.putInt(current.position(), -1);    //slab结束标记
+            if (file == null) {
+                current = ByteBuffer.allocateDirect(slabSize);
+            } else {
+                try {
+                    if (channel == null) {
+                        Files.deleteIfExists(file);
+                        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    }
+                    current = channel.map(FileChannel.MapMode.READ_WRITE, Header_Size + (long) slabs.size() * slabSize, slabSize);
+                } catch (IOException e) {
+                    throw new VertxStartException("map off-heap store file failed, file: " + file, e);
+                }
+            }
+            slabs.add(current);
+        }
+
+        /**
+         * 遍历所有entry， 插入索引。 key重复时更新为后写入的entry
+         *
+         * @return 不重复的key数
+         */
+        private long buildIndex(ByteBuffer index, int lastUsed) {
+            int mask = index.capacity() / Slot_Size - 1;
+            long size = 0;
+            for (int s = 0; s < slabs.size(); s++) {
+                ByteBuffer slab = slabs.get(s);
+                int end = s == slabs.size() - 1 ? lastUsed : slabSize;
+                int offset = 0;
+                while (offset + Entry_Header_Size <= end) {
+                    int keyLen = slab.getInt(offset);
+                    if (keyLen < 0) break;
+                    int valueLen = slab.getInt(offset + 4);
+                    int hash = hash(slab, offset + Entry_Header_Size, keyLen);
+                    int slot = hash & mask;
+                    for (; ; ) {
+                        int p = slot * Slot_Size;
+                        int slabPlusOne = index.getInt(p + 4);
+                        if (slabPlusOne == 0) {
+                            size++;
+                            break;
+                        }
+                        if (index.getInt(p) == hash && keyEquals(slabs.get(slabPlusOne - 1), index.getInt(p + 8), slab, offset)) {
+                            break;
+                        }
+                        slot = (slot + 1) & mask;
+                    }
+                    int p = slot * Slot_Size;
+                    index.putInt(p, hash).putInt(p + 4, s + 1).putInt(p + 8, offset);
+                    offset += Entry_Header_Size + keyLen + valueLen;
+                }
+            }
+            return size;
+        }
+
+        private void writeFile(ByteBuffer index, int lastUsed, long size) throws IOException {
+            if (channel == null) {
+                Files.deleteIfExists(file);
+                channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            try {
+                for (ByteBuffer slab : slabs) ((MappedByteBuffer) slab).force();
+                long dataEnd = slabs.isEmpty() ? Header_Size : Header_Size + (long) (slabs.size() - 1) * slabSize + lastUsed;
+                long indexOffset = (dataEnd + 7) & ~7L;
+
+                ByteBuffer src = index.duplicate();
+                src.clear();
+                long pos = indexOffset;
+                while (src.hasRemaining()) pos += channel.write(src, pos);
+
+                ByteBuffer header = ByteBuffer.allocate(Header_Size);
+                header.putInt(Magic).putInt(Version).putInt(slabSize).putInt(slabs.size())
+                        .putInt(lastUsed).putInt(index.capacity() / Slot_Size).putLong(size).putLong(indexOffset);
+                header.clear();
+                pos = 0;
+                while (header.hasRemaining()) pos += channel.write(header, pos);
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package me.wang007.cache;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按照eventLoop分片的缓存， 每个eventLoop线程一个分片，分片内不需要加锁。
+ *
+ * 每个分片的容量 = maxSize / eventLoop数。 同一个key在不同的eventLoop上可能会分别加载一次。
+ * 只能在eventLoop线程上访问。 loader可以在任意线程上完成， 结果会切换回调用者的context再写入分片。
+ * 不在vertx线程上调用{@link #get(Object)}时只加载不缓存。
+ *
+ * created by wang007 on 2026/10/19
+ */
+class ShardedCache<K, V> implements Cache<K, V> {
+
+    private final String name;
+
+    private final CacheLoader<K, V> loader;
+
+    private final CacheStats stats = new CacheStats();
+
+    private final FastThreadLocal<Shard<K, V>> shards;
+
+    ShardedCache(String name, CacheLoader<K, V> loader, int maxSize, long ttl, int shardCount) {
+        this.name = name;
+        this.loader = loader;
+        int shardSize = Math.max(1, maxSize / Math.max(1, shardCount));
+        this.shards = new FastThreadLocal<Shard<K, V>>() {
+            @Override
+            protected Shard<K, V> initialValue() {
+                return new Shard<>(new TinyLfuCache<>(shardSize, ttl));
+            }
+        };
+    }
+
+    @Override
+    public Future<V> get(K key) {
+        V value = getIfPresent(key);
+        if (value != null) return Future.succeededFuture(value);
+
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            //不在vertx的线程上， loader完成时无法切回当前线程， 不能修改当前线程的分片， 只加载不缓存
+            return load(key).onFailure(e -> stats.loadFailures.increment());
+        }
+
+        Shard<K, V> shard = shards.get();
+        Future<V> exist = shard.loading.get(key);
+        if (exist != null) return exist;
+
+        Promise<V> promise = Promise.promise();
+        shard.loading.put(key, promise.future());
+        Thread owner = Thread.currentThread();
+        load(key).onComplete(ar -> {
+            //分片只能在所属的线程上修改
+            if (Thread.currentThread() == owner) loaded(shard, key, ar, promise);
+            else context.runOnContext(v -> loaded(shard, key, ar, promise));
+        });
+        return promise.future();
+    }
+
+    private Future<V> load(K key) {
+        stats.loads.increment();
+        try {
+            return loader.load(key);
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    private void loaded(Shard<K, V> shard, K key, AsyncResult<V> ar, Promise<V> promise) {
+        if (ar.succeeded()) {
+            if (ar.result() != null) put(shard, key, ar.result());
+        } else {
+            stats.loadFailures.increment();
+        }
+        shard.loading.remove(key);
+        promise.handle(ar);
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        V value = shards.get().cache.get(key);
+        if (value != null) stats.hits.increment();
+        else stats.misses.increment();
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(shards.get(), key, value);
+    }
+
+    /**
+     * 只会修改当前eventLoop的分片
+     */
+    @Override
+    public void invalidate(K key) {
+        shards.get().cache.invalidate(key);
+    }
+
+    /**
+     * 只会清空当前eventLoop的分片
+     */
+    @Override
+    public void invalidateAll() {
+        shards.get().cache.invalidateAll();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats;
+    }
+
+    private void put(Shard<K, V> shard, K key, V value) {
+        long before = shard.cache.evictions();
+        shard.cache.put(key, value);
+        long evicted = shard.cache.evictions() - before;
+        if (evicted != 0) stats.evictions.add(evicted);
+    }
+
+    private static final class Shard<K, V> {
+        final TinyLfuCache<K, V> cache;
+        final Map<K, Future<V>> loading = new HashMap<>();
+
+        Shard(TinyLfuCache<K, V> cache) {
+            this.cache = cache;
+        }
+    }
+}
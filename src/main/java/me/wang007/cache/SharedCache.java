@@ -0,0 +1,137 @@
+package me.wang007.cache;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 所有eventLoop共享一份的缓存， 通过锁保护{@link TinyLfuCache}。
+ *
+ * 加载的结果会切回到调用者的context上回调。
+ *
+ * created by wang007 on 2026/10/19
+ */
+class SharedCache<K, V> implements Cache<K, V> {
+
+    private final String name;
+
+    private final CacheLoader<K, V> loader;
+
+    private final TinyLfuCache<K, V> cache;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<K, Future<V>> loading = new ConcurrentHashMap<>();
+
+    private final CacheStats stats = new CacheStats();
+
+    SharedCache(String name, CacheLoader<K, V> loader, int maxSize, long ttl) {
+        this.name = name;
+        this.loader = loader;
+        this.cache = new TinyLfuCache<>(maxSize, ttl);
+    }
+
+    @Override
+    public Future<V> get(K key) {
+        V value = getIfPresent(key);
+        if (value != null) return Future.succeededFuture(value);
+
+        Promise<V> promise = Promise.promise();
+        Future<V> exist = loading.putIfAbsent(key, promise.future());
+        if (exist != null) return onCurrentContext(exist);
+
+        stats.loads.increment();
+        Future<V> load;
+        try {
+            load = loader.load(key);
+        } catch (Exception e) {
+            load = Future.failedFuture(e);
+        }
+        load.onComplete(ar -> {
+            if (ar.succeeded()) {
+                if (ar.result() != null) put(key, ar.result());
+            } else {
+                stats.loadFailures.increment();
+            }
+            loading.remove(key);
+            promise.handle(ar);
+        });
+        return onCurrentContext(promise.future());
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        V value;
+        lock.lock();
+        try {
+            value = cache.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (value != null) stats.hits.increment();
+        else stats.misses.increment();
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            long before = cache.evictions();
+            cache.put(key, value);
+            long evicted = cache.evictions() - before;
+            if (evicted != 0) stats.evictions.add(evicted);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            cache.invalidate(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            cache.invalidateAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats;
+    }
+
+    /**
+     * 等待其他context发起的加载时，结果切回当前context
+     */
+    private Future<V> onCurrentContext(Future<V> future) {
+        Context context = Vertx.currentContext();
+        if (context == null) return future;
+        Promise<V> promise = Promise.promise();
+        future.onComplete(ar -> {
+            if (Vertx.currentContext() == context) promise.handle(ar);
+            else context.runOnContext(v -> promise.handle(ar));
+        });
+        return promise.future();
+    }
+}
@@ -0,0 +1,231 @@
+package me.wang007.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * W-TinyLFU淘汰策略的有界缓存， 非线程安全。
+ *
+ * 新的entry先进入容量约1%的window LRU， 被挤出window时成为候选者， 和main区probation段的队头(最久未访问的)比较
+ * {@link FrequencySketch}估算出的访问频率， 频率低的被淘汰。main区分为probation(20%)和protected(80%)两段，
+ * probation中再次被访问的entry晋升到protected。
+ *
+ * 这样偶发的一次性访问(例如扫描)不会把热点数据挤出缓存。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int Window = 0, Probation = 1, Protected = 2;
+
+    private final int maxSize;
+    private final int windowMax;
+    private final int protectedMax;
+
+    /**
+     * 存活时间， 单位：ms。 {@code <=} 0 表示不过期
+     */
+    private final long ttl;
+
+    private final LongSupplier clock;
+
+    private final Map<K, Node<K, V>> data;
+
+    private final FrequencySketch sketch;
+
+    private final Deque<K, V> window = new Deque<>();
+    private final Deque<K, V> probation = new Deque<>();
+    private final Deque<K, V> protect = new Deque<>();
+
+    private long evictions;
+
+    public TinyLfuCache(int maxSize, long ttl) {
+        this(maxSize, ttl, System::currentTimeMillis);
+    }
+
+    public TinyLfuCache(int maxSize, long ttl, LongSupplier clock) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be greater than 0");
+        this.maxSize = maxSize;
+        this.windowMax = Math.max(1, maxSize / 100);
+        this.protectedMax = (int) ((maxSize - windowMax) * 0.8);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.data = new HashMap<>(Math.min(maxSize, 1 << 16));
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    /**
+     * @param key key
+     * @return value or null(不存在或者已过期)
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        sketch.increment(key);
+        if (node == null) return null;
+        if (expired(node)) {
+            remove(node);
+            return null;
+        }
+        onAccess(node);
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        long expireAt = ttl > 0 ? clock.getAsLong() + ttl : 0;
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            node.expireAt = expireAt;
+            onAccess(node);
+            return;
+        }
+        node = new Node<>(key, value, expireAt);
+        data.put(key, node);
+        sketch.increment(key);
+        window.addLast(node);
+        node.queue = Window;
+
+        if (window.size > windowMax) {
+            Node<K, V> candidate = window.pollFirst();
+            candidate.queue = Probation;
+            probation.addLast(candidate);
+            if (data.size() > maxSize) evict(candidate);
+        }
+    }
+
+    public V invalidate(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) return null;
+        remove(node);
+        return node.value;
+    }
+
+    public void invalidateAll() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protect.clear();
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * 淘汰候选者或者probation的队头中访问频率低的那个
+     */
+    private void evict(Node<K, V> candidate) {
+        Node<K, V> victim = probation.head != candidate ? probation.head : null;
+        if (victim == null) victim = protect.head;
+        if (victim == null || victim == candidate) {
+            remove(candidate);
+        } else if (expired(victim)) {
+            remove(victim);
+        } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            remove(victim);
+        } else {
+            remove(candidate);
+        }
+        evictions++;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case Window:
+                window.moveToLast(node);
+                break;
+            case Probation:
+                probation.remove(node);
+                node.queue = Protected;
+                protect.addLast(node);
+                if (protect.size > protectedMax) {
+                    Node<K, V> demoted = protect.pollFirst();
+                    demoted.queue = Probation;
+                    probation.addLast(demoted);
+                }
+                break;
+            default:
+                protect.moveToLast(node);
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        data.remove(node.key);
+        switch (node.queue) {
+            case Window:
+                window.remove(node);
+                break;
+            case Probation:
+                probation.remove(node);
+                break;
+            default:
+                protect.remove(node);
+        }
+    }
+
+    private boolean expired(Node<K, V> node) {
+        return node.expireAt != 0 && node.expireAt <= clock.getAsLong();
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long expireAt;
+        int queue;
+        Node<K, V> prev, next;
+
+        Node(K key, V value, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 侵入式双向链表， 避免额外的节点对象
+     */
+    private static final class Deque<K, V> {
+        Node<K, V> head, tail;
+        int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) head = node;
+            else tail.next = node;
+            tail = node;
+            size++;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = head;
+            if (node != null) remove(node);
+            return node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) head = node.next;
+            else node.prev.next = node.next;
+            if (node.next == null) tail = node.prev;
+            else node.next.prev = node.prev;
+            node.prev = node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (tail == node) return;
+            remove(node);
+            addLast(node);
+        }
+
+        void clear() {
+            head = tail = null;
+            size = 0;
+        }
+    }
+}
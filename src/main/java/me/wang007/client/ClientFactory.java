@@ -0,0 +1,59 @@
+package me.wang007.client;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 被{@link me.wang007.annotation.Client}注解的client的工厂
+ *
+ * <code>
+ *     \@Client(value = "db", poolSize = 32)
+ *     public class DbClientFactory implements ClientFactory{@code <}JDBCClient{@code >} {
+ *         public JDBCClient create(Vertx vertx, ClientOptions options) {
+ *             return JDBCClient.create(vertx, new JsonObject().put("max_pool_size", options.getPoolSize()));
+ *         }
+ *     }
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface ClientFactory<C> {
+
+    /**
+     * 创建client。 {@link me.wang007.annotation.Client.Scope#PER_EVENT_LOOP}时在对应的eventLoop上执行
+     *
+     * @param vertx   vertx
+     * @param options client的配置
+     * @return client
+     */
+    C create(Vertx vertx, ClientOptions options);
+
+    /**
+     * 预热， 例如：建立最小连接数、执行一次查询。 完成之后httpServer才会监听端口
+     *
+     * @param client client
+     * @return future
+     */
+    default Future<Void> warmUp(C client) {
+        return Future.succeededFuture();
+    }
+
+    /**
+     * @param client client
+     * @return future
+     */
+    default Future<Void> close(C client) {
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 连接池的使用情况， 例如：inUse, idle, waiting
+     *
+     * @param client client
+     * @return 使用情况
+     */
+    default JsonObject utilisation(C client) {
+        return new JsonObject();
+    }
+}
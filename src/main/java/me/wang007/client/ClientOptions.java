@@ -0,0 +1,60 @@
+package me.wang007.client;
+
+import me.wang007.annotation.Client;
+import me.wang007.boot.VertxBoot;
+
+/**
+ * 传给{@link ClientFactory#create}的配置
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class ClientOptions {
+
+    /**
+     * client属性的前缀， 完整的key为 vertx-start.client.{@code <}name{@code >}.xxx
+     */
+    public static final String Property_Prefix = "vertx-start.client.";
+
+    private final String name;
+
+    private final Client.Scope scope;
+
+    private final int poolSize;
+
+    private final VertxBoot boot;
+
+    ClientOptions(String name, Client.Scope scope, int poolSize, VertxBoot boot) {
+        this.name = name;
+        this.scope = scope;
+        this.poolSize = poolSize;
+        this.boot = boot;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Client.Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * @return 当前client的连接池大小， {@link Client.Scope#PER_EVENT_LOOP}时已经按照eventLoop数平分。
+     * {@code <=} 0 表示使用client自己的默认值
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @param key 不包含前缀的key， 例如：url
+     * @return vertx-start.client.{@code <}name{@code >}.{@code <}key{@code >}的值
+     */
+    public String getProperty(String key) {
+        return boot.getProperty(Property_Prefix + name + '.' + key);
+    }
+
+    public VertxBoot getBoot() {
+        return boot;
+    }
+}
@@ -0,0 +1,299 @@
+package me.wang007.client;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import me.wang007.annotation.Client;
+import me.wang007.boot.VertxBoot;
+import me.wang007.container.Component;
+import me.wang007.container.DefaultContainer;
+import me.wang007.exception.ErrorUsedAnnotationException;
+import me.wang007.exception.VertxStartException;
+import me.wang007.utils.StringUtils;
+import me.wang007.utils.VertxUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * 被{@link Client}注解的client的注册表， 通过{@link VertxBoot#clients()}获取
+ *
+ * 生命周期：
+ * 启动时创建{@link Client.Scope#SHARED}的client并开始预热 {@code ->}
+ * httpServer实例启动时{@link #warmUp()}， 创建当前eventLoop的client并等待预热完成， 之后才监听端口 {@code ->}
+ * 最后一个httpServer实例undeploy时{@link #close()}， 按照声明的逆序依次关闭 {@code ->}
+ * 关闭之后又有httpServer实例启动时(例如redeploy)， 重新创建client
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class ClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientRegistry.class);
+
+    private final List<Holder<?>> holders = new ArrayList<>();
+
+    private final Map<Class<?>, Holder<?>> byClass = new HashMap<>();
+
+    private final Map<String, Holder<?>> byName = new HashMap<>();
+
+    /**
+     * 使用client的verticle数量， 由this保护
+     */
+    private int refs;
+
+    private Future<Void> closeFuture;
+
+    /**
+     * 从容器中获取client组件并创建。 只在启动时调用一次
+     *
+     * @param boot vertxBoot
+     */
+    @SuppressWarnings("unchecked")
+    public void createClients(VertxBoot boot) {
+        int eventLoops = VertxUtils.eventLoopCount(boot.vertx());
+        List<Component> components = new ArrayList<>(DefaultContainer.get().getComponentsByAnnotation(Client.class));
+        components.sort(Comparator.comparingInt(c -> c.getAnnotation(Client.class).order()));
+
+        for (Component c : components) {
+            if (!ClientFactory.class.isAssignableFrom(c.getClazz())) {
+                throw new ErrorUsedAnnotationException("@Client can only be used on ClientFactory, component:" + c.getClazz().getName());
+            }
+            Client an = c.getAnnotation(Client.class);
+            String name = StringUtils.isNotBlank(an.value()) ? an.value().trim() : c.getComponentName();
+
+            int total = an.poolSize();
+            String size = boot.getProperty(ClientOptions.Property_Prefix + name + ".pool-size");
+            if (StringUtils.isNotBlank(size)) total = Integer.parseInt(size.trim());
+            int poolSize = total > 0 && an.scope() == Client.Scope.PER_EVENT_LOOP ? Math.max(1, (total + eventLoops - 1) / eventLoops) : total;
+
+            ClientFactory<Object> factory;
+            try {
+                factory = (ClientFactory<Object>) c.getClazz().newInstance();
+            } catch (Exception e) {
+                throw new VertxStartException("create client factory instance failed, factory: " + c.getClazz().getName(), e);
+            }
+            Holder<Object> holder = new Holder<>(factory, new ClientOptions(name, an.scope(), poolSize, boot), boot.vertx());
+            if (byName.put(name, holder) != null) throw new VertxStartException("repeated client name: " + name);
+            byClass.put(c.getClazz(), holder);
+            holders.add(holder);
+
+            if (an.scope() == Client.Scope.SHARED) holder.shared = holder.create();
+            logger.info("client -> {} created, scope: {}, pool size: {}", name, an.scope(), poolSize);
+        }
+    }
+
+    /**
+     * @param factoryClass client工厂
+     * @param <C>          client类型
+     * @return client， {@link Client.Scope#PER_EVENT_LOOP}时返回当前eventLoop的client， 不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <C> C get(Class<? extends ClientFactory<C>> factoryClass) {
+        Holder<C> holder = (Holder<C>) byClass.get(factoryClass);
+        return holder == null ? null : holder.get().client;
+    }
+
+    /**
+     * @param name client名
+     * @param <C>  client类型
+     * @return client， {@link Client.Scope#PER_EVENT_LOOP}时返回当前eventLoop的client， 不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <C> C get(String name) {
+        Holder<C> holder = (Holder<C>) byName.get(name);
+        return holder == null ? null : holder.get().client;
+    }
+
+    /**
+     * 创建当前eventLoop的client， 等待所有client预热完成。 回调在当前context上执行
+     *
+     * @return future
+     */
+    public Future<Void> warmUp() {
+        if (holders.isEmpty()) return Future.succeededFuture();
+        List<Future> warms = new ArrayList<>(holders.size());
+        for (Holder<?> holder : holders) warms.add(holder.get().warm);
+
+        Context context = Vertx.currentContext();
+        Promise<Void> promise = Promise.promise();
+        CompositeFuture.all(warms).onComplete(ar -> {
+            if (context == null || Vertx.currentContext() == context) {
+                promise.handle(ar.mapEmpty());
+            } else {
+                context.runOnContext(v -> promise.handle(ar.mapEmpty()));
+            }
+        });
+        return promise.future();
+    }
+
+    /**
+     * 使用client的verticle启动时调用。 client已经被关闭时(计数从0变成1)重新创建
+     */
+    public synchronized void retain() {
+        if (refs++ > 0 || closeFuture == null) return;
+        closeFuture = null;
+        for (Holder<?> holder : holders) holder.reopen();
+        logger.info("clients reopened");
+    }
+
+    /**
+     * 使用client的verticle停止时调用， 最后一个停止时关闭所有client
+     *
+     * @return future
+     */
+    public synchronized Future<Void> release() {
+        if (refs > 0 && --refs > 0) return Future.succeededFuture();
+        return close();
+    }
+
+    /**
+     * 按照声明的逆序依次关闭， 前一个关闭完成之后再关闭下一个。 重复调用返回同一个future， 直到下一次{@link #retain()}重新创建
+     *
+     * @return future
+     */
+    public synchronized Future<Void> close() {
+        if (closeFuture != null) return closeFuture;
+        Future<Void> future = Future.succeededFuture();
+        for (int i = holders.size() - 1; i >= 0; i--) {
+            //关闭是异步依次进行的， 先取出当前的client， 关闭期间重新创建的client不受影响
+            Supplier<Future<Void>> close = holders.get(i).detach();
+            future = future.compose(v -> close.get());
+        }
+        return closeFuture = future;
+    }
+
+    /**
+     * @return 所有client的连接池使用情况
+     */
+    public JsonArray stats() {
+        JsonArray arr = new JsonArray();
+        for (Holder<?> holder : holders) arr.add(holder.stats());
+        return arr;
+    }
+
+    private static final class Holder<C> {
+
+        final ClientFactory<C> factory;
+        final ClientOptions options;
+        final Vertx vertx;
+
+        volatile Instance<C> shared;
+
+        /**
+         * 每次{@link #reopen()}加1， eventLoop上缓存的旧client不再使用
+         */
+        volatile int generation;
+
+        final List<Instance<C>> instances = new CopyOnWriteArrayList<>();
+
+        final FastThreadLocal<Instance<C>> local = new FastThreadLocal<Instance<C>>() {
+            @Override
+            protected Instance<C> initialValue() {
+                if (!Context.isOnEventLoopThread()) {
+                    throw new IllegalStateException("client -> " + options.getName() + " is per event loop, must be got on event loop thread");
+                }
+                return create();
+            }
+        };
+
+        Holder(ClientFactory<C> factory, ClientOptions options, Vertx vertx) {
+            this.factory = factory;
+            this.options = options;
+            this.vertx = vertx;
+        }
+
+        Instance<C> get() {
+            Instance<C> s = shared;
+            if (s != null) return s;
+            Instance<C> instance = local.get();
+            if (instance.generation != generation) {
+                instance = create();
+                local.set(instance);
+            }
+            return instance;
+        }
+
+        /**
+         * 关闭之后重新创建， {@link Client.Scope#PER_EVENT_LOOP}在各个eventLoop上再次获取时创建
+         */
+        void reopen() {
+            generation++;
+            if (options.getScope() == Client.Scope.SHARED) shared = create();
+        }
+
+        Instance<C> create() {
+            C client = factory.create(vertx, options);
+            Future<Void> warm;
+            try {
+                warm = factory.warmUp(client);
+            } catch (Exception e) {
+                warm = Future.failedFuture(e);
+            }
+            warm.onFailure(err -> logger.error("client -> " + options.getName() + " warm up failed", err));
+            Instance<C> instance = new Instance<>(client, warm, generation);
+            instances.add(instance);
+            return instance;
+        }
+
+        /**
+         * @return 关闭当前所有client的操作
+         */
+        Supplier<Future<Void>> detach() {
+            List<Instance<C>> closing = new ArrayList<>(instances);
+            instances.removeAll(closing);
+            return () -> close(closing);
+        }
+
+        Future<Void> close(List<Instance<C>> closing) {
+            List<Future> closes = new ArrayList<>(closing.size());
+            for (Instance<C> instance : closing) {
+                Future<Void> f;
+                try {
+                    f = factory.close(instance.client);
+                } catch (Exception e) {
+                    f = Future.failedFuture(e);
+                }
+                closes.add(f);
+            }
+            //关闭失败不影响后面的client关闭
+            return CompositeFuture.join(closes).<Void>mapEmpty().recover(err -> {
+                logger.error("client -> " + options.getName() + " close failed", err);
+                return Future.succeededFuture();
+            }).onSuccess(v -> logger.info("client -> {} closed", options.getName()));
+        }
+
+        JsonObject stats() {
+            JsonArray shards = new JsonArray();
+            for (Instance<C> instance : instances) shards.add(factory.utilisation(instance.client));
+            return new JsonObject()
+                    .put("name", options.getName())
+                    .put("scope", options.getScope().name())
+                    .put("poolSize", options.getPoolSize())
+                    .put("instances", shards);
+        }
+    }
+
+    private static final class Instance<C> {
+        final C client;
+        final Future<Void> warm;
+        final int generation;
+
+        Instance(C client, Future<Void> warm, int generation) {
+            this.client = client;
+            this.warm = warm;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package me.wang007.cluster;
+
+import io.vertx.core.Handler;
+
+import java.util.List;
+
+/**
+ * 集群成员的抽象， 用于集群模式下按照{@link me.wang007.annotation.Deploy#placement()}部署verticle
+ *
+ * 只需要提供成员列表和成员变化通知， 每个节点根据相同的成员列表独立计算出相同的部署位置， 不需要额外的协调。
+ *
+ * 实现：{@link VertxClusterCoordinator}(基于vert.x的ClusterManager)， {@link LocalClusterCoordinator}(进程内， 用于测试)
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface ClusterCoordinator {
+
+    /**
+     * @return 当前节点id
+     */
+    String nodeId();
+
+    /**
+     * @return 当前集群中的所有节点id， 包括当前节点
+     */
+    List<String> nodes();
+
+    /**
+     * 节点加入或者离开时回调， 在vertx的context中执行
+     *
+     * @param handler handler
+     */
+    void membershipHandler(Handler<Void> handler);
+}
@@ -0,0 +1,98 @@
+package me.wang007.cluster;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 进程内的集群成员， 用于测试集群模式。 多个vertx实例共享一个{@link LocalCluster}就组成了一个集群
+ *
+ * <code>
+ *     LocalClusterCoordinator.LocalCluster cluster = new LocalClusterCoordinator.LocalCluster();
+ *     Vertx node1 = Vertx.vertx();
+ *     VertxBoot.create(node1).start(new BootOptions().setClusterCoordinator(new LocalClusterCoordinator(cluster, node1)));
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class LocalClusterCoordinator implements ClusterCoordinator {
+
+    private final LocalCluster cluster;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Context context;
+
+    private volatile Handler<Void> handler;
+
+    public LocalClusterCoordinator(LocalCluster cluster, Vertx vertx) {
+        this.cluster = cluster;
+        this.context = vertx.getOrCreateContext();
+        cluster.join(this);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public List<String> nodes() {
+        return cluster.nodes();
+    }
+
+    @Override
+    public void membershipHandler(Handler<Void> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 模拟节点离开集群， 其他节点和当前节点都会收到成员变化通知。
+     * 当前节点不在成员列表中之后不再负责任何集群verticle
+     */
+    public void leave() {
+        cluster.leave(this);
+    }
+
+    private void notifyChanged() {
+        Handler<Void> h = handler;
+        if (h != null) context.runOnContext(h);
+    }
+
+    /**
+     * 进程内的集群
+     */
+    public static class LocalCluster {
+
+        private final Map<String, LocalClusterCoordinator> members = new LinkedHashMap<>();
+
+        synchronized List<String> nodes() {
+            return new ArrayList<>(members.keySet());
+        }
+
+        void join(LocalClusterCoordinator member) {
+            List<LocalClusterCoordinator> others;
+            synchronized (this) {
+                others = new ArrayList<>(members.values());
+                members.put(member.nodeId, member);
+            }
+            others.forEach(LocalClusterCoordinator::notifyChanged);
+        }
+
+        void leave(LocalClusterCoordinator member) {
+            List<LocalClusterCoordinator> others;
+            synchronized (this) {
+                if (members.remove(member.nodeId) == null) return;
+                others = new ArrayList<>(members.values());
+            }
+            others.forEach(LocalClusterCoordinator::notifyChanged);
+            member.notifyChanged();
+        }
+    }
+}
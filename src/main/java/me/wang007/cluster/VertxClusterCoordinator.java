@@ -0,0 +1,84 @@
+package me.wang007.cluster;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.spi.cluster.ClusterManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于vert.x的{@link ClusterManager}的集群成员， vertx必须是通过{@link Vertx#clusteredVertx}创建的
+ *
+ * {@link ClusterManager#nodeListener}只能设置一个， 已经被vert.x的HAManager使用， 替换掉会导致HA故障转移失效。
+ * 所以这里不注册监听器， 而是定时比较{@link ClusterManager#getNodes()}， 成员变化时回调。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class VertxClusterCoordinator implements ClusterCoordinator {
+
+    /**
+     * 默认的成员列表检查间隔， 单位：ms
+     */
+    public static final long Default_Poll_Interval = 1000;
+
+    private final Vertx vertx;
+
+    private final ClusterManager clusterManager;
+
+    private final Context context;
+
+    private final long pollInterval;
+
+    /**
+     * 检查成员列表的定时器， 只在{@link #context}中访问
+     */
+    private long timerId = -1;
+
+    public VertxClusterCoordinator(Vertx vertx) {
+        this(vertx, Default_Poll_Interval);
+    }
+
+    /**
+     * @param vertx        vertx实例
+     * @param pollInterval 成员列表检查间隔， 单位：ms
+     */
+    public VertxClusterCoordinator(Vertx vertx, long pollInterval) {
+        if (!vertx.isClustered()) throw new IllegalStateException("vertx is not clustered");
+        if (pollInterval <= 0) throw new IllegalArgumentException("pollInterval must be > 0");
+        this.vertx = vertx;
+        this.clusterManager = ((VertxInternal) vertx).getClusterManager();
+        this.context = vertx.getOrCreateContext();
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public String nodeId() {
+        return clusterManager.getNodeId();
+    }
+
+    @Override
+    public List<String> nodes() {
+        return clusterManager.getNodes();
+    }
+
+    @Override
+    public void membershipHandler(Handler<Void> handler) {
+        //先取快照， 之后的变化都会回调
+        Set<String> last = new HashSet<>(nodes());
+        context.runOnContext(v -> {
+            if (timerId >= 0) vertx.cancelTimer(timerId);
+            //在context中设置， 定时器也在context中回调
+            timerId = vertx.setPeriodic(pollInterval, id -> {
+                Set<String> current = new HashSet<>(nodes());
+                if (current.equals(last)) return;
+                last.clear();
+                last.addAll(current);
+                handler.handle(null);
+            });
+        });
+    }
+}
@@ -0,0 +1,326 @@
+package me.wang007.codegen;
+
+import me.wang007.annotation.JsonCodec;
+import me.wang007.json.PojoCodecs;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为被{@link JsonCodec}注解的pojo生成{@link me.wang007.json.PojoCodec}的实现。
+ *
+ * 通过META-INF/services注册， 使用vertx-start的项目编译时自动执行。
+ * vertx-start自身编译main代码时关闭了注解处理(此时processor还没有编译)， 见pom.xml。
+ *
+ * created by wang007 on 2026/10/19
+ */
+@SupportedAnnotationTypes("me.wang007.annotation.JsonCodec")
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonCodec.class)) {
+            try {
+                if (element.getKind() != ElementKind.CLASS) {
+                    throw new IllegalArgumentException("@JsonCodec can only be used on class");
+                }
+                generate((TypeElement) element);
+            } catch (IllegalArgumentException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "generate json codec failed: " + e, element);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.ABSTRACT)) {
+            throw new IllegalArgumentException("@JsonCodec class must be not private and not abstract");
+        }
+        if (type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            throw new IllegalArgumentException("@JsonCodec nested class must be static");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new IllegalArgumentException("@JsonCodec class can not be generic");
+        }
+        boolean noArgs = false;
+        for (ExecutableElement c : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE)) noArgs = true;
+        }
+        if (!noArgs) throw new IllegalArgumentException("@JsonCodec class must have a no-args constructor");
+
+        String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1)).replace('$', '_')
+                + PojoCodecs.Codec_Suffix;
+        String typeName = type.getQualifiedName().toString();
+
+        StringBuilder src = new StringBuilder(4096);
+        if (!pkg.isEmpty()) src.append("package ").append(pkg).append(";\n\n");
+        src.append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import me.wang007.json.JsonReader;\n")
+                .append("import me.wang007.json.JsonWriter;\n")
+                .append("import me.wang007.json.PojoCodec;\n\n")
+                .append("import java.io.IOException;\n\n")
+                .append("/**\n * generated by ").append(JsonCodecProcessor.class.getName()).append(", do not edit.\n */\n")
+                .append("public final class ").append(simpleName).append(" implements PojoCodec<").append(typeName).append("> {\n\n");
+
+        List<Property> properties = properties(type);
+
+        src.append("    @Override\n")
+                .append("    public void write(").append(typeName).append(" o, JsonWriter w) {\n")
+                .append("        w.beginObject();\n");
+        for (Property p : properties) {
+            if (p.getter == null) continue;
+            src.append("        ").append(statement(p, true)).append('\n');
+        }
+        src.append("        w.endObject();\n")
+                .append("    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    public ").append(typeName).append(" read(JsonParser p) throws IOException {\n")
+                .append("        if (JsonReader.isNull(p)) return null;\n")
+                .append("        JsonReader.expect(p, JsonToken.START_OBJECT);\n")
+                .append("        ").append(typeName).append(" o = new ").append(typeName).append("();\n")
+                .append("        while (p.nextToken() == JsonToken.FIELD_NAME) {\n")
+                .append("            String name = p.getCurrentName();\n")
+                .append("            p.nextToken();\n")
+                .append("            switch (name) {\n");
+        for (Property p : properties) {
+            if (p.setter == null) continue;
+            src.append("                case \"").append(p.name).append("\":\n")
+                    .append("                    ").append(statement(p, false)).append('\n')
+                    .append("                    break;\n");
+        }
+        src.append("                default:\n")
+                .append("                    p.skipChildren();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        JsonReader.expect(p, JsonToken.END_OBJECT);\n")
+                .append("        return o;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg.isEmpty() ? simpleName : pkg + '.' + simpleName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /**
+     * 父类的属性在前， 按照声明的顺序
+     */
+    private List<Property> properties(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement t = type; t != null && !"java.lang.Object".equals(t.getQualifiedName().toString()); ) {
+            hierarchy.add(0, t);
+            TypeMirror superclass = t.getSuperclass();
+            t = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+
+        Map<String, Property> properties = new LinkedHashMap<>();
+        for (TypeElement t : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                Set<Modifier> m = field.getModifiers();
+                if (!m.contains(Modifier.PUBLIC) || m.contains(Modifier.STATIC) || m.contains(Modifier.TRANSIENT)) continue;
+                String name = field.getSimpleName().toString();
+                Property p = properties.computeIfAbsent(name, k -> new Property(k, field.asType()));
+                p.getter = "o." + name;
+                if (!m.contains(Modifier.FINAL)) p.setter = "o." + name + " = %s;";
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+                Set<Modifier> m = method.getModifiers();
+                if (!m.contains(Modifier.PUBLIC) || m.contains(Modifier.STATIC)) continue;
+                String methodName = method.getSimpleName().toString();
+                int params = method.getParameters().size();
+                TypeMirror returnType = method.getReturnType();
+                if (params == 0 && returnType.getKind() != TypeKind.VOID && !"getClass".equals(methodName)) {
+                    String name = null;
+                    if (methodName.startsWith("get") && methodName.length() > 3) name = decapitalize(methodName.substring(3));
+                    else if (methodName.startsWith("is") && methodName.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+                        name = decapitalize(methodName.substring(2));
+                    }
+                    if (name == null) continue;
+                    properties.computeIfAbsent(name, k -> new Property(k, returnType)).getter = "o." + methodName + "()";
+                } else if (params == 1 && methodName.startsWith("set") && methodName.length() > 3) {
+                    String name = decapitalize(methodName.substring(3));
+                    TypeMirror paramType = method.getParameters().get(0).asType();
+                    properties.computeIfAbsent(name, k -> new Property(k, paramType)).setter = "o." + methodName + "(%s);";
+                }
+            }
+        }
+        return new ArrayList<>(properties.values());
+    }
+
+    private String statement(Property p, boolean write) {
+        try {
+            return write ? writeStatement(p) : readStatement(p);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + ", property: " + p.name);
+        }
+    }
+
+    private String writeStatement(Property p) {
+        if (p.type.getKind().isPrimitive()) {
+            if (p.type.getKind() == TypeKind.CHAR) throw unsupported(p.type);
+            return "w.name(\"" + p.name + "\").value(" + p.getter + ");";
+        }
+        reader(p.type, "p", 0);    //检查类型是否支持
+        String varType = isType(p.type, "java.lang.String") ? "String" : "Object";
+        return "{ " + varType + " v = " + p.getter + "; if (v != null) w.name(\"" + p.name + "\").value(v); }";
+    }
+
+    private String readStatement(Property p) {
+        String expr = reader(p.type, "p", 0);
+        String assign = String.format(p.setter, expr);
+        //基本类型为null时保持默认值
+        return p.type.getKind().isPrimitive() ? "if (!JsonReader.isNull(p)) " + assign : assign;
+    }
+
+    /**
+     * @param type  类型
+     * @param p     parser的变量名
+     * @param depth 嵌套的层数， 用于生成lambda的变量名
+     * @return 读取该类型的表达式
+     */
+    private String reader(TypeMirror type, String p, int depth) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return p + ".getBooleanValue()";
+            case INT:
+                return p + ".getIntValue()";
+            case LONG:
+                return p + ".getLongValue()";
+            case DOUBLE:
+                return p + ".getDoubleValue()";
+            case FLOAT:
+                return p + ".getFloatValue()";
+            case SHORT:
+                return p + ".getShortValue()";
+            case BYTE:
+                return p + ".getByteValue()";
+            case WILDCARD:
+                TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                return reader(bound != null ? bound : elementType("java.lang.Object"), p, depth);
+            case DECLARED:
+                break;
+            default:
+                throw unsupported(type);
+        }
+
+        DeclaredType declared = (DeclaredType) type;
+        TypeElement element = (TypeElement) declared.asElement();
+        String name = element.getQualifiedName().toString();
+        String nullable = "JsonReader.isNull(" + p + ") ? null : ";
+        switch (name) {
+            case "java.lang.String":
+                return "JsonReader.readString(" + p + ")";
+            case "java.lang.Boolean":
+                return "(" + nullable + "Boolean.valueOf(" + p + ".getBooleanValue()))";
+            case "java.lang.Integer":
+                return "(" + nullable + "Integer.valueOf(" + p + ".getIntValue()))";
+            case "java.lang.Long":
+                return "(" + nullable + "Long.valueOf(" + p + ".getLongValue()))";
+            case "java.lang.Double":
+                return "(" + nullable + "Double.valueOf(" + p + ".getDoubleValue()))";
+            case "java.lang.Float":
+                return "(" + nullable + "Float.valueOf(" + p + ".getFloatValue()))";
+            case "java.lang.Short":
+                return "(" + nullable + "Short.valueOf(" + p + ".getShortValue()))";
+            case "java.lang.Byte":
+                return "(" + nullable + "Byte.valueOf(" + p + ".getByteValue()))";
+            case "java.lang.Object":
+                return "JsonReader.readValue(" + p + ")";
+            case "java.time.Instant":
+                return "JsonReader.readInstant(" + p + ")";
+            case "io.vertx.core.json.JsonObject":
+                return "JsonReader.readJsonObject(" + p + ")";
+            case "io.vertx.core.json.JsonArray":
+                return "JsonReader.readJsonArray(" + p + ")";
+            case "java.util.List":
+            case "java.util.Collection":
+            case "java.lang.Iterable":
+                return "JsonReader.readList(" + p + ", " + lambda(declared, 0, depth) + ")";
+            case "java.util.Set":
+                return "JsonReader.readSet(" + p + ", " + lambda(declared, 0, depth) + ")";
+            case "java.util.Map":
+                List<? extends TypeMirror> args = declared.getTypeArguments();
+                if (!args.isEmpty() && !isType(args.get(0), "java.lang.String")) throw unsupported(type);
+                return "JsonReader.readMap(" + p + ", " + lambda(declared, 1, depth) + ")";
+            default:
+        }
+        if (element.getKind() == ElementKind.ENUM) return "JsonReader.readEnum(" + p + ", " + name + ".class)";
+        if (element.getAnnotation(JsonCodec.class) != null) return "JsonReader.readPojo(" + p + ", " + name + ".class)";
+        throw unsupported(type);
+    }
+
+    private String lambda(DeclaredType collection, int argIndex, int depth) {
+        List<? extends TypeMirror> args = collection.getTypeArguments();
+        TypeMirror element = args.size() > argIndex ? args.get(argIndex) : elementType("java.lang.Object");
+        String p = "p" + (depth + 1);
+        return p + " -> " + reader(element, p, depth + 1);
+    }
+
+    private TypeMirror elementType(String name) {
+        return processingEnv.getElementUtils().getTypeElement(name).asType();
+    }
+
+    private static boolean isType(TypeMirror type, String name) {
+        return type.getKind() == TypeKind.DECLARED &&
+                ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private static IllegalArgumentException unsupported(TypeMirror type) {
+        return new IllegalArgumentException("@JsonCodec unsupported type: " + type);
+    }
+
+    /**
+     * 和java bean的规则一致： 前两个字母都是大写时不变
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) return name;
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static final class Property {
+        final String name;
+        final TypeMirror type;
+        String getter;
+        String setter;
+
+        Property(String name, TypeMirror type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
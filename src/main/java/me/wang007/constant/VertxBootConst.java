@@ -43,10 +43,108 @@ public interface VertxBootConst {
 
     /**
      * vertx-start相关组件在map中的key
+     *
+     * @deprecated 通过{@link me.wang007.boot.VertxBoot#get(io.vertx.core.Vertx)}获取vertxBoot
      */
+    @Deprecated
     String Key_Vertx_Start = "_vertx-start_";
 
+    @Deprecated
     String Key_Vertx_Boot = "_boot_";
 
+    /**
+     * handler阻塞检测的阈值， 单位：ms。
+     * {@link me.wang007.verticle.HttpServerVerticle}中的route handler和eventBus consumer执行超过该值时会被统计，
+     * 通过{@link me.wang007.boot.VertxBoot#blockingDetector()}获取统计结果。
+     *
+     * 不配置或者 {@code <=} 0 表示不开启
+     */
+    String Blocking_Threshold_Key = "vertx-start.blocking.threshold";
+
+    /**
+     * 健康检查路径， 例如：/health。 由{@link me.wang007.verticle.HttpServerVerticle}注册， 不配置表示不注册
+     */
+    String Health_Path_Key = "vertx-start.health.path";
+
+    /**
+     * 就绪检查路径， 例如：/ready。 由{@link me.wang007.verticle.HttpServerVerticle}注册， 不配置表示不注册
+     */
+    String Ready_Path_Key = "vertx-start.ready.path";
+
+    /**
+     * 请求跟踪的采样率， 0 ~ 1。 0 表示只传递traceId不记录span。 不配置表示不开启跟踪，
+     * 见{@link me.wang007.boot.VertxBoot#tracer()}
+     */
+    String Trace_Sample_Rate_Key = "vertx-start.trace.sample-rate";
+
+    /**
+     * 保存span的环形缓冲区大小， 默认{@link me.wang007.trace.Tracer#Default_Buffer_Size}
+     */
+    String Trace_Buffer_Size_Key = "vertx-start.trace.buffer-size";
+
+    /**
+     * 导出span的路径， 例如：/trace。 由{@link me.wang007.verticle.HttpServerVerticle}注册， 不配置表示不注册
+     */
+    String Trace_Path_Key = "vertx-start.trace.path";
+
+    /**
+     * 静态文件的访问路径前缀， 例如：/static。 由{@link me.wang007.verticle.HttpServerVerticle}注册， 不配置表示不注册，
+     * 见{@link me.wang007.web.StaticContent}
+     */
+    String Static_Path_Key = "vertx-start.static.path";
+
+    /**
+     * 静态文件根目录， 默认：webroot
+     */
+    String Static_Root_Key = "vertx-start.static.root";
+
+    /**
+     * 不超过该大小的静态文件缓存在内存中， 单位：byte， 默认：64KB
+     */
+    String Static_Cache_Max_File_Size_Key = "vertx-start.static.cache-max-file-size";
+
+    /**
+     * 内存中缓存的静态文件总大小上限， 单位：byte， 默认：32MB
+     */
+    String Static_Cache_Max_Size_Key = "vertx-start.static.cache-max-size";
+
+    /**
+     * 缓存的静态文件数上限， 超过之后淘汰最久未访问的， 默认：10000
+     */
+    String Static_Cache_Max_Entries_Key = "vertx-start.static.cache-max-entries";
+
+    /**
+     * 静态文件不存在的结果缓存多久， 单位：ms， 默认：10000
+     */
+    String Static_Not_Found_Ttl_Key = "vertx-start.static.not-found-ttl";
 
+    /**
+     * 静态文件Cache-Control的max-age， 单位：s， 默认：86400
+     */
+    String Static_Max_Age_Key = "vertx-start.static.max-age";
+
+    /**
+     * 是否预先gzip压缩缓存的文本类静态文件， 默认：true
+     */
+    String Static_Compress_Key = "vertx-start.static.compress";
+
+    /**
+     * 访问日志文件， 例如：logs/access.log。 不配置表示不开启， 见{@link me.wang007.web.AccessLog}
+     */
+    String Access_Log_Path_Key = "vertx-start.access-log.path";
+
+    /**
+     * 访问日志的采样率， 0 ~ 1， 默认：1
+     */
+    String Access_Log_Sample_Rate_Key = "vertx-start.access-log.sample-rate";
+
+    /**
+     * 每个eventLoop的环形缓冲区大小， 写满时丢弃新的记录， 默认：8192
+     */
+    String Access_Log_Buffer_Size_Key = "vertx-start.access-log.buffer-size";
+
+    /**
+     * 后台线程写入文件的间隔， 单位：ms， 默认：200
+     */
+    String Access_Log_Flush_Interval_Key = "vertx-start.access-log.flush-interval";
 }
@@ -16,8 +16,12 @@ import dorkbox.annotation.AnnotationDefaults;
 import dorkbox.annotation.AnnotationDetector;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import me.wang007.annotation.Client;
+import me.wang007.annotation.Dataset;
 import me.wang007.annotation.Deploy;
+import me.wang007.annotation.OffHeap;
 import me.wang007.annotation.Route;
+import me.wang007.annotation.Socket;
 import me.wang007.exception.InitialException;
 
 /**
@@ -49,7 +53,9 @@ public class DefaultContainer implements Container {
     }
 
     private DefaultContainer(String... basePaths) {
-        registerLoadBy(me.wang007.annotation.Properties.class).registerLoadBy(Deploy.class).registerLoadBy(Route.class);
+        registerLoadBy(me.wang007.annotation.Properties.class).registerLoadBy(Deploy.class).registerLoadBy(Route.class)
+                .registerLoadBy(me.wang007.annotation.Cache.class).registerLoadBy(OffHeap.class)
+                .registerLoadBy(Dataset.class).registerLoadBy(Client.class).registerLoadBy(Socket.class);
         start(basePaths);
     }
 
@@ -0,0 +1,103 @@
+package me.wang007.json;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 深度不可变的{@link JsonArray}， 见{@link ImmutableJsonObject}
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class ImmutableJsonArray extends JsonArray {
+
+    private volatile byte[] encoded;
+
+    private ImmutableJsonArray(List list) {
+        super(list);
+    }
+
+    /**
+     * @param array 普通的jsonArray， 冻结之后修改它不会影响返回值
+     * @return 深度不可变的jsonArray， array已经是不可变时返回自身
+     */
+    public static ImmutableJsonArray of(JsonArray array) {
+        if (array instanceof ImmutableJsonArray) return (ImmutableJsonArray) array;
+        return freezeList(array.getList());
+    }
+
+    /**
+     * @param list list
+     * @return 深度不可变的jsonArray
+     */
+    public static ImmutableJsonArray of(List<?> list) {
+        return freezeList(list);
+    }
+
+    /**
+     * @return 深度复制出一个可以修改的jsonArray
+     */
+    public JsonArray toMutable() {
+        return (JsonArray) ImmutableJsonObject.thaw(this);
+    }
+
+    /**
+     * @return 自身， 不可变的jsonArray不需要复制
+     */
+    @Override
+    public ImmutableJsonArray copy() {
+        return this;
+    }
+
+    @Override
+    public String encode() {
+        return new String(bytes(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Buffer toBuffer() {
+        return Buffer.buffer(Unpooled.wrappedBuffer(bytes()).asReadOnly());
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+        throw new UnsupportedOperationException("immutable json array");
+    }
+
+    /**
+     * 只和ImmutableJsonArray相等， 保证和{@link JsonArray#equals(Object)}对称
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutableJsonArray)) return false;
+        return new JsonArray(getList()).equals(new JsonArray(((JsonArray) o).getList()));
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private byte[] bytes() {
+        byte[] b = encoded;
+        if (b == null) encoded = b = super.encode().getBytes(StandardCharsets.UTF_8);
+        return b;
+    }
+
+    static ImmutableJsonArray freezeList(List<?> list) {
+        List<Object> frozen = new ArrayList<>(list.size());
+        for (Object v : list) frozen.add(ImmutableJsonObject.freeze(v));
+        return new ImmutableJsonArray(Collections.unmodifiableList(frozen));
+    }
+}
@@ -0,0 +1,156 @@
+package me.wang007.json;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 深度不可变的{@link JsonObject}， 创建时递归冻结一次， 之后所有修改方法都会抛出{@link UnsupportedOperationException}。
+ *
+ * {@link #copy()}直接返回自身， 所以：
+ * 本地eventBus send/publish(默认的JsonObject codec调用copy)、放入其他json(put时调用copy)、{@link me.wang007.utils.CheckUtil#checkAndCopy(Object, boolean)}
+ * 都不会发生复制， 适合共享的配置、缓存的响应等读多写少的数据。
+ *
+ * 编码结果在第一次编码时缓存， 之后的{@link #encode()}, {@link #toBuffer()}不再序列化。
+ *
+ * byte[]和{@link Buffer}冻结成base64字符串(和编码结果相同)， {@link #getBinary(String)}, {@link #getBuffer(String)}每次返回解码出的新对象。
+ *
+ * 和{@link JsonObject#equals(Object)}一样比较类型， 只和ImmutableJsonObject相等。 和普通的JsonObject比较时先{@link #of(JsonObject)}或者{@link #toMutable()}。
+ *
+ * 集群模式下跨节点传输之后， 收到的是普通的JsonObject。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class ImmutableJsonObject extends JsonObject {
+
+    private volatile byte[] encoded;
+
+    private ImmutableJsonObject(Map<String, Object> map) {
+        super(map);
+    }
+
+    /**
+     * @param json 普通的json， 冻结之后修改它不会影响返回值
+     * @return 深度不可变的json， json已经是不可变时返回自身
+     */
+    public static ImmutableJsonObject of(JsonObject json) {
+        if (json instanceof ImmutableJsonObject) return (ImmutableJsonObject) json;
+        return freezeMap(json.getMap());
+    }
+
+    /**
+     * @param map map
+     * @return 深度不可变的json
+     */
+    public static ImmutableJsonObject of(Map<String, ?> map) {
+        return freezeMap(map);
+    }
+
+    /**
+     * @return 深度复制出一个可以修改的json
+     */
+    public JsonObject toMutable() {
+        return (JsonObject) thaw(this);
+    }
+
+    /**
+     * @return 自身， 不可变的json不需要复制
+     */
+    @Override
+    public ImmutableJsonObject copy() {
+        return this;
+    }
+
+    @Override
+    public String encode() {
+        return new String(bytes(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Buffer toBuffer() {
+        //只读， 多次调用共享同一份编码结果
+        return Buffer.buffer(Unpooled.wrappedBuffer(bytes()).asReadOnly());
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+        throw new UnsupportedOperationException("immutable json object");
+    }
+
+    /**
+     * 只和ImmutableJsonObject相等， 保证和{@link JsonObject#equals(Object)}对称
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutableJsonObject)) return false;
+        return new JsonObject(getMap()).equals(new JsonObject(((JsonObject) o).getMap()));
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private byte[] bytes() {
+        byte[] b = encoded;
+        if (b == null) encoded = b = super.encode().getBytes(StandardCharsets.UTF_8);
+        return b;
+    }
+
+    static ImmutableJsonObject freezeMap(Map<String, ?> map) {
+        Map<String, Object> frozen = new LinkedHashMap<>(Math.max(4, (int) (map.size() / 0.75F) + 1));
+        map.forEach((k, v) -> frozen.put(k, freeze(v)));
+        return new ImmutableJsonObject(Collections.unmodifiableMap(frozen));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object freeze(Object val) {
+        if (val instanceof ImmutableJsonObject || val instanceof ImmutableJsonArray) return val;
+        if (val instanceof JsonObject) return freezeMap(((JsonObject) val).getMap());
+        if (val instanceof Map) return freezeMap((Map<String, ?>) val);
+        if (val instanceof JsonArray) return ImmutableJsonArray.freezeList(((JsonArray) val).getList());
+        if (val instanceof List) return ImmutableJsonArray.freezeList((List<?>) val);
+        if (val instanceof byte[] || val instanceof Buffer) return base64(val);
+        if (val instanceof CharSequence && !(val instanceof String)) return val.toString();
+        return val;
+    }
+
+    /**
+     * 使用vert.x json的base64编码， getBinary、getBuffer可以解码
+     */
+    private static String base64(Object val) {
+        return new JsonArray(Collections.singletonList(val)).getString(0);
+    }
+
+    static Object thaw(Object val) {
+        if (val instanceof JsonObject) {
+            Map<String, Object> map = ((JsonObject) val).getMap();
+            Map<String, Object> copy = new LinkedHashMap<>(Math.max(4, (int) (map.size() / 0.75F) + 1));
+            map.forEach((k, v) -> copy.put(k, thaw(v)));
+            return new JsonObject(copy);
+        }
+        if (val instanceof JsonArray) {
+            List<?> list = ((JsonArray) val).getList();
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object v : list) copy.add(thaw(v));
+            return new JsonArray(copy);
+        }
+        if (val instanceof byte[]) return ((byte[]) val).clone();
+        if (val instanceof Buffer) return ((Buffer) val).copy();
+        return val;
+    }
+}
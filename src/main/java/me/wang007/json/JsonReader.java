@@ -0,0 +1,148 @@
+package me.wang007.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.time.format.DateTimeFormatter.ISO_INSTANT;
+
+/**
+ * 流式读取json值， 供生成的{@link PojoCodec}使用。
+ *
+ * 所有方法都从parser的当前token开始读取一个值， 读取完成之后当前token为该值的最后一个token。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class JsonReader {
+
+    private JsonReader() {
+    }
+
+    @FunctionalInterface
+    public interface ValueReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    public static boolean isNull(JsonParser parser) {
+        return parser.currentToken() == JsonToken.VALUE_NULL;
+    }
+
+    /**
+     * 数字、布尔值也按照字符串读取
+     */
+    public static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (token == null || !token.isScalarValue()) throw new JsonParseException(parser, "expected string but was " + token);
+        return parser.getText();
+    }
+
+    public static <E extends Enum<E>> E readEnum(JsonParser parser, Class<E> type) throws IOException {
+        if (isNull(parser)) return null;
+        return Enum.valueOf(type, parser.getText());
+    }
+
+    public static Instant readInstant(JsonParser parser) throws IOException {
+        if (isNull(parser)) return null;
+        return Instant.from(ISO_INSTANT.parse(parser.getText()));
+    }
+
+    public static <T> T readPojo(JsonParser parser, Class<T> type) throws IOException {
+        if (isNull(parser)) return null;
+        return PojoCodecs.get(type).read(parser);
+    }
+
+    public static JsonObject readJsonObject(JsonParser parser) throws IOException {
+        if (isNull(parser)) return null;
+        expect(parser, JsonToken.START_OBJECT);
+        return new JsonObject(readMap(parser, JsonReader::readValue));
+    }
+
+    public static JsonArray readJsonArray(JsonParser parser) throws IOException {
+        if (isNull(parser)) return null;
+        expect(parser, JsonToken.START_ARRAY);
+        return new JsonArray(readList(parser, JsonReader::readValue));
+    }
+
+    /**
+     * @return String, Number, Boolean, JsonObject, JsonArray 或者null
+     */
+    public static Object readValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) throw new JsonParseException(parser, "unexpected end of input");
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case START_OBJECT:
+                return readJsonObject(parser);
+            case START_ARRAY:
+                return readJsonArray(parser);
+            default:
+                throw new JsonParseException(parser, "unexpected token: " + token);
+        }
+    }
+
+    public static <T> List<T> readList(JsonParser parser, ValueReader<T> element) throws IOException {
+        if (isNull(parser)) return null;
+        return readCollection(parser, element, new ArrayList<>());
+    }
+
+    public static <T> Set<T> readSet(JsonParser parser, ValueReader<T> element) throws IOException {
+        if (isNull(parser)) return null;
+        return readCollection(parser, element, new LinkedHashSet<>());
+    }
+
+    public static <T> Map<String, T> readMap(JsonParser parser, ValueReader<T> value) throws IOException {
+        if (isNull(parser)) return null;
+        expect(parser, JsonToken.START_OBJECT);
+        Map<String, T> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            map.put(name, value.read(parser));
+        }
+        expect(parser, JsonToken.END_OBJECT);
+        return map;
+    }
+
+    /**
+     * @param parser parser
+     * @param token  期望的当前token
+     * @throws JsonParseException 不是期望的token
+     */
+    public static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new JsonParseException(parser, "expected " + token + " but was " + parser.currentToken());
+        }
+    }
+
+    private static <T, C extends Collection<T>> C readCollection(JsonParser parser, ValueReader<T> element, C collection) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == null) throw new JsonParseException(parser, "unexpected end of input");
+            collection.add(element.read(parser));
+        }
+        return collection;
+    }
+}
@@ -0,0 +1,418 @@
+package me.wang007.json;
+
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+import static java.time.format.DateTimeFormatter.ISO_INSTANT;
+
+/**
+ * 直接输出utf-8字节的json writer， 不经过String。
+ *
+ * 通过{@link #local()}获取当前线程复用的writer， 写完之后{@link #toBuffer()}复制一次得到大小刚好的buffer。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class JsonWriter {
+
+    private static final int Initial_Size = 1024;
+
+    /**
+     * 复用的writer超过这个大小时， 使用完之后释放掉， 避免长期占用内存
+     */
+    private static final int Max_Retained_Size = 64 * 1024;
+
+    private static final byte[] Hex = "0123456789abcdef".getBytes();
+
+    /**
+     * 和vert.x json编码byte[]、Buffer使用同样的base64编码， {@link JsonObject#getBinary(String)}可以解码
+     */
+    private static final Base64.Encoder Base64_Encoder = vertxBase64();
+
+    private static final FastThreadLocal<JsonWriter> local = new FastThreadLocal<JsonWriter>() {
+        @Override
+        protected JsonWriter initialValue() {
+            return new JsonWriter(Initial_Size);
+        }
+    };
+
+    private byte[] buf;
+
+    private int pos;
+
+    /**
+     * 每一层是否已经有元素， 用于判断是否需要写逗号
+     */
+    private boolean[] hasElement = new boolean[16];
+
+    private int depth;
+
+    private boolean afterName;
+
+    private boolean inUse;
+
+    public JsonWriter(int initialSize) {
+        this.buf = new byte[Math.max(16, initialSize)];
+    }
+
+    /**
+     * 获取当前线程复用的writer， 使用完之后必须调用{@link #release()}。
+     * 重入时(例如在序列化的过程中又序列化了另一个对象)返回新的writer
+     *
+     * @return writer
+     */
+    public static JsonWriter local() {
+        JsonWriter writer = local.get();
+        if (writer.inUse) return new JsonWriter(Initial_Size);
+        writer.inUse = true;
+        return writer;
+    }
+
+    /**
+     * 重置writer， 归还给当前线程
+     */
+    public void release() {
+        inUse = false;
+        reset();
+        if (buf.length > Max_Retained_Size) buf = new byte[Initial_Size];
+    }
+
+    /**
+     * 清空已写入的内容， 保留已分配的内存。 用于自己持有的writer重复使用
+     */
+    public void reset() {
+        pos = 0;
+        depth = 0;
+        afterName = false;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        writeByte('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        depth--;
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        writeByte('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        depth--;
+        writeByte(']');
+        return this;
+    }
+
+    /**
+     * @param name 属性名
+     * @return this
+     */
+    public JsonWriter name(String name) {
+        if (hasElement[depth]) writeByte(',');
+        hasElement[depth] = true;
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        writeAscii("null");
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter value(int value) {
+        return value((long) value);
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        beforeValue();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeString(Double.toString(value));
+        } else if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+            writeAscii(".0");
+        } else {
+            writeAscii(Double.toString(value));
+        }
+        return this;
+    }
+
+    /**
+     * 按照float的精度输出， 不扩展成double， 1.1f输出1.1
+     */
+    public JsonWriter value(float value) {
+        beforeValue();
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            writeString(Float.toString(value));
+        } else if (value == (long) value && Math.abs(value) < 1e7f) {
+            writeLong((long) value);
+            writeAscii(".0");
+        } else {
+            writeAscii(Float.toString(value));
+        }
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) return nullValue();
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    /**
+     * 按照值的实际类型写入
+     *
+     * @param value 值
+     * @return this
+     */
+    @SuppressWarnings("unchecked")
+    public JsonWriter value(Object value) {
+        if (value == null) return nullValue();
+        if (value instanceof String) return value((String) value);
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        }
+        if (value instanceof Double) return value(((Double) value).doubleValue());
+        if (value instanceof Float) return value(((Float) value).floatValue());
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            beforeValue();
+            writeAscii(value.toString());
+            return this;
+        }
+        if (value instanceof Number) return value(((Number) value).doubleValue());
+        if (value instanceof Boolean) return value(((Boolean) value).booleanValue());
+        if (value instanceof Enum) return value(((Enum<?>) value).name());
+        if (value instanceof CharSequence) return value(value.toString());
+        if (value instanceof Instant) return value(ISO_INSTANT.format((Instant) value));
+        if (value instanceof byte[]) return value(Base64_Encoder.encodeToString((byte[]) value));
+        if (value instanceof Buffer) return value(Base64_Encoder.encodeToString(((Buffer) value).getBytes()));
+        if (value instanceof JsonObject) return map(((JsonObject) value).getMap());
+        if (value instanceof Map) return map((Map<?, ?>) value);
+        if (value instanceof JsonArray) return iterable(((JsonArray) value).getList());
+        if (value instanceof Iterable) return iterable((Iterable<?>) value);
+        if (value instanceof Object[]) return iterable(Arrays.asList((Object[]) value));
+
+        PojoCodec<Object> codec = (PojoCodec<Object>) PojoCodecs.find(value.getClass());
+        if (codec == null) throw new IllegalStateException("Illegal type in json: " + value.getClass());
+        beforeValue();
+        afterName = true;   //codec会调用beginObject， 不需要再写逗号
+        codec.write(value, this);
+        return this;
+    }
+
+    /**
+     * 直接写入一个ascii字符， 不做任何检查。 用于拼接多个顶层的json值， 例如ndjson的换行、流式json数组的逗号
+     *
+     * @param c ascii字符
+     * @return this
+     */
+    public JsonWriter raw(char c) {
+        writeByte(c);
+        return this;
+    }
+
+    /**
+     * vert.x 4默认是url safe、不补齐的base64， 可以通过系统属性vertx.json.base64=legacy切换回标准的base64。
+     * 编码一次探测当前使用的是哪一种
+     */
+    private static Base64.Encoder vertxBase64() {
+        byte[] probe = {(byte) 0xfb, (byte) 0xff};
+        String encoded = new JsonArray(Collections.singletonList(probe)).getString(0);
+        if (encoded.equals(Base64.getEncoder().encodeToString(probe))) return Base64.getEncoder();
+        if (encoded.equals(Base64.getUrlEncoder().encodeToString(probe))) return Base64.getUrlEncoder();
+        return Base64.getUrlEncoder().withoutPadding();
+    }
+
+    private JsonWriter map(Map<?, ?> map) {
+        beginObject();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            name(String.valueOf(entry.getKey()));
+            value(entry.getValue());
+        }
+        return endObject();
+    }
+
+    private JsonWriter iterable(Iterable<?> iterable) {
+        beginArray();
+        for (Object o : iterable) value(o);
+        return endArray();
+    }
+
+    /**
+     * @return 已写入的字节数
+     */
+    public int size() {
+        return pos;
+    }
+
+    /**
+     * @return 包装已写入字节的ByteBuffer， 不复制。 只在下一次写入或者{@link #reset()}之前有效， 用于直接写入channel
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, pos);
+    }
+
+    /**
+     * @return 复制一份大小刚好的buffer
+     */
+    public Buffer toBuffer() {
+        return Buffer.buffer(Unpooled.wrappedBuffer(Arrays.copyOf(buf, pos)));
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasElement[depth]) writeByte(',');
+            hasElement[depth] = true;
+        }
+    }
+
+    private void push() {
+        if (++depth == hasElement.length) hasElement = Arrays.copyOf(hasElement, depth * 2);
+        hasElement[depth] = false;
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    private void writeAscii(String s) {
+        int len = s.length();
+        ensure(len);
+        for (int i = 0; i < len; i++) buf[pos++] = (byte) s.charAt(i);
+    }
+
+    private void writeLong(long v) {
+        if (v == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensure(20);
+        if (v < 0) {
+            buf[pos++] = '-';
+            v = -v;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        //倒序
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    private void writeString(String s) {
+        int len = s.length();
+        ensure(len * 3 + 2);    //大部分情况下一次就够了
+        buf[pos++] = '"';
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buf[pos++] = (byte) c;
+                } else {
+                    ensure(6 + (len - i) * 3);
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ensure(1);
+        buf[pos++] = '"';
+    }
+
+    private void escape(char c) {
+        buf[pos++] = '\\';
+        switch (c) {
+            case '"':
+                buf[pos++] = '"';
+                break;
+            case '\\':
+                buf[pos++] = '\\';
+                break;
+            case '\n':
+                buf[pos++] = 'n';
+                break;
+            case '\r':
+                buf[pos++] = 'r';
+                break;
+            case '\t':
+                buf[pos++] = 't';
+                break;
+            case '\b':
+                buf[pos++] = 'b';
+                break;
+            case '\f':
+                buf[pos++] = 'f';
+                break;
+            default:
+                buf[pos++] = 'u';
+                buf[pos++] = '0';
+                buf[pos++] = '0';
+                buf[pos++] = Hex[c >> 4];
+                buf[pos++] = Hex[c & 0xF];
+        }
+    }
+
+    private void ensure(int n) {
+        if (pos + n <= buf.length) return;
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+    }
+}
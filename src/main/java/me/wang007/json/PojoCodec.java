@@ -0,0 +1,28 @@
+package me.wang007.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * pojo和json之间的编解码， 由{@link me.wang007.codegen.JsonCodecProcessor}为被{@link me.wang007.annotation.JsonCodec}注解的pojo生成
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface PojoCodec<T> {
+
+    /**
+     * @param value  pojo， 不为null
+     * @param writer writer
+     */
+    void write(T value, JsonWriter writer);
+
+    /**
+     * 从parser的当前token开始读取一个值， 读取完成之后当前token为该值的最后一个token
+     *
+     * @param parser parser， 当前token为START_OBJECT或者VALUE_NULL
+     * @return pojo， json为null时返回null
+     * @throws IOException json格式错误
+     */
+    T read(JsonParser parser) throws IOException;
+}
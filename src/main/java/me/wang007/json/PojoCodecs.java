@@ -0,0 +1,131 @@
+package me.wang007.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import me.wang007.annotation.JsonCodec;
+import me.wang007.exception.VertxStartException;
+
+import java.io.IOException;
+
+/**
+ * 获取、使用{@link JsonCodec}生成的编解码器
+ *
+ * <code>
+ *     Buffer body = PojoCodecs.encode(user);
+ *     User user = PojoCodecs.decode(body, User.class);
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class PojoCodecs {
+
+    public static final String Codec_Suffix = "JsonCodec";
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    private static final Object Not_Found = new Object();
+
+    private static final ClassValue<Object> codecs = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            if (!type.isAnnotationPresent(JsonCodec.class)) return Not_Found;
+            String name = codecName(type);
+            try {
+                return Class.forName(name, true, type.getClassLoader()).newInstance();
+            } catch (ClassNotFoundException e) {
+                return Not_Found;
+            } catch (Exception e) {
+                throw new VertxStartException("create json codec failed: " + name, e);
+            }
+        }
+    };
+
+    private PojoCodecs() {
+    }
+
+    /**
+     * @param type 被{@link JsonCodec}注解的pojo
+     * @param <T>  类型
+     * @return 生成的编解码器
+     * @throws VertxStartException 没有生成编解码器， 例如关闭了注解处理
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PojoCodec<T> get(Class<T> type) {
+        PojoCodec<T> codec = (PojoCodec<T>) find(type);
+        if (codec == null) {
+            throw new VertxStartException("json codec not found: " + codecName(type) +
+                    ", please make sure " + type.getName() + " is annotated with @JsonCodec and annotation processing is enabled");
+        }
+        return codec;
+    }
+
+    /**
+     * @param type 类型
+     * @return 生成的编解码器， 不存在时返回null
+     */
+    public static PojoCodec<?> find(Class<?> type) {
+        Object codec = codecs.get(type);
+        return codec == Not_Found ? null : (PojoCodec<?>) codec;
+    }
+
+    /**
+     * @param value pojo， 或者json支持的值
+     * @return 编码之后的buffer
+     */
+    public static Buffer encode(Object value) {
+        JsonWriter writer = JsonWriter.local();
+        try {
+            writer.value(value);
+            return writer.toBuffer();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * @param buffer json
+     * @param type   被{@link JsonCodec}注解的pojo
+     * @param <T>    类型
+     * @return pojo
+     * @throws DecodeException json格式错误， 或者值不合法(例如不存在的枚举、格式错误的时间)
+     */
+    public static <T> T decode(Buffer buffer, Class<T> type) {
+        PojoCodec<T> codec = get(type);
+        try (JsonParser parser = createParser(buffer)) {
+            parser.nextToken();
+            T value = codec.read(parser);
+            if (parser.nextToken() != null) throw new DecodeException("unexpected content after json value");
+            return value;
+        } catch (DecodeException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            //生成的编解码器中， Enum#valueOf、Instant解析等抛出的异常也是请求的问题
+            throw new DecodeException("Failed to decode:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 堆内存的buffer直接在底层数组上解析， 不复制
+     */
+    private static JsonParser createParser(Buffer buffer) throws IOException {
+        ByteBuf buf = buffer.getByteBuf();
+        if (buf.hasArray()) {
+            return factory.createParser(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+        }
+        return factory.createParser(buffer.getBytes());
+    }
+
+    /**
+     * @param type pojo
+     * @return 生成的编解码器的类名， 嵌套类的$替换为_
+     */
+    static String codecName(Class<?> type) {
+        String name = type.getName();
+        int index = name.lastIndexOf('.');
+        String pkg = index < 0 ? "" : name.substring(0, index + 1);
+        return pkg + name.substring(index + 1).replace('$', '_') + Codec_Suffix;
+    }
+}
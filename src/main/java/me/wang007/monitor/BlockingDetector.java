@@ -0,0 +1,264 @@
+package me.wang007.monitor;
+
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.router.HandlerDecorator;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * eventLoop阻塞检测器。
+ *
+ * 统计每次handler调用的耗时，超过{@link #threshold}的调用按照 归属(LoadRouter类名、eventBus地址) + route 归类统计。
+ * 后台线程定时扫描正在执行的handler，超过阈值时采集一次线程栈，方便定位阻塞的代码。
+ *
+ * handler内同步调用{@link RoutingContext#next()}时，下游handler的耗时不计入上游handler。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class BlockingDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingDetector.class);
+
+    private static final int Max_Depth = 32;
+
+    /**
+     * 统计的最大条数， 超过之后新的route归到{@link #Other_Route}中
+     */
+    private static final int Max_Stats = 1024;
+
+    private static final String Other_Route = "<other>";
+
+    /**
+     * vertx生成的回复地址， 每次请求都不一样
+     */
+    private static final String Reply_Address_Prefix = "__vertx.reply.";
+
+    private static final String Reply_Route = "<reply>";
+
+    private final long threshold;
+
+    private final Map<String, BlockingStat> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 所有执行过handler的线程
+     */
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+
+    private final ThreadLocal<Slot> local = ThreadLocal.withInitial(() -> {
+        Slot slot = new Slot(Thread.currentThread());
+        slots.add(slot);
+        return slot;
+    });
+
+    private volatile ScheduledExecutorService sampler;
+
+    /**
+     * @param thresholdMillis 阈值， 单位：ms。 {@code <=} 0 表示不开启检测
+     */
+    public BlockingDetector(long thresholdMillis) {
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * @return 是否开启了检测
+     */
+    public boolean enabled() {
+        return threshold > 0;
+    }
+
+    /**
+     * 启动采集线程栈的后台线程
+     */
+    public synchronized void start() {
+        if (!enabled() || sampler != null) return;
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vertx-start-blocking-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(threshold / 2, TimeUnit.MILLISECONDS.toNanos(1));
+        sampler.scheduleAtFixedRate(this::sample, period, period, TimeUnit.NANOSECONDS);
+        logger.info("blocking detector started, threshold: {}ms", TimeUnit.NANOSECONDS.toMillis(threshold));
+    }
+
+    public synchronized void stop() {
+        if (sampler == null) return;
+        sampler.shutdownNow();
+        sampler = null;
+    }
+
+    /**
+     * handler开始执行
+     *
+     * @param owner handler的归属， 例如LoadRouter的类名
+     * @param route route路径或eventBus地址
+     */
+    public void begin(String owner, String route) {
+        local.get().push(owner, route, System.nanoTime());
+    }
+
+    /**
+     * handler执行完毕， 必须和{@link #begin(String, String)}成对调用
+     */
+    public void end() {
+        Slot slot = local.get();
+        long now = System.nanoTime();
+        Frame frame = slot.pop(now);
+        if (frame == null) return;
+        long self = now - frame.start - frame.child;
+        if (self >= threshold) stat(frame.owner, frame.route).record(self, frame.stack);
+        frame.clear();
+    }
+
+    private BlockingStat stat(String owner, String route) {
+        String key = owner + ' ' + route;
+        BlockingStat stat = stats.get(key);
+        if (stat != null) return stat;
+        //route是动态生成的时候不会无限增长
+        if (stats.size() >= Max_Stats) {
+            String other = owner + ' ' + Other_Route;
+            return stats.computeIfAbsent(other, k -> new BlockingStat(owner, Other_Route));
+        }
+        return stats.computeIfAbsent(key, k -> new BlockingStat(owner, route));
+    }
+
+    /**
+     * @return eventBus的inbound拦截器， 按照地址统计consumer的耗时， 回复地址统一归到{@link #Reply_Route}
+     */
+    public Handler<DeliveryContext<Object>> eventBusInterceptor() {
+        return ctx -> {
+            String address = ctx.message().address();
+            begin("eventBus", address != null && address.startsWith(Reply_Address_Prefix) ? Reply_Route : address);
+            try {
+                ctx.next();
+            } finally {
+                end();
+            }
+        };
+    }
+
+    /**
+     * @return 用于{@link me.wang007.router.LoadRouter}的handler装饰器
+     */
+    public HandlerDecorator handlerDecorator() {
+        return (loadRouter, path, handler) -> {
+            String owner = loadRouter.getClass().getName();
+            return rc -> {
+                begin(owner, path);
+                try {
+                    handler.handle(rc);
+                } finally {
+                    end();
+                }
+            };
+        };
+    }
+
+    /**
+     * @return 超过阈值的handler统计， 按照总耗时降序
+     */
+    public List<BlockingStat> report() {
+        List<BlockingStat> list = new ArrayList<>(stats.values());
+        list.sort((s1, s2) -> Long.compare(s2.getTotalNanos(), s1.getTotalNanos()));
+        return list;
+    }
+
+    /**
+     * @return json格式的{@link #report()}
+     */
+    public JsonArray reportJson() {
+        JsonArray array = new JsonArray();
+        report().forEach(stat -> array.add(stat.toJson()));
+        return array;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        for (Slot slot : slots) {
+            Frame frame = slot.top;
+            if (frame == null || frame.stack != null) continue;
+            long start = frame.start;
+            if (start != 0 && now - start >= threshold) {
+                StackTraceElement[] stack = slot.thread.getStackTrace();
+                //采样期间handler可能已经结束了
+                if (slot.top == frame && frame.start == start) frame.stack = stack;
+            }
+        }
+    }
+
+    /**
+     * 一次handler调用
+     */
+    private static final class Frame {
+        String owner;
+        String route;
+        volatile long start;
+        long child;
+        volatile StackTraceElement[] stack;
+
+        void clear() {
+            owner = null;
+            route = null;
+            start = 0;
+            child = 0;
+            stack = null;
+        }
+    }
+
+    /**
+     * 每个线程的handler调用栈， 只有所属线程会修改
+     */
+    private static final class Slot {
+        final Thread thread;
+        final Frame[] frames = new Frame[Max_Depth];
+        int depth;
+        volatile Frame top;
+
+        Slot(Thread thread) {
+            this.thread = thread;
+            for (int i = 0; i < Max_Depth; i++) frames[i] = new Frame();
+        }
+
+        void push(String owner, String route, long now) {
+            if (depth >= Max_Depth) {
+                depth++;
+                return;
+            }
+            Frame frame = frames[depth++];
+            frame.owner = owner;
+            frame.route = route;
+            frame.child = 0;
+            frame.stack = null;
+            frame.start = now;
+            top = frame;
+        }
+
+        Frame pop(long now) {
+            if (depth == 0) return null;
+            if (depth-- > Max_Depth) return null;
+            Frame frame = frames[depth];
+            if (depth > 0) {
+                Frame parent = frames[depth - 1];
+                parent.child += now - frame.start;
+                top = parent;
+            } else {
+                top = null;
+            }
+            return frame;
+        }
+    }
+
+}
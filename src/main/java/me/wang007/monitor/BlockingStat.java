@@ -0,0 +1,99 @@
+package me.wang007.monitor;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 同一个handler超过阈值的统计
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class BlockingStat {
+
+    /**
+     * handler的归属，例如LoadRouter的类名
+     */
+    private final String owner;
+
+    /**
+     * route路径或eventBus地址
+     */
+    private final String route;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 最近一次采集到的线程栈
+     */
+    private volatile StackTraceElement[] stack;
+
+    BlockingStat(String owner, String route) {
+        this.owner = owner;
+        this.route = route;
+    }
+
+    void record(long nanos, StackTraceElement[] sampled) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        if (sampled != null) stack = sampled;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public StackTraceElement[] getStack() {
+        return stack;
+    }
+
+    public JsonObject toJson() {
+        JsonArray frames = new JsonArray();
+        StackTraceElement[] st = stack;
+        if (st != null) {
+            for (StackTraceElement e : st) frames.add(e.toString());
+        }
+        return new JsonObject()
+                .put("owner", owner)
+                .put("route", route)
+                .put("count", getCount())
+                .put("totalMs", TimeUnit.NANOSECONDS.toMillis(getTotalNanos()))
+                .put("maxMs", TimeUnit.NANOSECONDS.toMillis(getMaxNanos()))
+                .put("stack", frames);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingStat{" +
+                "owner='" + owner + '\'' +
+                ", route='" + route + '\'' +
+                ", count=" + getCount() +
+                ", totalNanos=" + getTotalNanos() +
+                ", maxNanos=" + getMaxNanos() +
+                '}';
+    }
+}
@@ -0,0 +1,203 @@
+package me.wang007.pool;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.Context;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 按照eventLoop分片的对象池， 每个eventLoop线程一个空闲列表， 只会被所属线程访问， 不需要加锁。
+ *
+ * 非eventLoop线程(worker线程，虚拟线程)中{@link #acquire()}直接创建新对象， {@link #release(Object)}直接丢弃。
+ *
+ * 泄漏检测：开启之后按照采样率记录acquire的调用栈， 超过阈值还没有release的对象认为是泄漏， 打印一次warn日志。
+ *
+ * 统计数据由各个eventLoop线程各自累加， 读取到的是近似值。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class ObjectPool<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectPool.class);
+
+    private static final int Max_Tracked = 128;
+
+    private final String name;
+
+    private final Supplier<T> factory;
+
+    /**
+     * 回收时重置对象， 返回false表示不回收， 例如：StringBuilder扩容得太大
+     */
+    private final Predicate<T> recycler;
+
+    private final int maxIdle;
+
+    private volatile int leakSampleRate;
+
+    private volatile long leakThreshold;
+
+    private final List<Local<T>> locals = new CopyOnWriteArrayList<>();
+
+    private final LongAdder unpooled = new LongAdder();
+
+    private final FastThreadLocal<Local<T>> local = new FastThreadLocal<Local<T>>() {
+        @Override
+        protected Local<T> initialValue() {
+            Local<T> l = new Local<>(maxIdle);
+            locals.add(l);
+            return l;
+        }
+    };
+
+    /**
+     * @param name     名称， 用于统计和日志
+     * @param factory  创建对象
+     * @param recycler 回收时重置对象， 返回false表示不回收
+     * @param maxIdle  每个eventLoop最多缓存的空闲对象数
+     */
+    public ObjectPool(String name, Supplier<T> factory, Predicate<T> recycler, int maxIdle) {
+        if (maxIdle <= 0) throw new IllegalArgumentException("maxIdle must be greater than 0");
+        this.name = name;
+        this.factory = factory;
+        this.recycler = recycler;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 开启泄漏检测
+     *
+     * @param sampleRate 每多少次acquire采样一次， {@code <=} 0 表示关闭
+     * @param threshold  超过该时间没有release认为是泄漏， 单位：ms
+     * @return this
+     */
+    public ObjectPool<T> leakDetection(int sampleRate, long threshold) {
+        this.leakThreshold = threshold;
+        this.leakSampleRate = sampleRate;
+        return this;
+    }
+
+    public T acquire() {
+        if (!Context.isOnEventLoopThread()) {
+            unpooled.increment();
+            return factory.get();
+        }
+        Local<T> l = local.get();
+        long count = ++l.acquires;
+        T obj = l.pop();
+        if (obj == null) {
+            l.misses++;
+            obj = factory.get();
+        }
+        int sampleRate = leakSampleRate;
+        if (sampleRate > 0 && count % sampleRate == 0) l.track(obj, leakThreshold, name);
+        return obj;
+    }
+
+    public void release(T obj) {
+        if (obj == null || !Context.isOnEventLoopThread()) return;
+        Local<T> l = local.get();
+        l.releases++;
+        if (l.tracked != null) l.tracked.remove(obj);
+        if (!recycler.test(obj) || !l.push(obj)) l.discards++;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return 所有eventLoop的统计之和
+     */
+    public JsonObject stats() {
+        long acquires = 0, misses = 0, releases = 0, discards = 0, idle = 0, leaks = 0;
+        for (Local<T> l : locals) {
+            acquires += l.acquires;
+            misses += l.misses;
+            releases += l.releases;
+            discards += l.discards;
+            idle += l.size;
+            leaks += l.leaks;
+        }
+        long hits = acquires - misses;
+        return new JsonObject()
+                .put("name", name)
+                .put("acquires", acquires)
+                .put("hits", hits)
+                .put("hitRate", acquires == 0 ? 1.0 : (double) hits / acquires)
+                .put("misses", misses)
+                .put("releases", releases)
+                .put("discards", discards)
+                .put("outstanding", acquires - releases)
+                .put("idle", idle)
+                .put("unpooled", unpooled.sum())
+                .put("leaks", leaks);
+    }
+
+    private static final class Local<T> {
+        final Object[] free;
+        int size;
+
+        long acquires, misses, releases, discards, leaks;
+
+        Map<Object, Leak> tracked;
+
+        Local(int maxIdle) {
+            this.free = new Object[maxIdle];
+        }
+
+        @SuppressWarnings("unchecked")
+        T pop() {
+            if (size == 0) return null;
+            T obj = (T) free[--size];
+            free[size] = null;
+            return obj;
+        }
+
+        boolean push(T obj) {
+            if (size == free.length) return false;
+            free[size++] = obj;
+            return true;
+        }
+
+        /**
+         * 顺便检查之前记录的对象是否超时未release
+         */
+        void track(Object obj, long threshold, String name) {
+            if (tracked == null) tracked = new IdentityHashMap<>();
+            long now = System.currentTimeMillis();
+            Iterator<Leak> it = tracked.values().iterator();
+            while (it.hasNext()) {
+                Leak leak = it.next();
+                if (now - leak.time > threshold) {
+                    it.remove();
+                    leaks++;
+                    logger.warn("object pool -> " + name + " leak detected, not released in " + threshold + "ms. acquired at:", leak);
+                }
+            }
+            if (tracked.size() < Max_Tracked) tracked.put(obj, new Leak(now));
+        }
+    }
+
+    /**
+     * 记录acquire的调用栈
+     */
+    private static final class Leak extends Throwable {
+        final long time;
+
+        Leak(long time) {
+            super("acquire", null, false, true);
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package me.wang007.pool;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.shared.SharedKey;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求级别的对象池， 通过{@link me.wang007.verticle.HttpServerVerticle#pools()}获取。
+ *
+ * 通过RoutingContext租借的对象在请求结束(response结束或者连接关闭)时自动归还， 不需要手动release。
+ * 归还之后对象会被重置并且给其他请求使用， 不能在请求结束之后继续持有，
+ * 例如：JsonObject要先encode再send/end， 不能直接作为eventBus消息或者放到共享的数据结构中。
+ *
+ * <code>
+ *     StringBuilder sb = server.pools().stringBuilder(ctx);
+ *     ctx.response().end(sb.append("hello ").append(name).toString());
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class RequestPools {
+
+    public static final SharedKey<RequestPools> Key = SharedKey.of("requestPools", RequestPools.class);
+
+    private static final String Lease_Key = "vertx-start.pool.lease";
+
+    private static final int Max_Builder_Capacity = 64 * 1024;
+
+    private static final int Min_Bytes_Shift = 8;   //256B
+    private static final int Max_Bytes_Shift = 16;  //64KB
+
+    private final ObjectPool<StringBuilder> stringBuilders = new ObjectPool<>("stringBuilder",
+            () -> new StringBuilder(256),
+            sb -> {
+                if (sb.capacity() > Max_Builder_Capacity) return false;
+                sb.setLength(0);
+                return true;
+            }, 64);
+
+    private final ObjectPool<JsonObject> jsonObjects = new ObjectPool<>("jsonObject",
+            JsonObject::new,
+            json -> {
+                json.clear();
+                return true;
+            }, 64);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectPool<byte[]>[] byteArrays = new ObjectPool[Max_Bytes_Shift - Min_Bytes_Shift + 1];
+
+    private final ObjectPool<Lease> leases = new ObjectPool<>("lease", Lease::new, lease -> true, 256);
+
+    private final Map<String, ObjectPool<?>> pools = new ConcurrentHashMap<>();
+
+    private volatile int leakSampleRate;
+
+    private volatile long leakThreshold;
+
+    public RequestPools() {
+        for (int i = 0; i < byteArrays.length; i++) {
+            int length = 1 << (Min_Bytes_Shift + i);
+            byteArrays[i] = new ObjectPool<>("bytes-" + length, () -> new byte[length], bytes -> true, 16);
+        }
+        register(stringBuilders).register(jsonObjects);
+        for (ObjectPool<byte[]> p : byteArrays) register(p);
+    }
+
+    /**
+     * 注册自定义的对象池， 用于统计和泄漏检测
+     *
+     * @param pool 对象池
+     * @return this
+     */
+    public RequestPools register(ObjectPool<?> pool) {
+        if (leakSampleRate > 0) pool.leakDetection(leakSampleRate, leakThreshold);
+        pools.put(pool.name(), pool);
+        return this;
+    }
+
+    /**
+     * 所有对象池开启泄漏检测， 包括之后注册的
+     *
+     * @param sampleRate 每多少次acquire采样一次
+     * @param threshold  超过该时间没有release认为是泄漏， 单位：ms
+     * @return this
+     */
+    public RequestPools leakDetection(int sampleRate, long threshold) {
+        this.leakThreshold = threshold;
+        this.leakSampleRate = sampleRate;
+        pools.values().forEach(p -> p.leakDetection(sampleRate, threshold));
+        return this;
+    }
+
+    /**
+     * @param ctx 请求
+     * @return 长度为0的StringBuilder， 请求结束时自动归还
+     */
+    public StringBuilder stringBuilder(RoutingContext ctx) {
+        return lease(ctx, stringBuilders);
+    }
+
+    /**
+     * @param ctx 请求
+     * @return 空的JsonObject， 请求结束时自动归还
+     */
+    public JsonObject jsonObject(RoutingContext ctx) {
+        return lease(ctx, jsonObjects);
+    }
+
+    /**
+     * 按照2的幂分级， 超过64KB的不池化
+     *
+     * @param ctx       请求
+     * @param minLength 最小长度
+     * @return 长度 {@code >=} minLength的byte数组， 内容是上一次使用留下的， 请求结束时自动归还
+     */
+    public byte[] bytes(RoutingContext ctx, int minLength) {
+        int shift = Math.max(Min_Bytes_Shift, 32 - Integer.numberOfLeadingZeros(Math.max(1, minLength) - 1));
+        if (shift > Max_Bytes_Shift) return new byte[minLength];
+        return lease(ctx, byteArrays[shift - Min_Bytes_Shift]);
+    }
+
+    /**
+     * 从对象池中租借对象， 请求结束时自动归还
+     *
+     * @param ctx  请求
+     * @param pool 对象池
+     * @param <T>  类型
+     * @return 对象
+     */
+    public <T> T lease(RoutingContext ctx, ObjectPool<T> pool) {
+        T obj = pool.acquire();
+        Lease lease = ctx.get(Lease_Key);
+        if (lease == null) {
+            Lease newLease = leases.acquire();
+            ctx.put(Lease_Key, newLease);
+            ctx.addEndHandler(ar -> {
+                newLease.releaseAll();
+                leases.release(newLease);
+            });
+            lease = newLease;
+        }
+        lease.add(pool, obj);
+        return obj;
+    }
+
+    /**
+     * @return 所有对象池的统计
+     */
+    public JsonArray stats() {
+        JsonArray arr = new JsonArray();
+        pools.values().forEach(p -> arr.add(p.stats()));
+        return arr;
+    }
+
+    /**
+     * 一个请求租借的所有对象
+     */
+    private static final class Lease {
+        ObjectPool<?>[] pools = new ObjectPool[8];
+        Object[] objects = new Object[8];
+        int size;
+
+        void add(ObjectPool<?> pool, Object obj) {
+            if (size == objects.length) {
+                pools = Arrays.copyOf(pools, size << 1);
+                objects = Arrays.copyOf(objects, size << 1);
+            }
+            pools[size] = pool;
+            objects[size++] = obj;
+        }
+
+        @SuppressWarnings("unchecked")
+        void releaseAll() {
+            for (int i = 0; i < size; i++) {
+                ((ObjectPool<Object>) pools[i]).release(objects[i]);
+                pools[i] = null;
+                objects[i] = null;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package me.wang007.router;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * 装饰{@link LoadRouter}中注册的route handler。
+ *
+ * 例如：统计handler的执行时间，切换handler的执行线程等
+ *
+ * created by wang007 on 2026/10/19
+ */
+@FunctionalInterface
+public interface HandlerDecorator {
+
+    /**
+     * @param loadRouter 注册该handler的LoadRouter
+     * @param path       route的完整路径， 包括挂载路径
+     * @param handler    原始的handler
+     * @return 装饰之后的handler
+     */
+    Handler<RoutingContext> decorate(LoadRouter loadRouter, String path, Handler<RoutingContext> handler);
+
+    /**
+     * 组合两个decorator， 先执行this，再执行after
+     *
+     * @param after 后执行的decorator
+     * @return 组合之后的decorator
+     */
+    default HandlerDecorator andThen(HandlerDecorator after) {
+        return (loadRouter, path, handler) -> after.decorate(loadRouter, path, decorate(loadRouter, path, handler));
+    }
+}
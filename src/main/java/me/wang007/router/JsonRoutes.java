@@ -0,0 +1,120 @@
+package me.wang007.router;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.json.PojoCodecs;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 声明了输入、输出类型的route handler。 请求体通过{@link PojoCodecs}流式解析成pojo， 返回的pojo直接编码成buffer， 不经过JsonObject。
+ *
+ * <code>
+ *     router.post("/user").handler(BodyHandler.create());
+ *     router.post("/user").handler(JsonRoutes.handler(CreateUser.class, (ctx, req) {@code ->} userService.create(req)));
+ *     router.get("/user/:id").handler(JsonRoutes.handler(ctx {@code ->} userService.get(ctx.pathParam("id"))));
+ * </code>
+ *
+ * 请求体格式错误时返回400； 返回的Future失败时交给{@link RoutingContext#fail(Throwable)}； 返回null时响应204。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class JsonRoutes {
+
+    private static final String Content_Type = "application/json; charset=utf-8";
+
+    /**
+     * @param input   请求体的类型， 被{@link me.wang007.annotation.JsonCodec}注解
+     * @param handler 处理请求， 返回响应的pojo
+     * @param <I>     请求类型
+     * @param <O>     响应类型
+     * @return route handler
+     */
+    public static <I, O> Handler<RoutingContext> handler(Class<I> input, BiFunction<RoutingContext, I, Future<O>> handler) {
+        PojoCodecs.get(input);  //注册时检查， 没有生成codec时尽早报错
+        return ctx -> {
+            Buffer body = ctx.getBody();
+            if (body != null) {
+                handle(ctx, body, input, handler);
+                return;
+            }
+            //没有BodyHandler时自己读取请求体
+            ctx.request().body(ar -> {
+                if (ar.succeeded()) handle(ctx, ar.result(), input, handler);
+                else ctx.fail(ar.cause());
+            });
+        };
+    }
+
+    /**
+     * @param handler 处理请求， 返回响应的pojo
+     * @param <O>     响应类型
+     * @return route handler
+     */
+    public static <O> Handler<RoutingContext> handler(Function<RoutingContext, Future<O>> handler) {
+        return ctx -> {
+            Future<O> result;
+            try {
+                result = handler.apply(ctx);
+            } catch (Throwable e) {
+                ctx.fail(e);
+                return;
+            }
+            reply(ctx, result);
+        };
+    }
+
+    /**
+     * 响应pojo
+     *
+     * @param ctx   routingContext
+     * @param value pojo， 或者json支持的值。 null时响应204
+     */
+    public static void end(RoutingContext ctx, Object value) {
+        if (value == null) {
+            ctx.response().setStatusCode(204).end();
+            return;
+        }
+        ctx.response().putHeader("Content-Type", Content_Type).end(PojoCodecs.encode(value));
+    }
+
+    private static <I, O> void handle(RoutingContext ctx, Buffer body, Class<I> input, BiFunction<RoutingContext, I, Future<O>> handler) {
+        I request;
+        try {
+            request = body.length() == 0 ? null : PojoCodecs.decode(body, input);
+        } catch (DecodeException e) {
+            ctx.fail(400, e);
+            return;
+        }
+        Future<O> result;
+        try {
+            result = handler.apply(ctx, request);
+        } catch (Throwable e) {
+            ctx.fail(e);
+            return;
+        }
+        reply(ctx, result);
+    }
+
+    private static <O> void reply(RoutingContext ctx, Future<O> result) {
+        if (result == null) {
+            end(ctx, null);
+            return;
+        }
+        result.onComplete(ar -> {
+            if (ar.failed()) {
+                ctx.fail(ar.cause());
+                return;
+            }
+            try {
+                end(ctx, ar.result());
+            } catch (Throwable e) {
+                ctx.fail(e);
+            }
+        });
+    }
+}
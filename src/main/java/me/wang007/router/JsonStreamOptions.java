@@ -0,0 +1,73 @@
+package me.wang007.router;
+
+/**
+ * {@link JsonStreams}的参数
+ *
+ * 元素先写入批次缓冲区， 缓冲区达到{@link #batchSize}或者距离批次中的第一个元素超过{@link #flushInterval}时写到响应中。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class JsonStreamOptions {
+
+    public enum Format {
+
+        /**
+         * 每行一个json值， 以换行分隔
+         */
+        NDJSON("application/x-ndjson; charset=utf-8"),
+
+        /**
+         * 一个完整的json数组
+         */
+        ARRAY("application/json; charset=utf-8");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    private Format format = Format.NDJSON;
+
+    /**
+     * 批次缓冲区大小， 单位：byte
+     */
+    private int batchSize = 16 * 1024;
+
+    /**
+     * 批次缓冲区中的元素最多等待多久就写出， 单位：ms。 {@code <= 0} 时只按照大小写出
+     */
+    private long flushInterval = 100;
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public JsonStreamOptions setFormat(Format format) {
+        this.format = format;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public JsonStreamOptions setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public JsonStreamOptions setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+}
@@ -0,0 +1,186 @@
+package me.wang007.router;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.json.JsonWriter;
+import me.wang007.router.JsonStreamOptions.Format;
+
+/**
+ * 把{@link ReadStream}以chunked的方式流式响应成ndjson或者json数组， 不需要先把所有结果收集到一个JsonArray中。
+ *
+ * <code>
+ *     router.get("/export").handler(ctx {@code ->} JsonStreams.ndjson(ctx, cursor));
+ * </code>
+ *
+ * 元素按照{@link JsonWriter#value(Object)}编码， 支持JsonObject、{@link me.wang007.annotation.JsonCodec} pojo等。
+ * 元素先按批次合并再写出， 响应的写队列满时暂停stream， drain之后恢复， 内存占用只和批次大小、写队列大小有关。
+ *
+ * 第一批数据写出之前stream失败， 交给{@link RoutingContext#fail(Throwable)}； 之后失败只能reset连接， 客户端收到的是不完整的响应。
+ * 客户端断开时stream会被暂停， 返回的Future失败， 需要调用方关闭游标等资源。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class JsonStreams {
+
+    public static <T> Future<Void> ndjson(RoutingContext ctx, ReadStream<T> stream) {
+        return pipe(ctx, stream, new JsonStreamOptions().setFormat(Format.NDJSON));
+    }
+
+    public static <T> Future<Void> array(RoutingContext ctx, ReadStream<T> stream) {
+        return pipe(ctx, stream, new JsonStreamOptions().setFormat(Format.ARRAY));
+    }
+
+    /**
+     * @param ctx     routingContext
+     * @param stream  数据源， 需要和ctx在同一个context中回调
+     * @param options 参数
+     * @param <T>     元素类型
+     * @return 全部写出之后完成
+     */
+    public static <T> Future<Void> pipe(RoutingContext ctx, ReadStream<T> stream, JsonStreamOptions options) {
+        HttpServerResponse response = ctx.response();
+        response.setChunked(true).putHeader("Content-Type", options.getFormat().contentType());
+
+        Pipe<T> pipe = new Pipe<>(stream, response, options, ctx.vertx());
+        //不覆盖response上已有的closeHandler(例如协程handler取消协程)， 连接在响应结束之前关闭时endHandler以失败回调
+        ctx.addEndHandler(ar -> {
+            if (ar.failed()) pipe.fail(new VertxException("Connection was closed", ar.cause()));
+        });
+        Future<Void> future = pipe.start();
+        future.onFailure(e -> {
+            if (response.closed() || response.ended()) return;
+            if (response.headWritten()) response.reset();
+            else ctx.fail(e);
+        });
+        return future;
+    }
+
+    /**
+     * 写到任意的WriteStream， 不设置响应头， 失败时也不处理WriteStream
+     *
+     * @return 全部写出并且end之后完成
+     */
+    public static <T> Future<Void> pipe(ReadStream<T> stream, WriteStream<Buffer> ws, JsonStreamOptions options, Vertx vertx) {
+        return new Pipe<>(stream, ws, options, vertx).start();
+    }
+
+    private static class Pipe<T> {
+
+        private final ReadStream<T> stream;
+
+        private final WriteStream<Buffer> ws;
+
+        private final Vertx vertx;
+
+        private final boolean array;
+
+        private final int batchSize;
+
+        private final long flushInterval;
+
+        private final JsonWriter writer;
+
+        private final Promise<Void> promise = Promise.promise();
+
+        private long count;
+
+        private long timerId = -1;
+
+        private boolean paused;
+
+        private boolean done;
+
+        Pipe(ReadStream<T> stream, WriteStream<Buffer> ws, JsonStreamOptions options, Vertx vertx) {
+            this.stream = stream;
+            this.ws = ws;
+            this.vertx = vertx;
+            this.array = options.getFormat() == Format.ARRAY;
+            this.batchSize = Math.max(1, options.getBatchSize());
+            this.flushInterval = options.getFlushInterval();
+            //每个stream独立的writer， 批次之间复用同一个byte[]
+            this.writer = new JsonWriter(Math.min(batchSize + 1024, 64 * 1024));
+        }
+
+        Future<Void> start() {
+            if (array) writer.raw('[');
+            ws.exceptionHandler(this::fail);
+            ws.drainHandler(v -> {
+                if (paused && !done) {
+                    paused = false;
+                    stream.resume();
+                }
+            });
+            stream.exceptionHandler(this::fail);
+            stream.endHandler(v -> end());
+            stream.handler(this::item);
+            return promise.future();
+        }
+
+        private void item(T item) {
+            if (done) return;
+            try {
+                if (array && count > 0) writer.raw(',');
+                writer.value(item);
+                if (!array) writer.raw('\n');
+                count++;
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            if (writer.size() >= batchSize) flush();
+            else if (timerId == -1 && flushInterval > 0) {
+                timerId = vertx.setTimer(flushInterval, id -> {
+                    timerId = -1;
+                    flush();
+                });
+            }
+        }
+
+        private void flush() {
+            cancelTimer();
+            if (done || writer.size() == 0) return;
+            Buffer buffer = writer.toBuffer();
+            writer.release();
+            ws.write(buffer);
+            if (!paused && ws.writeQueueFull()) {
+                paused = true;
+                stream.pause();
+            }
+        }
+
+        private void end() {
+            if (done) return;
+            if (array) writer.raw(']');
+            flush();
+            done = true;
+            ws.end();
+            promise.tryComplete();
+        }
+
+        private void fail(Throwable e) {
+            if (done) return;
+            done = true;
+            cancelTimer();
+            writer.release();
+            try {
+                stream.pause();
+            } catch (Throwable ignore) {
+            }
+            promise.tryFail(e);
+        }
+
+        private void cancelTimer() {
+            if (timerId != -1) {
+                vertx.cancelTimer(timerId);
+                timerId = -1;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package me.wang007.router;
 
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 
 
@@ -13,7 +14,10 @@ import me.wang007.verticle.HttpServerVerticle;
  *
  * 多实例的verticle中，每个verticle中的LoadRouter、{@link Router}都是独立的。 强制放到一起，会发生并发问题。
  *
- * new {@code ->} init {@code ->} 对所有的order排序 {@code ->} start
+ * new {@code ->} 对所有的order排序 {@code ->} init {@code ->} start
+ *
+ * order相同的LoadRouter并行启动， order不同的按照升序依次启动， 前一组全部启动完成之后才会启动下一组。
+ * 所有LoadRouter启动完成之后， httpServer才会监听端口。
  *
  *
  *
@@ -25,7 +29,25 @@ public interface LoadRouter {
      * {@link LoadRouter}生命周期方法。
      *
      */
-    void start();
+    default void start() {}
+
+    /**
+     * 异步的{@link #start()}， 需要异步加载数据之后才能注册route时重写该方法， 完成之后调用startPromise。
+     * startPromise失败时， httpServer部署失败。
+     *
+     * 注意：order相同的LoadRouter并行启动， 它们之间注册route的先后顺序是不确定的。
+     *
+     * @param startPromise 启动完成时complete
+     */
+    default void start(Promise<Void> startPromise) {
+        start();
+        startPromise.complete();
+    }
+
+    /**
+     * {@link HttpServerVerticle}卸载时调用， 释放LoadRouter持有的资源， 例如取消还在执行的协程
+     */
+    default void stop() {}
 
     /**
      *
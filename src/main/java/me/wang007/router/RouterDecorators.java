@@ -0,0 +1,104 @@
+package me.wang007.router;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * 通过动态代理包装{@link Router}， 使得{@link LoadRouter}中通过{@link Route#handler(Handler)},
+ * {@link Route#failureHandler(Handler)}注册的handler都经过{@link HandlerDecorator}装饰。
+ *
+ * LoadRouter拿到的是代理之后的router， 对LoadRouter是透明的。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class RouterDecorators {
+
+    /**
+     * 包装router
+     *
+     * @param router     原始的router
+     * @param mountPath  router的挂载路径
+     * @param loadRouter 使用该router的LoadRouter
+     * @param decorator  handler装饰器
+     * @return 代理之后的router
+     */
+    public static Router decorate(Router router, String mountPath, LoadRouter loadRouter, HandlerDecorator decorator) {
+        return proxy(Router.class, router, new RouterInvocation(router, mountPath, loadRouter, decorator));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler h) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, h);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class RouterInvocation implements InvocationHandler {
+
+        private final Router router;
+        private final String mountPath;
+        private final LoadRouter loadRouter;
+        private final HandlerDecorator decorator;
+
+        RouterInvocation(Router router, String mountPath, LoadRouter loadRouter, HandlerDecorator decorator) {
+            this.router = router;
+            this.mountPath = mountPath;
+            this.loadRouter = loadRouter;
+            this.decorator = decorator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = RouterDecorators.invoke(router, method, args);
+            if (result == router) return proxy;
+            if (result instanceof Route) {
+                Route route = (Route) result;
+                return proxy(Route.class, route, new RouteInvocation(route, mountPath, loadRouter, decorator));
+            }
+            return result;
+        }
+    }
+
+    private static class RouteInvocation implements InvocationHandler {
+
+        private final Route route;
+        private final String mountPath;
+        private final LoadRouter loadRouter;
+        private final HandlerDecorator decorator;
+
+        RouteInvocation(Route route, String mountPath, LoadRouter loadRouter, HandlerDecorator decorator) {
+            this.route = route;
+            this.mountPath = mountPath;
+            this.loadRouter = loadRouter;
+            this.decorator = decorator;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (("handler".equals(name) || "failureHandler".equals(name))
+                    && args != null && args.length == 1 && args[0] instanceof Handler) {
+                String path = route.getPath();
+                path = mountPath + (path == null ? "/" : path);
+                args = new Object[]{decorator.decorate(loadRouter, path, (Handler<RoutingContext>) args[0])};
+            }
+            Object result = RouterDecorators.invoke(route, method, args);
+            return result == route ? proxy : result;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package me.wang007.router;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 在虚拟线程上执行route handler， 需要JDK 21+。
+ *
+ * handler中可以直接调用阻塞的api(例如JDBC)，或者通过{@link me.wang007.boot.VertxBoot#await(io.vertx.core.Future)}同步等待Future的结果。
+ * 在handler中调用{@link RoutingContext#next()}, {@link RoutingContext#fail(Throwable)}等方法时， 会切回到原来的eventLoop上执行。
+ *
+ * 低于JDK 21时，退化为{@link Context#executeBlocking(Handler, boolean, Handler)}，即在worker线程池中执行。
+ *
+ * <code>
+ *     //整个LoadRouter的handler都在虚拟线程中执行
+ *     \@Route(mountPath = "/user", virtualThread = true)
+ *     public class UserRouter implements LoadRouter { ... }
+ *
+ *     //只有指定的route在虚拟线程中执行
+ *     router.get("/export").handler(VirtualThreads.handler(rc {@code ->} { ... }));
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final ExecutorService executor = createExecutor();
+
+    /**
+     * @return 当前jvm是否支持虚拟线程
+     */
+    public static boolean supported() {
+        return executor != null;
+    }
+
+    /**
+     * 包装handler，使其在虚拟线程上执行
+     *
+     * @param handler 原始的handler
+     * @return 包装之后的handler
+     */
+    public static Handler<RoutingContext> handler(Handler<RoutingContext> handler) {
+        return rc -> {
+            Context context = Vertx.currentContext();
+            RoutingContext contextBound = bind(rc, context);
+            if (executor == null) {
+                context.executeBlocking(promise -> {
+                    execute(handler, contextBound, context);
+                    promise.complete();
+                }, false, null);
+            } else {
+                executor.execute(() -> execute(handler, contextBound, context));
+            }
+        };
+    }
+
+    /**
+     * @return 用于{@link me.wang007.annotation.Route#virtualThread()}的装饰器
+     */
+    public static HandlerDecorator decorator() {
+        return (loadRouter, path, handler) -> handler(handler);
+    }
+
+    private static void execute(Handler<RoutingContext> handler, RoutingContext rc, Context context) {
+        try {
+            handler.handle(rc);
+        } catch (Throwable e) {
+            context.runOnContext(v -> rc.fail(e));
+        }
+    }
+
+    /**
+     * RoutingContext不是线程安全的， 路由相关的方法切回到原来的context执行
+     */
+    private static RoutingContext bind(RoutingContext rc, Context context) {
+        return (RoutingContext) Proxy.newProxyInstance(RoutingContext.class.getClassLoader(),
+                new Class[]{RoutingContext.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (("next".equals(name) || "fail".equals(name) || "reroute".equals(name))
+                            && !Context.isOnEventLoopThread()) {
+                        context.runOnContext(v -> invoke(rc, method, args));
+                        return null;
+                    }
+                    return invoke(rc, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (Exception e) {
+            logger.info("virtual thread not supported, virtual thread handler fall back to worker pool");
+            return null;
+        }
+    }
+
+}
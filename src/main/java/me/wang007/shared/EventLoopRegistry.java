@@ -0,0 +1,64 @@
+package me.wang007.shared;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * eventLoop级别的注册表， 每个eventLoop线程一份， 同一个eventLoop上的verticle实例共享。
+ *
+ * 对象只会被所属的eventLoop线程访问， 读写都不需要加锁， 也不会有跨线程的竞争。
+ * 适合放一些非线程安全，但是可以按照eventLoop分片的对象，例如：缓存分片、对象池、计数器等。
+ *
+ * 只能在eventLoop线程中调用(worker线程中调用的话，每个worker线程也会有一份)。
+ * 通过{@link me.wang007.boot.VertxBoot#eventLoopRegistry()}获取
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class EventLoopRegistry {
+
+    private final FastThreadLocal<Object[]> slots = new FastThreadLocal<Object[]>() {
+        @Override
+        protected Object[] initialValue() {
+            return new Object[16];
+        }
+    };
+
+    public <T> T get(SharedKey<T> key) {
+        Object[] s = slots.get();
+        int index = key.index();
+        return index < s.length ? key.cast(s[index]) : null;
+    }
+
+    public <T> T put(SharedKey<T> key, T value) {
+        Object[] s = ensureCapacity(key.index());
+        Object old = s[key.index()];
+        s[key.index()] = key.cast(value);
+        return key.cast(old);
+    }
+
+    public <T> T computeIfAbsent(SharedKey<T> key, Supplier<? extends T> supplier) {
+        T value = get(key);
+        if (value == null) {
+            value = supplier.get();
+            put(key, value);
+        }
+        return value;
+    }
+
+    public <T> T remove(SharedKey<T> key) {
+        if (key.index() >= slots.get().length) return null;
+        return put(key, null);
+    }
+
+    private Object[] ensureCapacity(int index) {
+        Object[] s = slots.get();
+        if (index < s.length) return s;
+        int len = s.length;
+        while (len <= index) len = len << 1;
+        s = Arrays.copyOf(s, len);
+        slots.set(s);
+        return s;
+    }
+}
@@ -0,0 +1,48 @@
+package me.wang007.shared;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * verticle实例级别的注册表， 非线程安全。
+ *
+ * verticle实例中的代码都在同一个context中执行， 所以不需要加锁。
+ * 例如{@link me.wang007.verticle.HttpServerVerticle#localRegistry()}， 同一个httpServer实例中的LoadRouter共享。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class LocalRegistry {
+
+    private Object[] slots = new Object[16];
+
+    public <T> T get(SharedKey<T> key) {
+        int index = key.index();
+        return index < slots.length ? key.cast(slots[index]) : null;
+    }
+
+    public <T> T put(SharedKey<T> key, T value) {
+        int index = key.index();
+        if (index >= slots.length) {
+            int len = slots.length;
+            while (len <= index) len = len << 1;
+            slots = Arrays.copyOf(slots, len);
+        }
+        Object old = slots[index];
+        slots[index] = key.cast(value);
+        return key.cast(old);
+    }
+
+    public <T> T computeIfAbsent(SharedKey<T> key, Supplier<? extends T> supplier) {
+        T value = get(key);
+        if (value == null) {
+            value = supplier.get();
+            put(key, value);
+        }
+        return value;
+    }
+
+    public <T> T remove(SharedKey<T> key) {
+        if (key.index() >= slots.length) return null;
+        return put(key, null);
+    }
+}
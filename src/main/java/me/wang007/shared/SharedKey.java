@@ -0,0 +1,60 @@
+package me.wang007.shared;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享对象的类型化key， 用于{@link SharedRegistry}, {@link EventLoopRegistry}, {@link LocalRegistry}
+ *
+ * 每个key创建时分配一个递增的下标， registry通过下标直接定位槽位，读取是O(1)的。
+ * key按照引用比较， 一般声明为常量：
+ *
+ * <code>
+ *     public static final SharedKey{@code <}JDBCClient{@code >} Jdbc_Client = SharedKey.of("jdbcClient", JDBCClient.class);
+ * </code>
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class SharedKey<T> {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private final int index;
+
+    private final String name;
+
+    private final Class<T> type;
+
+    private SharedKey(String name, Class<T> type) {
+        this.index = counter.getAndIncrement();
+        this.name = name;
+        this.type = type;
+    }
+
+    public static <T> SharedKey<T> of(String name, Class<T> type) {
+        Objects.requireNonNull(name, "name require not null");
+        Objects.requireNonNull(type, "type require not null");
+        return new SharedKey<>(name, type);
+    }
+
+    int index() {
+        return index;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    T cast(Object value) {
+        return type.cast(value);
+    }
+
+    @Override
+    public String toString() {
+        return "SharedKey{" + name + ", " + type.getName() + '}';
+    }
+}
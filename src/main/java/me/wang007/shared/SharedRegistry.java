@@ -0,0 +1,84 @@
+package me.wang007.shared;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * 应用级别的共享对象注册表， 所有verticle实例共享， 用于共享连接池、缓存、client等。
+ *
+ * 读操作无锁: 槽位数组是写时复制的， 读取时直接用{@link SharedKey}的下标取值。
+ * 写操作加锁， 适合写少读多的场景。
+ *
+ * 通过{@link me.wang007.boot.VertxBoot#registry()}获取
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class SharedRegistry {
+
+    private volatile Object[] slots = new Object[16];
+
+    /**
+     * @param key key
+     * @param <T> 类型
+     * @return value or null
+     */
+    public <T> T get(SharedKey<T> key) {
+        Object[] s = slots;
+        int index = key.index();
+        return index < s.length ? key.cast(s[index]) : null;
+    }
+
+    /**
+     * @param key   key
+     * @param value value
+     * @param <T>   类型
+     * @return 之前的value or null
+     */
+    public synchronized <T> T put(SharedKey<T> key, T value) {
+        Object[] s = ensureCapacity(key.index());
+        Object old = s[key.index()];
+        s[key.index()] = key.cast(value);
+        slots = s;
+        return key.cast(old);
+    }
+
+    /**
+     * 不存在时才创建。 同一个key的supplier最多只会执行一次
+     *
+     * @param key      key
+     * @param supplier 创建value
+     * @param <T>      类型
+     * @return value
+     */
+    public <T> T computeIfAbsent(SharedKey<T> key, Supplier<? extends T> supplier) {
+        T value = get(key);
+        if (value != null) return value;
+        synchronized (this) {
+            value = get(key);
+            if (value != null) return value;
+            value = supplier.get();
+            put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * @param key key
+     * @param <T> 类型
+     * @return 被删除的value or null
+     */
+    public synchronized <T> T remove(SharedKey<T> key) {
+        if (key.index() >= slots.length) return null;
+        return put(key, null);
+    }
+
+    /**
+     * 写时复制， 保证读线程看到的数组不会被修改
+     */
+    private Object[] ensureCapacity(int index) {
+        Object[] s = slots;
+        int len = s.length;
+        while (len <= index) len = len << 1;
+        return Arrays.copyOf(s, len);
+    }
+}
@@ -0,0 +1,254 @@
+package me.wang007.socket;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.annotation.Socket.SlowConsumer;
+import me.wang007.shared.SharedKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按照topic广播消息给WebSocket、SSE连接。
+ *
+ * 订阅关系按照eventLoop分片， 每个eventLoop只维护自己线程上的连接， 不需要加锁。
+ * 广播时消息只编码一次， 然后投递到每个有订阅的eventLoop的队列中， 每个eventLoop一次任务处理队列中的所有消息：
+ * 先把消息分发到各个连接的批次中， 再逐个连接写出。 广播的开销和eventLoop数相关， 和连接数无关。
+ *
+ * 线程安全， {@link #publish(String, Object)}可以在任意线程中调用。
+ * 通过{@link me.wang007.verticle.HttpServerVerticle#broadcaster()}获取。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class Broadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(Broadcaster.class);
+
+    public static final SharedKey<Broadcaster> Key = SharedKey.of("broadcaster", Broadcaster.class);
+
+    private static final CharSequence Event_Stream = HttpHeaders.createOptimized("text/event-stream; charset=utf-8");
+    private static final CharSequence No_Cache = HttpHeaders.createOptimized("no-cache");
+    private static final Buffer Connected = Buffer.buffer(": connected\n\n");
+
+    private final FastThreadLocal<Loop> local = new FastThreadLocal<>();
+
+    private final List<Loop> loops = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * 广播给订阅了topic的所有连接
+     *
+     * @param topic   topic
+     * @param message Buffer、String， 其他的按照json编码， 见{@link me.wang007.json.PojoCodecs#encode(Object)}。
+     *                WebSocket中Buffer作为binary消息发送， 其他的作为text消息
+     */
+    public void publish(String topic, Object message) {
+        Message m = null;
+        for (Loop loop : loops) {
+            if (loop.subscriptions == 0) continue;
+            if (m == null) m = Message.of(topic, message);
+            loop.offer(m);
+        }
+        published.increment();
+    }
+
+    /**
+     * 接收WebSocket连接， 在连接所在的eventLoop上调用
+     */
+    public void accept(ServerWebSocket ws, SocketEndpoint endpoint, SlowConsumer slowConsumer) {
+        WebSocketConnection connection = new WebSocketConnection(loop(), slowConsumer, ws);
+        ws.textMessageHandler(text -> onMessage(endpoint, connection, Buffer.buffer(text)));
+        ws.binaryMessageHandler(data -> onMessage(endpoint, connection, data));
+        ws.closeHandler(v -> onClose(endpoint, connection));
+        ws.exceptionHandler(e -> logger.debug("webSocket exception. path: " + ws.path(), e));
+        onOpen(endpoint, connection);
+    }
+
+    /**
+     * 接收SSE连接， 在连接所在的eventLoop上调用
+     */
+    public void accept(RoutingContext ctx, SocketEndpoint endpoint, SlowConsumer slowConsumer) {
+        HttpServerResponse response = ctx.response();
+        response.setChunked(true);
+        response.headers().set(HttpHeaders.CONTENT_TYPE, Event_Stream).set(HttpHeaders.CACHE_CONTROL, No_Cache);
+        response.write(Connected);  //立即写出响应头
+        SseConnection connection = new SseConnection(loop(), slowConsumer, ctx);
+        response.closeHandler(v -> onClose(endpoint, connection));
+        onOpen(endpoint, connection);
+    }
+
+    /**
+     * @return 当前的连接数
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * @return 广播的次数
+     */
+    public long published() {
+        return published.sum();
+    }
+
+    /**
+     * @return 因为写队列满被关闭的连接数
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return 写队列满时被合并的次数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    void slow(SlowConsumer slowConsumer) {
+        if (slowConsumer == SlowConsumer.DROP) dropped.increment();
+        else coalesced.increment();
+    }
+
+    private Loop loop() {
+        Loop loop = local.get();
+        if (loop == null) {
+            loop = new Loop(this, Vertx.currentContext());
+            local.set(loop);
+            loops.add(loop);
+        }
+        return loop;
+    }
+
+    private void onOpen(SocketEndpoint endpoint, SocketConnection connection) {
+        connections.incrementAndGet();
+        try {
+            endpoint.onOpen(connection);
+        } catch (Throwable e) {
+            logger.error("socket endpoint onOpen failed. path: " + connection.path(), e);
+            connection.close();
+        }
+    }
+
+    private void onMessage(SocketEndpoint endpoint, SocketConnection connection, Buffer message) {
+        try {
+            endpoint.onMessage(connection, message);
+        } catch (Throwable e) {
+            logger.error("socket endpoint onMessage failed. path: " + connection.path(), e);
+        }
+    }
+
+    private void onClose(SocketEndpoint endpoint, SocketConnection connection) {
+        if (connection.isClosed()) return;
+        connection.closed();
+        connections.decrementAndGet();
+        try {
+            endpoint.onClose(connection);
+        } catch (Throwable e) {
+            logger.error("socket endpoint onClose failed. path: " + connection.path(), e);
+        }
+    }
+
+    /**
+     * 一个eventLoop上的订阅关系和待处理的消息
+     */
+    static final class Loop {
+
+        final Broadcaster broadcaster;
+
+        private final Context context;
+
+        private final Map<String, Set<SocketConnection>> topics = new HashMap<>();
+
+        private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * 本轮有待写出消息的连接
+         */
+        final List<SocketConnection> dirty = new ArrayList<>();
+
+        /**
+         * 是否在处理队列中的消息
+         */
+        boolean draining;
+
+        /**
+         * 订阅数， 只有所属的eventLoop写， 其他线程读取用于跳过没有订阅的eventLoop
+         */
+        volatile int subscriptions;
+
+        Loop(Broadcaster broadcaster, Context context) {
+            this.broadcaster = broadcaster;
+            this.context = context;
+        }
+
+        void offer(Message message) {
+            queue.offer(message);
+            if (scheduled.compareAndSet(false, true)) context.runOnContext(v -> drain());
+        }
+
+        void subscribe(String topic, SocketConnection connection) {
+            topics.computeIfAbsent(topic, k -> new HashSet<>()).add(connection);
+            subscriptions++;
+        }
+
+        void unsubscribe(String topic, SocketConnection connection) {
+            Set<SocketConnection> connections = topics.get(topic);
+            if (connections != null && connections.remove(connection)) {
+                subscriptions--;
+                if (connections.isEmpty()) topics.remove(topic);
+            }
+        }
+
+        private void drain() {
+            scheduled.set(false);
+            draining = true;
+            try {
+                Message message;
+                while ((message = queue.poll()) != null) {
+                    Set<SocketConnection> connections = topics.get(message.topic);
+                    if (connections == null) continue;
+                    for (SocketConnection connection : connections) connection.enqueue(message);
+                }
+            } finally {
+                draining = false;
+            }
+            //每个连接写出一次， 关闭连接会修改订阅关系， 所以放在分发完成之后
+            for (int i = 0; i < dirty.size(); i++) {
+                try {
+                    dirty.get(i).flush();
+                } catch (Throwable e) {
+                    logger.warn("write socket failed.", e);
+                }
+            }
+            dirty.clear();
+        }
+    }
+}
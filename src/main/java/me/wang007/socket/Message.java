@@ -0,0 +1,115 @@
+package me.wang007.socket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import me.wang007.json.PojoCodecs;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 广播的消息， 只编码一次， 所有连接共享同一份不可释放的字节。
+ *
+ * created by wang007 on 2026/10/19
+ */
+final class Message {
+
+    private static final byte[] Event = "event: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] Data = "data: ".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * null：直接发送给单个连接的消息
+     */
+    final String topic;
+
+    /**
+     * Buffer类型的消息， WebSocket中作为binary消息发送
+     */
+    final boolean binary;
+
+    private final byte[] bytes;
+
+    /**
+     * netty写出之后会release， unreleasable保证可以写给任意多个连接
+     */
+    private final ByteBuf payload;
+
+    /**
+     * SSE格式的消息， 第一次发送给SSE连接时编码
+     */
+    private volatile ByteBuf sse;
+
+    /**
+     * WebSocket的text消息， 第一次发送给WebSocket连接时解码
+     */
+    private volatile String text;
+
+    private Message(String topic, boolean binary, byte[] bytes) {
+        this.topic = topic;
+        this.binary = binary;
+        this.bytes = bytes;
+        this.payload = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(bytes));
+    }
+
+    /**
+     * @param topic topic
+     * @param value Buffer、String， 其他的按照json编码， 见{@link PojoCodecs#encode(Object)}
+     * @return 消息
+     */
+    static Message of(String topic, Object value) {
+        if (value instanceof Buffer) return new Message(topic, true, ((Buffer) value).getBytes());
+        Message message;
+        if (value instanceof String) {
+            message = new Message(topic, false, ((String) value).getBytes(StandardCharsets.UTF_8));
+            message.text = (String) value;
+        } else {
+            message = new Message(topic, false, PojoCodecs.encode(value).getBytes());
+        }
+        return message;
+    }
+
+    /**
+     * @return 所有连接共享的字符串
+     */
+    String text() {
+        String s = text;
+        if (s == null) {
+            //并发时可能解码多次， 结果是一样的
+            s = new String(bytes, StandardCharsets.UTF_8);
+            text = s;
+        }
+        return s;
+    }
+
+    /**
+     * @return 和其他连接共享内容的ByteBuf， 读写下标独立
+     */
+    ByteBuf payload() {
+        return payload.duplicate();
+    }
+
+    /**
+     * @return event: topic\ndata: ...\n\n。 多行的消息每行一个data
+     */
+    ByteBuf sse() {
+        ByteBuf b = sse;
+        if (b != null) return b.duplicate();
+        //并发时可能编码多次， 结果是一样的
+        Buffer buffer = Buffer.buffer(bytes.length + 32);
+        if (topic != null) {
+            buffer.appendBytes(Event).appendString(topic).appendByte((byte) '\n');
+        }
+        int start = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == '\n') {
+                int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+                buffer.appendBytes(Data).appendBytes(bytes, start, end - start).appendByte((byte) '\n');
+                start = i + 1;
+            }
+        }
+        buffer.appendByte((byte) '\n');
+        b = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(buffer.getBytes()));
+        sse = b;
+        return b.duplicate();
+    }
+}
@@ -0,0 +1,186 @@
+package me.wang007.socket;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import me.wang007.annotation.Socket.SlowConsumer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * WebSocket或者SSE连接。
+ *
+ * 只能在连接所在的eventLoop上调用， 一般在{@link SocketEndpoint}的回调中使用。
+ * 发送给连接的消息先放到批次中， 同一轮广播中的消息一次写出； 写队列满时按照{@link SlowConsumer}处理。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public abstract class SocketConnection {
+
+    final Broadcaster.Loop loop;
+
+    private final SlowConsumer slowConsumer;
+
+    private final Set<String> topics = new HashSet<>(4);
+
+    /**
+     * 本轮待写出的消息
+     */
+    private final List<Message> batch = new ArrayList<>(4);
+
+    /**
+     * 写队列满之后等待drain的消息， 按照写入顺序。
+     * 广播的消息以topic为key， 每个topic只保留最新的一条； 直接发送的消息以消息本身为key， 全部保留
+     */
+    private Map<Object, Message> coalesced;
+
+    /**
+     * 是否已经在loop的待写出列表中
+     */
+    boolean dirty;
+
+    private boolean closed;
+
+    /**
+     * DROP时已经开始关闭， 之后的消息丢弃
+     */
+    private boolean dropping;
+
+    SocketConnection(Broadcaster.Loop loop, SlowConsumer slowConsumer) {
+        this.loop = loop;
+        this.slowConsumer = slowConsumer;
+    }
+
+    /**
+     * @return 请求路径
+     */
+    public abstract String path();
+
+    /**
+     * @return 请求的query， 可能为null
+     */
+    public abstract String query();
+
+    /**
+     * @return 请求头
+     */
+    public abstract MultiMap headers();
+
+    /**
+     * 关闭连接
+     */
+    public abstract void close();
+
+    /**
+     * 写队列满时按照{@link SlowConsumer#DROP}关闭连接， WebSocket会带上关闭原因
+     */
+    void closeSlow() {
+        close();
+    }
+
+    /**
+     * 写出一批消息
+     */
+    abstract void write(List<Message> messages);
+
+    abstract boolean writeQueueFull();
+
+    abstract void drainHandler(Handler<Void> handler);
+
+    public void subscribe(String topic) {
+        if (!closed && topics.add(topic)) loop.subscribe(topic, this);
+    }
+
+    public void unsubscribe(String topic) {
+        if (topics.remove(topic)) loop.unsubscribe(topic, this);
+    }
+
+    public Set<String> topics() {
+        return Collections.unmodifiableSet(topics);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 只发送给该连接
+     *
+     * @param message Buffer、String， 其他的按照json编码
+     */
+    public void send(Object message) {
+        enqueue(Message.of(null, message));
+        if (!loop.draining) flush();
+    }
+
+    void enqueue(Message message) {
+        if (closed || dropping) return;
+        if (coalesced != null) {
+            coalesce(message);
+            return;
+        }
+        batch.add(message);
+        if (!dirty && loop.draining) {
+            dirty = true;
+            loop.dirty.add(this);
+        }
+    }
+
+    void flush() {
+        dirty = false;
+        if (closed || batch.isEmpty()) {
+            batch.clear();
+            return;
+        }
+        if (!writeQueueFull()) {
+            write(batch);
+            batch.clear();
+            return;
+        }
+        loop.broadcaster.slow(slowConsumer);
+        if (slowConsumer == SlowConsumer.DROP) {
+            dropping = true;
+            batch.clear();
+            closeSlow();
+            return;
+        }
+        coalesced = new LinkedHashMap<>();
+        for (Message m : batch) coalesce(m);
+        batch.clear();
+        drainHandler(v -> {
+            drainHandler(null);
+            Map<Object, Message> pending = coalesced;
+            coalesced = null;
+            if (pending == null || closed) return;
+            batch.addAll(pending.values());
+            flush();
+        });
+    }
+
+    private void coalesce(Message message) {
+        if (message.topic == null) {
+            coalesced.put(message, message);
+            return;
+        }
+        //移到最后， 保持和直接发送的消息之间的顺序
+        coalesced.remove(message.topic);
+        coalesced.put(message.topic, message);
+    }
+
+    /**
+     * 连接关闭之后调用， 取消所有订阅
+     */
+    void closed() {
+        if (closed) return;
+        closed = true;
+        for (String topic : topics) loop.unsubscribe(topic, this);
+        topics.clear();
+        batch.clear();
+        coalesced = null;
+    }
+}
@@ -0,0 +1,51 @@
+package me.wang007.socket;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import me.wang007.annotation.Socket;
+import me.wang007.verticle.HttpServerVerticle;
+
+/**
+ * WebSocket、SSE端点， 使用{@link Socket}标识， 启动时扫描。
+ *
+ * 和{@link me.wang007.router.LoadRouter}一样， 每个httpServer实例各自一个实例。
+ * 所有回调都在连接所在的eventLoop上执行。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public interface SocketEndpoint {
+
+    /**
+     * 端点创建好之后调用
+     *
+     * @param vertx  vertx实例
+     * @param server httpServer实例
+     */
+    default <T extends HttpServerVerticle> void init(Vertx vertx, T server) {
+    }
+
+    /**
+     * 连接建立， 一般在这里根据请求参数订阅topic
+     *
+     * @param connection 连接
+     */
+    default void onOpen(SocketConnection connection) {
+    }
+
+    /**
+     * 收到客户端的消息， SSE没有客户端消息
+     *
+     * @param connection 连接
+     * @param message    消息
+     */
+    default void onMessage(SocketConnection connection, Buffer message) {
+    }
+
+    /**
+     * 连接关闭， 订阅已经被取消
+     *
+     * @param connection 连接
+     */
+    default void onClose(SocketConnection connection) {
+    }
+}
@@ -0,0 +1,70 @@
+package me.wang007.socket;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.annotation.Socket.SlowConsumer;
+
+import java.util.List;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+class SseConnection extends SocketConnection {
+
+    private final RoutingContext ctx;
+
+    private final HttpServerResponse response;
+
+    SseConnection(Broadcaster.Loop loop, SlowConsumer slowConsumer, RoutingContext ctx) {
+        super(loop, slowConsumer);
+        this.ctx = ctx;
+        this.response = ctx.response();
+    }
+
+    @Override
+    public String path() {
+        return ctx.request().path();
+    }
+
+    @Override
+    public String query() {
+        return ctx.request().query();
+    }
+
+    @Override
+    public MultiMap headers() {
+        return ctx.request().headers();
+    }
+
+    @Override
+    public void close() {
+        if (!response.closed()) response.close();
+    }
+
+    @Override
+    void write(List<Message> messages) {
+        if (messages.size() == 1) {
+            response.write(Buffer.buffer(messages.get(0).sse()));
+            return;
+        }
+        //一批消息合并成一个composite buffer， 一次写出
+        ByteBuf[] bufs = new ByteBuf[messages.size()];
+        for (int i = 0; i < bufs.length; i++) bufs[i] = messages.get(i).sse();
+        response.write(Buffer.buffer(Unpooled.wrappedBuffer(bufs)));
+    }
+
+    @Override
+    boolean writeQueueFull() {
+        return response.writeQueueFull();
+    }
+
+    @Override
+    void drainHandler(Handler<Void> handler) {
+        response.drainHandler(handler);
+    }
+}
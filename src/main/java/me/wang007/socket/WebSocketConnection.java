@@ -0,0 +1,69 @@
+package me.wang007.socket;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.ServerWebSocket;
+import me.wang007.annotation.Socket.SlowConsumer;
+
+import java.util.List;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+class WebSocketConnection extends SocketConnection {
+
+    private static final short Policy_Violation = 1008;
+
+    private final ServerWebSocket ws;
+
+    WebSocketConnection(Broadcaster.Loop loop, SlowConsumer slowConsumer, ServerWebSocket ws) {
+        super(loop, slowConsumer);
+        this.ws = ws;
+    }
+
+    @Override
+    public String path() {
+        return ws.path();
+    }
+
+    @Override
+    public String query() {
+        return ws.query();
+    }
+
+    @Override
+    public MultiMap headers() {
+        return ws.headers();
+    }
+
+    @Override
+    public void close() {
+        if (!ws.isClosed()) ws.close();
+    }
+
+    @Override
+    void closeSlow() {
+        if (!ws.isClosed()) ws.close(Policy_Violation, "slow consumer");
+    }
+
+    @Override
+    void write(List<Message> messages) {
+        for (int i = 0; i < messages.size(); i++) {
+            //超过maxWebSocketFrameSize的消息由vertx分片
+            Message message = messages.get(i);
+            if (message.binary) ws.writeBinaryMessage(Buffer.buffer(message.payload()));
+            else ws.writeTextMessage(message.text());
+        }
+    }
+
+    @Override
+    boolean writeQueueFull() {
+        return ws.writeQueueFull();
+    }
+
+    @Override
+    void drainHandler(Handler<Void> handler) {
+        ws.drainHandler(handler);
+    }
+}
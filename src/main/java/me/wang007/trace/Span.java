@@ -0,0 +1,103 @@
+package me.wang007.trace;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * 一次已经结束的span， 不可变
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class Span {
+
+    private final long traceId;
+
+    private final long spanId;
+
+    private final long parentId;
+
+    /**
+     * http, route, eventBus, blocking 或者自定义的类型
+     */
+    private final String kind;
+
+    private final String name;
+
+    /**
+     * 开始时间， 单位：ms
+     */
+    private final long start;
+
+    /**
+     * 耗时， 单位：ns
+     */
+    private final long duration;
+
+    /**
+     * 开始执行之前的排队时间， 单位：ns。 目前只有blocking有
+     */
+    private final long wait;
+
+    private final boolean failed;
+
+    Span(TraceContext context, String kind, String name, long start, long duration, long wait, boolean failed) {
+        this.traceId = context.getTraceId();
+        this.spanId = context.getSpanId();
+        this.parentId = context.getParentId();
+        this.kind = kind;
+        this.name = name;
+        this.start = start;
+        this.duration = duration;
+        this.wait = wait;
+        this.failed = failed;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    public long getParentId() {
+        return parentId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public long getWait() {
+        return wait;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject()
+                .put("traceId", TraceContext.hex(traceId))
+                .put("spanId", TraceContext.hex(spanId))
+                .put("kind", kind)
+                .put("name", name)
+                .put("start", start)
+                .put("durationMicros", duration / 1000);
+        if (parentId != 0) json.put("parentId", TraceContext.hex(parentId));
+        if (wait > 0) json.put("waitMicros", wait / 1000);
+        if (failed) json.put("failed", true);
+        return json;
+    }
+}
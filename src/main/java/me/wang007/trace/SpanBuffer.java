@@ -0,0 +1,64 @@
+package me.wang007.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定大小的环形缓冲区， 写满之后覆盖最旧的span。
+ *
+ * 写入只有一次getAndIncrement和一次数组写， 不加锁。 读取时并发写入的span可能读不到， 导出用不需要精确。
+ *
+ * created by wang007 on 2026/10/19
+ */
+final class SpanBuffer {
+
+    private final AtomicReferenceArray<Span> spans;
+
+    private final int mask;
+
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param capacity 容量， 向上取整到2的幂
+     */
+    SpanBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.spans = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void add(Span span) {
+        spans.lazySet((int) (next.getAndIncrement() & mask), span);
+    }
+
+    /**
+     * @return 最近的span， 从旧到新
+     */
+    List<Span> snapshot() {
+        long end = next.get();
+        long begin = Math.max(0, end - spans.length());
+        List<Span> list = new ArrayList<>((int) (end - begin));
+        for (long i = begin; i < end; i++) {
+            Span span = spans.get((int) (i & mask));
+            if (span != null) list.add(span);
+        }
+        return list;
+    }
+
+    int capacity() {
+        return spans.length();
+    }
+
+    /**
+     * @return 一共写入过的span数， 包括被覆盖的
+     */
+    long total() {
+        return next.get();
+    }
+
+    void clear() {
+        for (int i = 0; i < spans.length(); i++) spans.set(i, null);
+    }
+}
@@ -0,0 +1,197 @@
+package me.wang007.trace;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 一个请求的跟踪上下文， 不可变。 traceId在整个请求中不变， 每经过一次异步跳转(route handler, eventBus, executeBlocking)产生一个子span。
+ *
+ * 当前线程正在执行的handler所属的上下文通过{@link #current()}获取， 只在handler同步执行期间有效。
+ * handler中的异步回调需要通过{@link #wrap(Handler)}包装之后才能拿到上下文， 或者通过{@link #of(RoutingContext)}从RoutingContext中获取。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class TraceContext {
+
+    /**
+     * RoutingContext中保存上下文的key
+     */
+    public static final String Key = "_vertx-start.trace_";
+
+    public static final String Trace_Id_Header = "x-trace-id";
+
+    public static final String Span_Id_Header = "x-span-id";
+
+    public static final String Sampled_Header = "x-trace-sampled";
+
+    private static final FastThreadLocal<TraceContext> current = new FastThreadLocal<>();
+
+    private final long traceId;
+
+    private final long spanId;
+
+    private final long parentId;
+
+    private final boolean sampled;
+
+    private String traceIdHex;
+
+    private TraceContext(long traceId, long spanId, long parentId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * @param sampled 是否采样
+     * @return 新的跟踪上下文
+     */
+    public static TraceContext root(boolean sampled) {
+        long id = nextId();
+        return new TraceContext(id, id, 0, sampled);
+    }
+
+    /**
+     * @return 同一个trace下的子span， 未采样时返回自身， 不产生新对象
+     */
+    public TraceContext child() {
+        if (!sampled) return this;
+        return new TraceContext(traceId, nextId(), spanId, true);
+    }
+
+    /**
+     * 从http header或者eventBus header中读取上游的上下文
+     *
+     * @param headers headers
+     * @return 上游的上下文， 不存在或者格式错误时返回null
+     */
+    public static TraceContext fromHeaders(MultiMap headers) {
+        String traceId = headers.get(Trace_Id_Header);
+        if (traceId == null) return null;
+        String spanId = headers.get(Span_Id_Header);
+        try {
+            long trace = Long.parseUnsignedLong(traceId, 16);
+            long span = spanId != null ? Long.parseUnsignedLong(spanId, 16) : trace;
+            return new TraceContext(trace, span, 0, "1".equals(headers.get(Sampled_Header)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写入下游的headers
+     *
+     * @param headers http header或者eventBus header
+     */
+    public void inject(MultiMap headers) {
+        headers.set(Trace_Id_Header, traceIdHex());
+        headers.set(Span_Id_Header, hex(spanId));
+        headers.set(Sampled_Header, sampled ? "1" : "0");
+    }
+
+    /**
+     * @return 当前线程正在执行的handler所属的上下文， 不存在时返回null
+     */
+    public static TraceContext current() {
+        return current.getIfExists();
+    }
+
+    /**
+     * @param ctx routingContext
+     * @return 请求的根上下文， 未开启跟踪时返回null
+     */
+    public static TraceContext of(RoutingContext ctx) {
+        return ctx.get(Key);
+    }
+
+    /**
+     * 设置当前线程的上下文， 必须和{@link #detach(TraceContext)}成对调用
+     *
+     * @param context 上下文
+     * @return 之前的上下文
+     */
+    public static TraceContext attach(TraceContext context) {
+        TraceContext prev = current.getIfExists();
+        current.set(context);
+        return prev;
+    }
+
+    /**
+     * @param prev {@link #attach(TraceContext)}的返回值
+     */
+    public static void detach(TraceContext prev) {
+        if (prev == null) current.remove();
+        else current.set(prev);
+    }
+
+    /**
+     * 包装异步回调， 回调执行时恢复当前的上下文
+     *
+     * @param handler 回调
+     * @param <T>     类型
+     * @return 包装之后的回调， 当前没有上下文时返回原始的回调
+     */
+    public static <T> Handler<T> wrap(Handler<T> handler) {
+        TraceContext context = current();
+        if (context == null) return handler;
+        return event -> {
+            TraceContext prev = attach(context);
+            try {
+                handler.handle(event);
+            } finally {
+                detach(prev);
+            }
+        };
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    public long getParentId() {
+        return parentId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return 16位16进制的traceId， 可以当做请求id打印到日志中
+     */
+    public String traceIdHex() {
+        String s = traceIdHex;
+        if (s == null) traceIdHex = s = hex(traceId);
+        return s;
+    }
+
+    @Override
+    public String toString() {
+        return traceIdHex() + '/' + hex(spanId);
+    }
+
+    static String hex(long id) {
+        String s = Long.toHexString(id);
+        if (s.length() == 16) return s;
+        StringBuilder sb = new StringBuilder(16);
+        for (int i = s.length(); i < 16; i++) sb.append('0');
+        return sb.append(s).toString();
+    }
+
+    private static long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+}
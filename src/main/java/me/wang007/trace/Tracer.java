@@ -0,0 +1,253 @@
+package me.wang007.trace;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.router.HandlerDecorator;
+import me.wang007.warmup.WarmUpRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 轻量的请求跟踪。
+ *
+ * {@link me.wang007.verticle.HttpServerVerticle}的主路由器为每个请求创建{@link TraceContext}(或者沿用上游header中的)，
+ * 然后通过route handler、eventBus header、{@link #executeBlocking(String, Handler, boolean)}传递下去。
+ * 采样的请求在每一跳结束时记录一个{@link Span}到环形缓冲区， 通过{@link #export()}导出。
+ *
+ * 未采样的请求只传递traceId(可以当做请求id)， 不分配span。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class Tracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    public static final int Default_Buffer_Size = 4096;
+
+    /**
+     * 采样率， 0 ~ 1。 {@code <} 0 表示不开启
+     */
+    private final double sampleRate;
+
+    private final SpanBuffer buffer;
+
+    /**
+     * @param sampleRate 采样率， 0 ~ 1。 {@code <} 0 表示不开启， 0 表示只传递traceId不记录span
+     * @param bufferSize 环形缓冲区的大小
+     */
+    public Tracer(double sampleRate, int bufferSize) {
+        this.sampleRate = sampleRate;
+        this.buffer = sampleRate > 0 ? new SpanBuffer(bufferSize) : null;
+    }
+
+    /**
+     * @return 是否开启了跟踪
+     */
+    public boolean enabled() {
+        return sampleRate >= 0;
+    }
+
+    /**
+     * 在eventBus上注册拦截器： 发送时把当前上下文写入header， 接收时从header恢复上下文并记录span
+     *
+     * @param eventBus eventBus
+     */
+    public void install(EventBus eventBus) {
+        if (!enabled()) return;
+        eventBus.addOutboundInterceptor(ctx -> {
+            TraceContext context = TraceContext.current();
+            if (context != null) context.inject(ctx.message().headers());
+            ctx.next();
+        });
+        eventBus.addInboundInterceptor(ctx -> {
+            TraceContext parent = TraceContext.fromHeaders(ctx.message().headers());
+            if (parent == null) {
+                ctx.next();
+                return;
+            }
+            TraceContext span = parent.child();
+            long start = System.currentTimeMillis();
+            long begin = System.nanoTime();
+            boolean failed = true;
+            TraceContext prev = TraceContext.attach(span);
+            try {
+                ctx.next();
+                failed = false;
+            } finally {
+                TraceContext.detach(prev);
+                record(span, "eventBus", ctx.message().address(), start, System.nanoTime() - begin, 0, failed);
+            }
+        });
+        logger.info("tracing started, sample rate: {}", sampleRate);
+    }
+
+    /**
+     * @return 放在主路由器最前面的handler， 创建请求的上下文， 请求结束时记录http span
+     */
+    public Handler<RoutingContext> routerHandler() {
+        return ctx -> {
+            //预热的模拟请求不跟踪， 没有上下文时route span也不会记录
+            if (WarmUpRunner.isWarmUp(ctx.request())) {
+                ctx.next();
+                return;
+            }
+            TraceContext parent = TraceContext.fromHeaders(ctx.request().headers());
+            TraceContext context = parent != null ? parent.child() : TraceContext.root(sample());
+            ctx.put(TraceContext.Key, context);
+            ctx.response().putHeader(TraceContext.Trace_Id_Header, context.traceIdHex());
+            if (context.isSampled()) {
+                long start = System.currentTimeMillis();
+                long begin = System.nanoTime();
+                String name = ctx.request().method().name() + ' ' + ctx.request().path();
+                ctx.addEndHandler(ar -> record(context, "http", name, start, System.nanoTime() - begin, 0,
+                        ar.failed() || ctx.response().getStatusCode() >= 500));
+            }
+            TraceContext prev = TraceContext.attach(context);
+            try {
+                ctx.next();
+            } finally {
+                TraceContext.detach(prev);
+            }
+        };
+    }
+
+    /**
+     * 用于{@link me.wang007.router.LoadRouter}的handler装饰器， handler执行期间设置当前上下文， 并记录route span(只统计同步执行的时间)
+     *
+     * @return 装饰器
+     */
+    public HandlerDecorator handlerDecorator() {
+        return (loadRouter, path, handler) -> {
+            String name = loadRouter.getClass().getSimpleName() + ' ' + path;
+            return ctx -> {
+                TraceContext parent = TraceContext.of(ctx);
+                if (parent == null) {
+                    handler.handle(ctx);
+                    return;
+                }
+                TraceContext span = parent.child();
+                long start = System.currentTimeMillis();
+                long begin = System.nanoTime();
+                boolean failed = true;
+                TraceContext prev = TraceContext.attach(span);
+                try {
+                    handler.handle(ctx);
+                    failed = false;
+                } finally {
+                    TraceContext.detach(prev);
+                    record(span, "route", name, start, System.nanoTime() - begin, 0, failed);
+                }
+            };
+        };
+    }
+
+    /**
+     * 在当前context上执行阻塞代码， 传递当前上下文， 并记录blocking span(包括在线程池中的排队时间)
+     *
+     * @param name    span名
+     * @param handler 阻塞代码
+     * @param ordered 是否按顺序执行
+     * @param <T>     结果类型
+     * @return 结果
+     */
+    public <T> Future<T> executeBlocking(String name, Handler<Promise<T>> handler, boolean ordered) {
+        Context vertxContext = Vertx.currentContext();
+        if (vertxContext == null) throw new IllegalStateException("executeBlocking must be called on vertx context");
+        TraceContext parent = TraceContext.current();
+        if (parent == null) return vertxContext.executeBlocking(handler, ordered);
+
+        TraceContext span = parent.child();
+        long start = System.currentTimeMillis();
+        long submit = System.nanoTime();
+        return vertxContext.executeBlocking(promise -> {
+            long begin = System.nanoTime();
+            boolean failed = true;
+            TraceContext prev = TraceContext.attach(span);
+            try {
+                handler.handle(promise);
+                failed = false;
+            } finally {
+                TraceContext.detach(prev);
+                long end = System.nanoTime();
+                record(span, "blocking", name, start, end - submit, begin - submit, failed);
+            }
+        }, ordered);
+    }
+
+    /**
+     * 记录一个span， 未采样时忽略。 可以用于自定义的span
+     *
+     * @param context  span的上下文， 通过{@link TraceContext#child()}创建
+     * @param kind     类型
+     * @param name     名称
+     * @param start    开始时间， 单位：ms
+     * @param duration 耗时， 单位：ns
+     * @param wait     排队时间， 单位：ns
+     * @param failed   是否失败
+     */
+    public void record(TraceContext context, String kind, String name, long start, long duration, long wait, boolean failed) {
+        if (buffer == null || !context.isSampled()) return;
+        buffer.add(new Span(context, kind, name, start, duration, wait, failed));
+    }
+
+    /**
+     * @return 缓冲区中的span， 从旧到新
+     */
+    public List<Span> spans() {
+        return buffer == null ? Collections.emptyList() : buffer.snapshot();
+    }
+
+    /**
+     * @return json格式的{@link #spans()}
+     */
+    public JsonObject export() {
+        return export(null);
+    }
+
+    /**
+     * @param traceId 16进制的traceId， null：所有
+     * @return json格式的span
+     */
+    public JsonObject export(String traceId) {
+        JsonArray arr = new JsonArray();
+        for (Span span : spans()) {
+            if (traceId == null || traceId.equals(TraceContext.hex(span.getTraceId()))) arr.add(span.toJson());
+        }
+        return new JsonObject()
+                .put("sampleRate", sampleRate)
+                .put("capacity", buffer == null ? 0 : buffer.capacity())
+                .put("total", buffer == null ? 0 : buffer.total())
+                .put("spans", arr);
+    }
+
+    /**
+     * @return 导出span的handler， 支持参数traceId
+     */
+    public Handler<RoutingContext> exportHandler() {
+        return ctx -> ctx.response()
+                .putHeader("Content-Type", "application/json")
+                .end(export(ctx.request().getParam("traceId")).toBuffer());
+    }
+
+    /**
+     * 清空缓冲区
+     */
+    public void reset() {
+        if (buffer != null) buffer.clear();
+    }
+
+    private boolean sample() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
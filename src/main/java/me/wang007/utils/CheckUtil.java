@@ -2,6 +2,8 @@ package me.wang007.utils;
 
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import me.wang007.json.ImmutableJsonArray;
+import me.wang007.json.ImmutableJsonObject;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -18,6 +20,7 @@ public class CheckUtil {
 
 
     // copy from vert.x
+    // 不可变的json直接返回， 不复制
     @SuppressWarnings("unchecked")
    public static Object checkAndCopy(Object val, boolean copy) {
         if (val == null) {
@@ -32,6 +35,8 @@ public class CheckUtil {
             // OK
         } else if (val instanceof CharSequence) {
             val = val.toString();
+        } else if (val instanceof ImmutableJsonObject || val instanceof ImmutableJsonArray) {
+            // OK
         } else if (val instanceof JsonObject) {
             if (copy) {
                 val = ((JsonObject) val).copy();
@@ -2,6 +2,8 @@ package me.wang007.utils;
 
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import me.wang007.json.ImmutableJsonArray;
+import me.wang007.json.ImmutableJsonObject;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
@@ -44,6 +46,12 @@ public class CollectionUtils {
         return !isEmpty(collect);
     }
 
+    /**
+     * 只替换了最外层的list， 嵌套的json仍然可以修改， 并且{@link JsonArray#copy()}时仍然会深度复制
+     *
+     * @deprecated 使用{@link #deepImmutable(JsonArray)}
+     */
+    @Deprecated
     public static JsonArray wrapToImmutable(JsonArray array) {
         List list = array.getList();
         list = Collections.unmodifiableList(list);
@@ -55,6 +63,12 @@ public class CollectionUtils {
         return array;
     }
 
+    /**
+     * 只替换了最外层的map， 嵌套的json仍然可以修改， 并且{@link JsonObject#copy()}时仍然会深度复制
+     *
+     * @deprecated 使用{@link #deepImmutable(JsonObject)}
+     */
+    @Deprecated
     public static JsonObject wrapToImmutable(JsonObject json) {
         Map<String, Object> map = json.getMap();
         map = Collections.unmodifiableMap(map);
@@ -66,6 +80,23 @@ public class CollectionUtils {
         return json;
     }
 
+    /**
+     * 递归冻结json， 之后复制、eventBus发送都不会发生复制
+     *
+     * @param json json
+     * @return 深度不可变的json， 不会修改原来的json
+     */
+    public static ImmutableJsonObject deepImmutable(JsonObject json) {
+        return ImmutableJsonObject.of(json);
+    }
 
-
+    /**
+     * 递归冻结jsonArray， 之后复制、eventBus发送都不会发生复制
+     *
+     * @param array jsonArray
+     * @return 深度不可变的jsonArray， 不会修改原来的jsonArray
+     */
+    public static ImmutableJsonArray deepImmutable(JsonArray array) {
+        return ImmutableJsonArray.of(array);
+    }
 }
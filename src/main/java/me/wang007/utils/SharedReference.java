@@ -6,8 +6,11 @@ import io.vertx.core.shareddata.SharedData;
 /**
  * 用于{@link SharedData}中，对于{@link #ref}，使用者确保线程安全。
  *
+ * @deprecated 使用类型化的{@link me.wang007.shared.SharedRegistry}代替， 读取不需要经过LocalMap的锁
+ *
  * created by wang007 on 2019/2/27
  */
+@Deprecated
 public class SharedReference<V> implements Shareable {
 
     public final V ref;
@@ -0,0 +1,25 @@
+package me.wang007.utils;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.MultithreadEventExecutorGroup;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.VertxInternal;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class VertxUtils {
+
+    /**
+     * @param vertx vertx
+     * @return eventLoop线程数
+     */
+    public static int eventLoopCount(Vertx vertx) {
+        EventLoopGroup group = ((VertxInternal) vertx).getEventLoopGroup();
+        if (group instanceof MultithreadEventExecutorGroup) {
+            return ((MultithreadEventExecutorGroup) group).executorCount();
+        }
+        return VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    }
+}
@@ -1,26 +1,59 @@
 package me.wang007.verticle;
 
 import io.vertx.core.*;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
-import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import me.wang007.client.ClientFactory;
+import me.wang007.constant.VertxBootConst;
 import me.wang007.container.Component;
 import me.wang007.container.DefaultContainer;
-import me.wang007.utils.SharedReference;
+import me.wang007.annotation.Deploy;
 import me.wang007.annotation.Route;
+import me.wang007.annotation.Socket;
+import me.wang007.boot.VertxBoot;
+import me.wang007.monitor.BlockingDetector;
+import me.wang007.pool.RequestPools;
+import me.wang007.router.HandlerDecorator;
 import me.wang007.router.LoadRouter;
 import me.wang007.router.RouteUtils;
+import me.wang007.router.RouterDecorators;
+import me.wang007.router.VirtualThreads;
+import me.wang007.shared.LocalRegistry;
+import me.wang007.socket.Broadcaster;
+import me.wang007.socket.SocketEndpoint;
+import me.wang007.trace.Tracer;
 import me.wang007.utils.StringUtils;
-
-
+import me.wang007.warmup.Readiness;
+import me.wang007.warmup.WarmUpOptions;
+import me.wang007.warmup.WarmUpRunner;
+import me.wang007.web.AccessLog;
+import me.wang007.web.AccessLogOptions;
+import me.wang007.web.ConstantResponse;
+import me.wang007.web.DateHeader;
+import me.wang007.web.StaticContent;
+import me.wang007.web.StaticContentOptions;
+
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static me.wang007.constant.VertxBootConst.Key_Vertx_Start;
 
 /**
  * httpServer. 启动httpServer.
@@ -53,23 +86,102 @@ public class HttpServerVerticle extends AbstractVerticle implements VerticleConf
 
     private static AtomicInteger instanceCount = new AtomicInteger(0);
 
+    /**
+     * 每个httpServer子类各自的实例数， 用于判断是否是该类的第一个实例
+     */
+    private static final Map<Class<?>, AtomicInteger> classInstanceCount = new ConcurrentHashMap<>();
+
     protected final String name;  //
-    private final boolean first;  // 是否 第一个httpServer实例
+    private final boolean first;  // 是否 该httpServer类的第一个实例
 
     {
         //初始化时， 先要new一个实例， 读取VerticleConfig中的信息， 所以除去第一次new， count是从 1开始的。
         int number = instanceCount.getAndIncrement();
         name = Http_Server_Name_Prefix + number;
-        first = number == 1;
+        first = classInstanceCount.computeIfAbsent(getClass(), k -> new AtomicInteger(0)).getAndIncrement() == 1;
     }
 
     protected HttpServer server;
 
+    /**
+     * 监听unix domain socket的httpServer， 没有配置或者不可用时为null， 见{@link AddressAndPort#domainSocket}
+     */
+    protected HttpServer domainServer;
+
+    /**
+     * 当前进程中正在使用的domain socket， key：路径
+     */
+    private static final Map<String, DomainSocket> domainSockets = new HashMap<>();
+
+    /**
+     * 当前实例引用的domain socket路径， stop时释放
+     */
+    private String domainSocket;
+
+    /**
+     * 未通过vertxBoot启动时为null
+     */
+    protected VertxBoot boot;
+
+    /**
+     * httpServer实例级别的注册表， 同一个实例中的LoadRouter共享
+     */
+    private final LocalRegistry localRegistry = new LocalRegistry();
+
+    /**
+     * 已经调用过init的LoadRouter， stop时回调{@link LoadRouter#stop()}
+     */
+    private final List<LoadRouter> loadRouters = new ArrayList<>();
+
+    /**
+     * 请求级别的对象池， 所有httpServer实例共享， 空闲列表按照eventLoop分片
+     */
+    private RequestPools pools;
+
+    /**
+     * 应用级别的就绪标记， 所有httpServer实例共享
+     */
+    private Readiness readiness;
+
+    /**
+     * 当前实例是否已经监听端口， stop时据此更新{@link #readiness}
+     */
+    private boolean listening;
+
+    /**
+     * 是否引用了{@link me.wang007.annotation.Client}声明的client， 启动失败或者stop时释放
+     */
+    private boolean clientsRetained;
+
+    /**
+     * 不经过router的常量响应， method {@code ->} path {@code ->} response。 监听端口之后只读
+     */
+    private final Map<HttpMethod, Map<String, ConstantResponse>> constants = new HashMap<>();
+
+    /**
+     * WebSocket端点， path {@code ->} handler
+     */
+    private final Map<String, Handler<ServerWebSocket>> webSockets = new HashMap<>();
+
+    /**
+     * 广播， 所有httpServer实例共享
+     */
+    private Broadcaster broadcaster;
+
+    /**
+     * 访问日志， 未开启时为null
+     */
+    private AccessLog accessLog;
+
     @Override
     public final void init(Vertx vertx, Context context) {
         super.init(vertx, context);
+        boot = VertxBoot.get(vertx);
+        pools = boot != null ? boot.registry().computeIfAbsent(RequestPools.Key, RequestPools::new) : new RequestPools();
+        readiness = boot != null ? boot.registry().computeIfAbsent(Readiness.Key, Readiness::new) : new Readiness();
+        broadcaster = boot != null ? boot.registry().computeIfAbsent(Broadcaster.Key, Broadcaster::new) : new Broadcaster();
         logger.debug("prepare to deploy {}", name);
-        if (first) logger.info("prepare to start httpServer. in {}", name);
+        if (first) logger.info("prepare to start httpServer{}. in {}", serverLabel(), name);
     }
 
 
@@ -77,12 +189,165 @@ public class HttpServerVerticle extends AbstractVerticle implements VerticleConf
      * 异步的方式执行init方法。
      * 子类在该方法初始化好一些client之后，{@link LoadRouter#init(Router, Vertx, HttpServerVerticle)}方法中获取
      *
+     * 注意：这里创建的client每个httpServer实例各自一份， 需要连接池的client(数据库等)建议使用{@link me.wang007.annotation.Client}声明，
+     * 然后通过{@link #client(Class)}获取
+     *
      * @param initFuture 在init方法中，执行{@link Future}完成的相关方法
      */
     protected void init(Promise<Object> initFuture) {
         initFuture.complete();
     }
 
+    /**
+     * @return httpServer实例级别的注册表， 只能在该verticle的context中访问
+     */
+    public LocalRegistry localRegistry() {
+        return localRegistry;
+    }
+
+    /**
+     * @param factoryClass client工厂
+     * @param <C>          client类型
+     * @return 被{@link me.wang007.annotation.Client}声明的client
+     */
+    public <C> C client(Class<? extends ClientFactory<C>> factoryClass) {
+        return boot == null ? null : boot.clients().get(factoryClass);
+    }
+
+    /**
+     * @return 请求级别的对象池， 通过RoutingContext租借的对象在请求结束时自动归还
+     */
+    public RequestPools pools() {
+        return pools;
+    }
+
+    /**
+     * @return 应用级别的就绪标记， 所有httpServer实例都预热完成并监听端口之后就绪
+     */
+    public Readiness readiness() {
+        return readiness;
+    }
+
+    /**
+     * 未通过vertxBoot启动时每个httpServer实例各自一个
+     *
+     * @return 给{@link Socket}端点的连接广播消息
+     */
+    public Broadcaster broadcaster() {
+        return broadcaster;
+    }
+
+    /**
+     * 注册常量响应， 请求的method、path完全匹配时直接写出， 不经过router。
+     * 因此{@link #beforeAccept(RoutingContext)}、请求跟踪等都不会执行， 适合探活、CORS预检等高频且固定的请求。
+     *
+     * 只能在监听端口之前调用， 例如{@link LoadRouter#init(Router, Vertx, HttpServerVerticle)}中。
+     *
+     * @param method   method
+     * @param path     完整的请求路径， 不受{@link Route#mountPath()}影响。 "*" 匹配该method的所有路径
+     * @param response 常量响应
+     */
+    public void constant(HttpMethod method, String path, ConstantResponse response) {
+        Objects.requireNonNull(method, "method require not null");
+        Objects.requireNonNull(response, "response require not null");
+        String p = "*".equals(path) ? path : RouteUtils.checkPath(path);
+        if (server != null || domainServer != null) throw new IllegalStateException("http server already listened, can not register constant response");
+        constants.computeIfAbsent(method, k -> new HashMap<>()).put(p, response);
+    }
+
+    /**
+     * 监听端口之前的预热参数， 在进程内把模拟请求交给主路由器处理， 直到JIT稳定或者超过时间预算
+     *
+     * @return 预热参数， null：不预热
+     */
+    protected WarmUpOptions warmUp() {
+        return null;
+    }
+
+    /**
+     * 给负载均衡使用的就绪检查路径， 就绪时返回200， 否则返回503。
+     * 通过vertxBoot启动时， 所有verticle部署完成并且所有httpServer实例预热完成才算就绪， 见{@link me.wang007.boot.BootHealth}
+     *
+     * @return 路径， 默认是属性{@link VertxBootConst#Ready_Path_Key}。 null：不注册
+     */
+    protected String readyPath() {
+        return boot != null ? boot.getProperty(VertxBootConst.Ready_Path_Key) : null;
+    }
+
+    /**
+     * 健康检查路径， 没有部署失败的verticle时返回200， 否则返回503
+     *
+     * @return 路径， 默认是属性{@link VertxBootConst#Health_Path_Key}。 null：不注册
+     */
+    protected String healthPath() {
+        return boot != null ? boot.getProperty(VertxBootConst.Health_Path_Key) : null;
+    }
+
+    /**
+     * 导出请求跟踪span的路径， 支持参数traceId， 见{@link Tracer#export(String)}
+     *
+     * @return 路径， 默认是属性{@link VertxBootConst#Trace_Path_Key}。 null：不注册
+     */
+    protected String tracePath() {
+        return boot != null ? boot.getProperty(VertxBootConst.Trace_Path_Key) : null;
+    }
+
+    /**
+     * httpServer名， 只挂载{@link Route#server()}相同的{@link LoadRouter}、{@link Socket#server()}相同的端点。
+     *
+     * 例如：管理端口、内部接口使用单独的httpServer子类， 覆盖该方法返回"admin"， 通过{@link Deploy#instances()}
+     * 限制实例数， 从而只占用有限的eventLoop， 不会把所有的LoadRouter都挂载到管理端口上。
+     *
+     * 注意：eventLoop是vertx按照部署顺序轮流分配的， 实例数只能限制占用的eventLoop数，
+     * 和其他httpServer完全隔离需要两者的实例数之和不超过eventLoop数。
+     *
+     * @return httpServer名， 默认为""
+     */
+    protected String serverName() {
+        return "";
+    }
+
+    /**
+     * 检查{@link Route#server()}、{@link Socket#server()}是否都有对应的httpServer， 没有对应httpServer的组件不会被挂载
+     *
+     * @param servers 部署的httpServer， 每个子类一个实例即可
+     * @return 没有对应httpServer的组件
+     */
+    public static List<Component> unmatchedComponents(Collection<? extends HttpServerVerticle> servers) {
+        Set<String> serverNames = new HashSet<>();
+        for (HttpServerVerticle server : servers) serverNames.add(server.serverName());
+        List<Component> unmatched = new ArrayList<>();
+        for (Component c : DefaultContainer.get().getComponentsByAnnotation(Route.class)) {
+            if (!serverNames.contains(c.getAnnotation(Route.class).server().trim())) unmatched.add(c);
+        }
+        for (Component c : DefaultContainer.get().getComponentsByAnnotation(Socket.class)) {
+            if (!serverNames.contains(c.getAnnotation(Socket.class).server().trim())) unmatched.add(c);
+        }
+        return unmatched;
+    }
+
+    /**
+     * 静态文件的参数， 小文件缓存在内存中， 大文件通过sendFile响应， 见{@link StaticContent}。
+     * 通过vertxBoot启动时所有httpServer实例共享一个{@link StaticContent}。 在所有LoadRouter之后注册， 只处理LoadRouter没有处理的请求
+     *
+     * @return 参数， 默认的httpServer从属性{@link VertxBootConst#Static_Path_Key}等读取。 null：不注册
+     */
+    protected StaticContentOptions staticContent() {
+        if (boot == null || !serverName().isEmpty()) return null;
+        return StaticContentOptions.fromProperties(boot::getProperty);
+    }
+
+    /**
+     * 访问日志的参数， 见{@link AccessLog}。 通过vertxBoot启动时所有httpServer实例共享一个{@link AccessLog}，
+     * 否则每个实例单独写入， stop时关闭
+     *
+     * @return 参数， 默认从属性{@link VertxBootConst#Access_Log_Path_Key}等读取。 null：不开启
+     */
+    protected AccessLogOptions accessLog() {
+        if (boot == null) return null;
+        return AccessLogOptions.fromProperties(boot::getProperty);
+    }
+
     /**
      * 启动httpServer的操作
      * <p>
@@ -107,45 +372,106 @@ public class HttpServerVerticle extends AbstractVerticle implements VerticleConf
         //NOOP
     }
 
+    /**
+     * 等待{@link #init(Promise)}完成之后装载所有的{@link LoadRouter}， 全部启动完成、预热完成并且监听端口之后， verticle才算部署完成。
+     * 任意一步失败都会导致部署失败。
+     */
     @Override
-    public final void start() {
+    public final void start(Promise<Void> startPromise) {
         long start = System.currentTimeMillis();
+        //先标记启动中， 避免其他实例先完成时提前就绪
+        readiness.starting();
 
         Promise<Object> initF = Promise.promise();
-        init(initF);
+        try {
+            init(initF);
+        } catch (Exception e) {
+            initF.tryFail(e);
+        }
+        onContext(initF.future())
+                .onFailure(err -> logger.error("init http server failed.", err))
+                .compose(v -> setUp(start))
+                .onComplete(ar -> {
+                    if (ar.succeeded()) {
+                        listening = true;
+                        readiness.started();
+                        startPromise.complete();
+                    } else {
+                        readiness.failed();
+                        //启动失败时vertx不会调用stop， 释放已经启动的部分
+                        stopRouters();
+                        if (boot == null && accessLog != null) accessLog.close();
+                        releaseClients().onComplete(v -> startPromise.fail(ar.cause()));
+                    }
+                });
+    }
+
+    /**
+     * 用户代码可能在其他线程中完成Future， 切换回当前verticle的context之后再继续
+     */
+    private <T> Future<T> onContext(Future<T> future) {
+        Promise<T> promise = Promise.promise();
+        future.onComplete(ar -> {
+            if (Vertx.currentContext() == context) promise.handle(ar);
+            else context.runOnContext(v -> promise.handle(ar));
+        });
+        return promise.future();
+    }
 
+    private Future<Void> setUp(long start) {
         Router mainRouter = Router.router(vertx);
+        Tracer tracer = boot != null && boot.tracer().enabled() ? boot.tracer() : null;
+        if (tracer != null) mainRouter.route().handler(tracer.routerHandler());   //最先执行， 创建请求的跟踪上下文
+        AccessLogOptions accessLogOptions = accessLog();
+        if (accessLogOptions != null) {
+            accessLog = boot != null ?
+                    boot.registry().computeIfAbsent(AccessLog.Key, () -> new AccessLog(accessLogOptions)) :
+                    new AccessLog(accessLogOptions);
+            accessLog.start();
+            mainRouter.route().handler(accessLog.routerHandler());
+        }
         Map<String, Router> sharedSubRouters = new HashMap<>(); //共享挂载子路由
         Map<String, List<Router>> notSharedSubRouters = new HashMap<>(); //不共享挂载子路由
 
+        String readyPath = readyPath();
+        if (StringUtils.isNotBlank(readyPath)) {
+            mainRouter.get(readyPath.trim()).handler(boot != null ? boot.health().readyHandler() :
+                    ctx -> ctx.response().setStatusCode(readiness.isReady() ? 200 : 503).end());
+        }
+        String healthPath = healthPath();
+        if (boot != null && StringUtils.isNotBlank(healthPath)) {
+            mainRouter.get(healthPath.trim()).handler(boot.health().healthHandler());
+        }
+        String tracePath = tracePath();
+        if (tracer != null && StringUtils.isNotBlank(tracePath)) {
+            mainRouter.get(tracePath.trim()).handler(tracer.exportHandler());
+        }
+
         try {
             before(mainRouter);
         } catch (Exception e) {
             logger.error("execute before failed.", e);
-            throw e;
+            return Future.failedFuture(e);
         }
-        LocalMap<String, SharedReference<?>> map = vertx.sharedData().getLocalMap(Key_Vertx_Start);
+        HandlerDecorator decorator = handlerDecorator(boot, accessLog);
 
         List<Component> components = DefaultContainer.get().getComponentsByAnnotation(Route.class);
 
+        String serverName = serverName();
         List<LoadRouterTuple> tuples = new ArrayList<>(components.size());
         for (Component c : components) {
+            if (!serverName.equals(c.getAnnotation(Route.class).server().trim())) continue;
             LoadRouter instance;
             try {
                 instance = (LoadRouter) c.getClazz().newInstance();
             } catch (Exception e) {
                 logger.error(c.getComponentName() + "newInstance failed", e);
-                throw new RuntimeException(e);
+                return Future.failedFuture(e);
             }
             tuples.add(new LoadRouterTuple(c, instance));
         }
 
-
-        tuples.stream().sorted((t1, t2) -> {
-            int order1 = t1.instance.order();
-            int order2 = t2.instance.order();
-            return Integer.compare(order1, order2);
-        }).forEach(tuple -> {
+        Function<LoadRouterTuple, Router> routerOf = tuple -> {
             Component component = tuple.component;
             LoadRouter loadRouter = tuple.instance;
             Route route = component.getAnnotation(Route.class);
@@ -161,39 +487,331 @@ public class HttpServerVerticle extends AbstractVerticle implements VerticleConf
 
             }
             Router router = subRouter != null ? subRouter : mainRouter;
-            loadRouter.init(router, vertx, this);
-            loadRouter.start();
-        });
+            //跟踪放在最里层， 在handler实际执行的线程上设置上下文
+            HandlerDecorator routeDecorator = tracer != null ? tracer.handlerDecorator() : null;
+            if (route.virtualThread()) {
+                routeDecorator = routeDecorator == null ? VirtualThreads.decorator() : routeDecorator.andThen(VirtualThreads.decorator());
+            }
+            if (decorator != null) routeDecorator = routeDecorator == null ? decorator : routeDecorator.andThen(decorator);
+            if (routeDecorator != null) router = RouterDecorators.decorate(router, mountPath, loadRouter, routeDecorator);
+            return router;
+        };
+
         AddressAndPort info = addressAndPort();
-        mainRouter.route().handler(event -> {
-            boolean success;
-            try {
-                success = beforeAccept(event);
-            } catch (Exception e) {
-                logger.error("beforeAccept handle failed.", e);
-                event.response().setStatusCode(500).setStatusMessage("server failed").end();
-                return;
+        return startRouters(tuples, routerOf).compose(v -> {
+            loadSockets(mainRouter);
+            //静态文件放在所有LoadRouter之后， 只处理没有匹配的请求， 不存在时继续交给下一个route
+            StaticContentOptions staticOptions = staticContent();
+            if (staticOptions != null) {
+                StaticContent content = boot != null ?
+                        boot.registry().computeIfAbsent(StaticContent.Key, () -> new StaticContent(vertx, staticOptions)) :
+                        new StaticContent(vertx, staticOptions);
+                mainRouter.route(content.routePath()).handler(content.handler());
             }
-            if (success) {
-                event.next();
+            mainRouter.route().handler(event -> {
+                boolean success;
+                try {
+                    success = beforeAccept(event);
+                } catch (Exception e) {
+                    logger.error("beforeAccept handle failed.", e);
+                    event.response().setStatusCode(500).setStatusMessage("server failed").end();
+                    return;
+                }
+                if (success) {
+                    event.next();
+                }
+            });
+            //client预热、路由预热完成之后才监听端口
+            Future<Void> clientsWarmUp = Future.succeededFuture();
+            if (boot != null) {
+                boot.clients().retain();
+                clientsRetained = true;
+                clientsWarmUp = onContext(boot.clients().warmUp());
             }
+            return clientsWarmUp.onFailure(err -> logger.error("warm up clients failed, http server not listen.", err))
+                    .compose(v1 -> onContext(WarmUpRunner.run(vertx, mainRouter, warmUp(), name)))
+                    .compose(v1 -> listen(mainRouter, info, start, sharedSubRouters, notSharedSubRouters));
         });
-        server = vertx.createHttpServer()
-                .requestHandler(mainRouter)
-                .listen(info.port, info.address, ar -> {
-                    if (ar.failed()) {
-                        logger.error("http server listen failed.", ar.cause());
-                        return;
+    }
+
+    /**
+     * 按照{@link LoadRouter#order()}分组， 组之间按照顺序启动， 同一组内的LoadRouter并行启动。
+     * init按照排序之后的顺序同步调用， start完成之前注册的route顺序是确定的
+     */
+    private Future<Void> startRouters(List<LoadRouterTuple> tuples, Function<LoadRouterTuple, Router> routerOf) {
+        TreeMap<Integer, List<LoadRouterTuple>> groups = new TreeMap<>();
+        for (LoadRouterTuple tuple : tuples) {
+            groups.computeIfAbsent(tuple.instance.order(), k -> new ArrayList<>()).add(tuple);
+        }
+        Future<Void> future = Future.succeededFuture();
+        for (List<LoadRouterTuple> group : groups.values()) {
+            future = future.compose(v -> {
+                List<Future> starts = new ArrayList<>(group.size());
+                for (LoadRouterTuple tuple : group) {
+                    Promise<Void> promise = Promise.promise();
+                    try {
+                        loadRouters.add(tuple.instance);
+                        tuple.instance.init(routerOf.apply(tuple), vertx, this);
+                        tuple.instance.start(promise);
+                    } catch (Exception e) {
+                        promise.tryFail(e);
                     }
-                    if (first) pathLog(mainRouter, sharedSubRouters, notSharedSubRouters);
+                    starts.add(promise.future().onFailure(err ->
+                            logger.error(tuple.component.getComponentName() + " start failed.", err)));
+                }
+                return onContext(CompositeFuture.all(starts).<Void>mapEmpty());
+            });
+        }
+        return future;
+    }
+
+    private Future<Void> listen(Router mainRouter, AddressAndPort info, long start,
+                        Map<String, Router> sharedSubRouters, Map<String, List<Router>> notSharedSubRouters) {
+        Handler<HttpServerRequest> requestHandler = constants.isEmpty() ? mainRouter : constantHandler(mainRouter);
+        boolean domain = info.domainSocket != null && vertx.isNativeTransportEnabled();
+        if (info.domainSocket != null && !domain && first) {
+            logger.warn("native transport is not available, domain socket {} fall back to tcp. " +
+                    "see VertxOptions#setPreferNativeTransport", info.domainSocket);
+        }
+
+        List<Future> listens = new ArrayList<>(2);
+        List<String> endpoints = new ArrayList<>(2);
+        if (info.port > 0 || !domain) {
+            //只配置了domain socket， 但是不可用时， 退化到本机的tcp端口
+            String address = info.port > 0 ? info.address : "127.0.0.1";
+            int port = info.port > 0 ? info.port : info.fallbackPort;
+            server = createServer(requestHandler);
+            listens.add(server.listen(SocketAddress.inetSocketAddress(port, address)));
+            endpoints.add("http://" + address + ":" + port);
+        }
+        if (domain) {
+            String path = info.domainSocket;
+            HttpServer httpServer = createServer(requestHandler);
+            domainServer = httpServer;
+            domainSocket = path;
+            listens.add(acquireDomainSocket(vertx, path)
+                    .compose(v -> httpServer.listen(SocketAddress.domainSocketAddress(path)))
+                    .onSuccess(v -> boundDomainSocket(path)));
+            endpoints.add("unix:" + path);
+        }
+
+        return CompositeFuture.all(listens).<Void>mapEmpty()
+                .onFailure(err -> {
+                    logger.error("http server listen failed. " + endpoints, err);
+                    if (server != null) server.close();
+                    closeDomainServer();
+                })
+                .onSuccess(v -> {
+                    if (first) pathLog(serverLabel(), endpoints, mainRouter, sharedSubRouters, notSharedSubRouters);
 
                     if (first) {
                         long end = System.currentTimeMillis();
-                        logger.info("http server started successful. listen in {}. ", info.port);
+                        logger.info("http server{} started successful. listen in {}. ", serverLabel(), endpoints);
                         logger.info("http server deploy time: " + (end - start) + "ms");
                     }
                 });
+    }
+
+    private HttpServer createServer(Handler<HttpServerRequest> requestHandler) {
+        HttpServer httpServer = vertx.createHttpServer();
+        if (!webSockets.isEmpty()) {
+            httpServer.webSocketHandler(ws -> {
+                Handler<ServerWebSocket> handler = webSockets.get(ws.path());
+                if (handler != null) handler.handle(ws);
+                else ws.reject();
+            });
+        }
+        return httpServer.requestHandler(requestHandler);
+    }
+
+    /**
+     * 同一个进程中监听同一个路径的多个实例共享监听， 第一个实例监听前检查残留的socket文件
+     *
+     * @return 检查完成之后可以监听
+     */
+    private static Future<Void> acquireDomainSocket(Vertx vertx, String path) {
+        synchronized (domainSockets) {
+            DomainSocket socket = domainSockets.get(path);
+            if (socket == null) {
+                socket = new DomainSocket(removeStaleSocket(vertx, path));
+                domainSockets.put(path, socket);
+            }
+            socket.refs++;
+            return socket.prepared;
+        }
+    }
+
+    private static void boundDomainSocket(String path) {
+        synchronized (domainSockets) {
+            DomainSocket socket = domainSockets.get(path);
+            if (socket != null) socket.bound = true;
+        }
+    }
+
+    /**
+     * 最后一个实例关闭之后删除socket文件， 没有监听成功过的不删除， 可能是其他进程的
+     */
+    private static void releaseDomainSocket(String path) {
+        synchronized (domainSockets) {
+            DomainSocket socket = domainSockets.get(path);
+            if (socket == null || --socket.refs > 0) return;
+            domainSockets.remove(path);
+            if (!socket.bound) return;
+            try {
+                Files.deleteIfExists(Paths.get(path));
+            } catch (Exception e) {
+                logger.warn("remove domain socket failed. path: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * 上次进程异常退出时残留的socket文件会导致监听失败。 只删除连接被拒绝的socket文件， 其他进程正在监听的不删除
+     */
+    private static Future<Void> removeStaleSocket(Vertx vertx, String path) {
+        Path file = Paths.get(path);
+        if (!isSocketFile(file)) return Future.succeededFuture();
+        Promise<Void> promise = Promise.promise();
+        NetClient client = vertx.createNetClient();
+        client.connect(SocketAddress.domainSocketAddress(path), ar -> {
+            if (ar.succeeded()) {
+                ar.result().close();
+            } else {
+                try {
+                    Files.deleteIfExists(file);
+                    logger.info("removed stale domain socket: {}", path);
+                } catch (Exception e) {
+                    logger.warn("remove stale domain socket failed. path: " + path, e);
+                }
+            }
+            client.close();
+            promise.complete();
+        });
+        return promise.future();
+    }
+
+    private static boolean isSocketFile(Path file) {
+        try {
+            int mode = (Integer) Files.getAttribute(file, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+            return (mode & 0170000) == 0140000;
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            try {
+                return Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther();
+            } catch (IOException ex) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;   //不存在
+        }
+    }
+
+    /**
+     * 关闭domain socket的httpServer， 释放引用的路径
+     */
+    private Future<Void> closeDomainServer() {
+        String path = domainSocket;
+        if (path == null) return Future.succeededFuture();
+        domainSocket = null;
+        Promise<Void> promise = Promise.promise();
+        domainServer.close(ar -> {
+            if (ar.failed()) logger.warn("close domain socket http server failed. path: " + path, ar.cause());
+            releaseDomainSocket(path);
+            promise.complete();
+        });
+        return promise.future();
+    }
+
+    /**
+     * 注册{@link Socket}端点， SSE注册到主路由器上， WebSocket在listen时注册到httpServer上
+     */
+    private void loadSockets(Router mainRouter) {
+        for (Component c : DefaultContainer.get().getComponentsByAnnotation(Socket.class)) {
+            if (!serverName().equals(c.getAnnotation(Socket.class).server().trim())) continue;
+            SocketEndpoint endpoint;
+            try {
+                endpoint = (SocketEndpoint) c.getClazz().newInstance();
+            } catch (Exception e) {
+                logger.error(c.getComponentName() + "newInstance failed", e);
+                throw new RuntimeException(e);
+            }
+            Socket socket = c.getAnnotation(Socket.class);
+            String path = RouteUtils.checkPath(socket.value());
+            endpoint.init(vertx, this);
+            if (socket.type() == Socket.Type.SSE) {
+                mainRouter.get(path).handler(ctx -> broadcaster.accept(ctx, endpoint, socket.slowConsumer()));
+            } else {
+                webSockets.put(path, ws -> broadcaster.accept(ws, endpoint, socket.slowConsumer()));
+            }
+        }
+    }
+
+    private Handler<HttpServerRequest> constantHandler(Router mainRouter) {
+        DateHeader dateHeader = DateHeader.get(vertx);
+        return request -> {
+            Map<String, ConstantResponse> paths = constants.get(request.method());
+            if (paths != null) {
+                ConstantResponse response = paths.get(request.path());
+                if (response == null) response = paths.get("*");
+                if (response != null) {
+                    response.write(request.response(), dateHeader);
+                    return;
+                }
+            }
+            mainRouter.handle(request);
+        };
+    }
+
+    private String serverLabel() {
+        return serverName().isEmpty() ? "" : "[" + serverName() + "]";
+    }
+
+    /**
+     * 更新就绪标记， 所有httpServer实例都停止时取消就绪。 最后一个httpServer实例停止时， 关闭{@link me.wang007.annotation.Client}声明的client
+     */
+    @Override
+    public void stop(Promise<Void> stopPromise) throws Exception {
+        if (listening) {
+            listening = false;
+            readiness.stopped();
+        }
+        stopRouters();
+        stop();
+        if (boot == null && accessLog != null) accessLog.close();
+        closeDomainServer().compose(v -> releaseClients()).onComplete(stopPromise);
+    }
+
+    private void stopRouters() {
+        for (LoadRouter loadRouter : loadRouters) {
+            try {
+                loadRouter.stop();
+            } catch (Exception e) {
+                logger.error(loadRouter.getClass().getName() + " stop failed.", e);
+            }
+        }
+        loadRouters.clear();
+    }
+
+    private Future<Void> releaseClients() {
+        if (!clientsRetained) return Future.succeededFuture();
+        clientsRetained = false;
+        return boot.clients().release();
+    }
 
+    /**
+     * LoadRouter中注册的handler的装饰器， 例如：阻塞检测、访问日志
+     *
+     * @param boot      vertxBoot, 可能为null
+     * @param accessLog 访问日志， 可能为null
+     * @return 装饰器， null：不需要装饰
+     */
+    private HandlerDecorator handlerDecorator(VertxBoot boot, AccessLog accessLog) {
+        HandlerDecorator decorator = null;
+        BlockingDetector detector = boot != null ? boot.blockingDetector() : null;
+        if (detector != null && detector.enabled()) decorator = detector.handlerDecorator();
+        if (accessLog != null) {
+            decorator = decorator == null ? accessLog.handlerDecorator() : decorator.andThen(accessLog.handlerDecorator());
+        }
+        return decorator;
     }
 
     /**
@@ -206,25 +824,74 @@ public class HttpServerVerticle extends AbstractVerticle implements VerticleConf
     }
 
 
+    /**
+     * 监听的地址， tcp端口和unix domain socket可以同时使用， 也可以只使用其中一个。
+     *
+     * domain socket需要native transport(linux上是epoll)：创建vertx时设置{@link VertxOptions#setPreferNativeTransport(boolean)}，
+     * 并且依赖netty-transport-native-epoll。 不可用时只监听tcp端口， 只配置了domain socket的话监听127.0.0.1:{@link #fallbackPort}
+     */
     protected static class AddressAndPort {
         public final String address;
+
+        /**
+         * {@code <=} 0 表示不监听tcp端口
+         */
         public final int port;
 
+        /**
+         * unix domain socket文件路径， null：不监听
+         */
+        public final String domainSocket;
+
+        /**
+         * 只配置了domain socket， 但是不可用时监听的本机端口
+         */
+        public final int fallbackPort;
+
         public AddressAndPort(String address, int port) {
-            this.address = address;
-            this.port = port;
+            this(address, port, null, port);
         }
 
         public AddressAndPort(int port) {
-            this.address = "0.0.0.0";
+            this("0.0.0.0", port);
+        }
+
+        private AddressAndPort(String address, int port, String domainSocket, int fallbackPort) {
+            this.address = address;
             this.port = port;
+            this.domainSocket = domainSocket;
+            this.fallbackPort = fallbackPort;
+        }
+
+        /**
+         * 只监听domain socket， 例如：给sidecar使用
+         *
+         * @param path         socket文件路径
+         * @param fallbackPort domain socket不可用时监听的本机端口
+         * @return AddressAndPort
+         */
+        public static AddressAndPort domainSocket(String path, int fallbackPort) {
+            return new AddressAndPort("127.0.0.1", -1, StringUtils.trimOrThrow(path, "path不能为空"), fallbackPort);
+        }
+
+        /**
+         * 同时监听tcp端口和domain socket
+         *
+         * @param path socket文件路径
+         * @return 新的AddressAndPort
+         */
+        public AddressAndPort withDomainSocket(String path) {
+            return new AddressAndPort(address, port, StringUtils.trimOrThrow(path, "path不能为空"), fallbackPort);
         }
     }
 
 
-    private static void pathLog(Router mainRouter, Map<String, Router> sharedSubs, Map<String, List<Router>> notSharedSubs) {
+    private static void pathLog(String label, List<String> endpoints, Router mainRouter, Map<String, Router> sharedSubs, Map<String, List<Router>> notSharedSubs) {
         StringBuilder log = new StringBuilder(2048).append("\r\n");
-        log.append("------------ Main-Router all paths ----------------").append("\r\n");
+        log.append("------------ Server").append(label).append(" endpoints ----------------").append("\r\n");
+        endpoints.forEach(endpoint -> log.append(endpoint).append("\r\n"));
+        log.append("\r\n");
+        log.append("------------ Main-Router").append(label).append(" all paths ----------------").append("\r\n");
         mainRouter.getRoutes().forEach(route -> {
             String path = route.getPath();
             if (!sharedSubs.containsKey(path)) {
@@ -265,5 +932,27 @@ public class HttpServerVerticle extends AbstractVerticle implements VerticleConf
         }
     }
 
+    private static final class DomainSocket {
+
+        /**
+         * 检查残留的socket文件， 同一批共享监听的实例只检查一次
+         */
+        final Future<Void> prepared;
+
+        /**
+         * 引用的实例数
+         */
+        int refs;
+
+        /**
+         * 是否有实例监听成功， 为true时socket文件是当前进程创建的
+         */
+        boolean bound;
+
+        DomainSocket(Future<Void> prepared) {
+            this.prepared = prepared;
+        }
+    }
+
 
 }
@@ -5,6 +5,8 @@ import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
 import io.vertx.core.Verticle;
 import me.wang007.annotation.Deploy;
+import me.wang007.boot.AutoscaleOptions;
+import me.wang007.boot.RetryOptions;
 
 /**
  * 部署{@link Verticle}的配置。
@@ -73,4 +75,26 @@ public interface VerticleConfig {
         return null;
     }
 
+    /**
+     * 实例数弹性伸缩的参数。
+     *
+     * 根据eventLoop的繁忙程度，在{@link AutoscaleOptions#getMinInstances()}, {@link AutoscaleOptions#getMaxInstances()}之间增加或减少实例。
+     * 对worker verticle 和 {@link #requireSingle()} = true 的verticle无效
+     *
+     * @return 弹性伸缩参数， null：不开启弹性伸缩
+     */
+    default AutoscaleOptions autoscale() {
+        return null;
+    }
+
+    /**
+     * 部署失败之后的重试参数。 重试期间状态为{@link me.wang007.boot.DeploymentState#DEPLOYING}，
+     * 全部失败之后才会回调{@link #deployedHandler()}
+     *
+     * @return 重试参数， null：不重试
+     */
+    default RetryOptions retry() {
+        return null;
+    }
+
 }
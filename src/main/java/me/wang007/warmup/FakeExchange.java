@@ -0,0 +1,290 @@
+package me.wang007.warmup;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.Router;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 进程内的一次模拟请求， 不经过socket。
+ *
+ * 通过动态代理实现{@link HttpServerRequest}, {@link HttpServerResponse}，只模拟路由和常用handler用到的方法，
+ * 其他方法按照返回值类型返回默认值(fluent方法返回自身)。
+ *
+ * created by wang007 on 2026/10/19
+ */
+final class FakeExchange {
+
+    private static final SocketAddress Local_Address = SocketAddress.inetSocketAddress(0, "127.0.0.1");
+
+    private final Vertx vertx;
+
+    private final WarmUpRequest source;
+
+    private final String path;
+
+    private final String query;
+
+    private MultiMap params;
+
+    private final HttpServerRequest request;
+
+    private final HttpServerResponse response;
+
+    private final MultiMap responseHeaders = MultiMap.caseInsensitiveMultiMap();
+
+    private final MultiMap trailers = MultiMap.caseInsensitiveMultiMap();
+
+    private Handler<Buffer> dataHandler;
+
+    private Handler<Void> requestEndHandler;
+
+    private boolean requestEnded;
+
+    private int statusCode = 200;
+
+    private boolean ended;
+
+    private final List<Handler<Void>> endHandlers = new ArrayList<>(2);
+
+    private final Promise<Integer> done = Promise.promise();
+
+    FakeExchange(Vertx vertx, WarmUpRequest source) {
+        this.vertx = vertx;
+        this.source = source;
+        int index = source.getUri().indexOf('?');
+        this.path = index < 0 ? source.getUri() : source.getUri().substring(0, index);
+        this.query = index < 0 ? null : source.getUri().substring(index + 1);
+        ClassLoader cl = FakeExchange.class.getClassLoader();
+        this.request = (HttpServerRequest) Proxy.newProxyInstance(cl, new Class[]{HttpServerRequest.class}, new RequestHandler());
+        this.response = (HttpServerResponse) Proxy.newProxyInstance(cl, new Class[]{HttpServerResponse.class}, new ResponseHandler());
+    }
+
+    /**
+     * @param router  主路由器
+     * @param timeout 超时时间， 单位：ms
+     * @return 响应的状态码
+     */
+    Future<Integer> send(Router router, long timeout) {
+        long timerId = vertx.setTimer(timeout, id -> done.tryFail(new TimeoutException("warm up request timeout: " + source.getUri())));
+        done.future().onComplete(ar -> vertx.cancelTimer(timerId));
+        try {
+            router.handle(request);
+        } catch (Throwable e) {
+            done.tryFail(e);
+        }
+        return done.future();
+    }
+
+    private MultiMap params() {
+        if (params == null) {
+            params = MultiMap.caseInsensitiveMultiMap();
+            if (query != null) {
+                new QueryStringDecoder(query, false).parameters().forEach(params::add);
+            }
+        }
+        return params;
+    }
+
+    /**
+     * 有人读取body时(例如：BodyHandler)， 异步写入body
+     */
+    private void deliverBody() {
+        if (requestEnded) return;
+        requestEnded = true;
+        vertx.runOnContext(v -> {
+            Buffer body = source.getBody();
+            if (body != null && dataHandler != null) dataHandler.handle(body);
+            if (requestEndHandler != null) requestEndHandler.handle(null);
+        });
+    }
+
+    private void end() {
+        if (ended) return;
+        ended = true;
+        for (Handler<Void> h : endHandlers) {
+            try {
+                h.handle(null);
+            } catch (Throwable e) {
+                done.tryFail(e);
+            }
+        }
+        done.tryComplete(statusCode);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object complete(Method method, Object[] args, Object proxy) {
+        if (args != null && args.length > 0 && args[args.length - 1] instanceof Handler) {
+            ((Handler<AsyncResult<Void>>) args[args.length - 1]).handle(Future.succeededFuture());
+        }
+        return defaultValue(method, proxy);
+    }
+
+    private static Object defaultValue(Method method, Object proxy) {
+        Class<?> type = method.getReturnType();
+        if (type.isInstance(proxy)) return proxy;
+        if (type == Future.class) return Future.succeededFuture();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return (char) 0;
+        if (type == float.class) return 0F;
+        if (type == double.class) return 0D;
+        if (type == MultiMap.class) return MultiMap.caseInsensitiveMultiMap();
+        if (type == Map.class) return Collections.emptyMap();
+        if (type == Set.class) return Collections.emptySet();
+        if (type == List.class) return Collections.emptyList();
+        return null;
+    }
+
+    /**
+     * 路由器会包装请求， 所以通过本地地址的实例判断， 真实的请求不能伪造
+     *
+     * @return 是否是模拟请求
+     */
+    static boolean isFake(HttpServerRequest request) {
+        return request.localAddress() == Local_Address;
+    }
+
+    private class RequestHandler implements InvocationHandler {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "method":
+                    return source.getMethod();
+                case "uri":
+                    return source.getUri();
+                case "path":
+                    return path;
+                case "query":
+                    return query;
+                case "host":
+                    String host = source.getHeaders().get("Host");
+                    return host != null ? host : "localhost";
+                case "scheme":
+                    return "http";
+                case "version":
+                    return HttpVersion.HTTP_1_1;
+                case "absoluteURI":
+                    return "http://localhost" + source.getUri();
+                case "headers":
+                    return source.getHeaders();
+                case "getHeader":
+                    return source.getHeaders().get(args[0].toString());
+                case "params":
+                    return params();
+                case "getParam":
+                    return params().get((String) args[0]);
+                case "response":
+                    return response;
+                case "remoteAddress":
+                case "localAddress":
+                    return Local_Address;
+                case "isEnded":
+                    return requestEnded;
+                case "handler":
+                    dataHandler = (Handler<Buffer>) args[0];
+                    return proxy;
+                case "endHandler":
+                    requestEndHandler = (Handler<Void>) args[0];
+                    if (requestEndHandler != null) deliverBody();
+                    return proxy;
+                case "bodyHandler":
+                    Handler<Buffer> bodyHandler = (Handler<Buffer>) args[0];
+                    requestEnded = true;
+                    vertx.runOnContext(v -> bodyHandler.handle(source.getBody() != null ? source.getBody() : Buffer.buffer()));
+                    return proxy;
+                case "body":
+                    Buffer body = source.getBody() != null ? source.getBody() : Buffer.buffer();
+                    requestEnded = true;
+                    if (args == null || args.length == 0) return Future.succeededFuture(body);
+                    ((Handler<AsyncResult<Buffer>>) args[0]).handle(Future.succeededFuture(body));
+                    return proxy;
+                case "toString":
+                    return "WarmUpRequest[" + source.getMethod() + " " + source.getUri() + "]";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method, proxy);
+            }
+        }
+    }
+
+    private class ResponseHandler implements InvocationHandler {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "setStatusCode":
+                    statusCode = (Integer) args[0];
+                    return proxy;
+                case "getStatusCode":
+                    return statusCode;
+                case "headers":
+                    return responseHeaders;
+                case "trailers":
+                    return trailers;
+                case "putHeader":
+                    String name = args[0].toString();
+                    responseHeaders.remove(name);
+                    if (args[1] instanceof Iterable) {
+                        for (Object value : (Iterable<?>) args[1]) responseHeaders.add(name, value.toString());
+                    } else {
+                        responseHeaders.add(name, args[1].toString());
+                    }
+                    return proxy;
+                case "endHandler":
+                case "bodyEndHandler":
+                case "headersEndHandler":
+                    if (args[0] != null) endHandlers.add((Handler<Void>) args[0]);
+                    return proxy;
+                case "write":
+                    return complete(method, args, proxy);
+                case "end":
+                case "sendFile":
+                    end();
+                    return complete(method, args, proxy);
+                case "reset":
+                    end();
+                    return true;
+                case "ended":
+                case "headWritten":
+                    return ended;
+                case "toString":
+                    return "WarmUpResponse[" + source.getUri() + "]";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method, proxy);
+            }
+        }
+    }
+}
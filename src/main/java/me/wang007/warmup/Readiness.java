@@ -0,0 +1,90 @@
+package me.wang007.warmup;
+
+import me.wang007.shared.SharedKey;
+
+/**
+ * 应用级别的就绪标记， 给负载均衡使用。 所有httpServer实例共享一个， 通过{@link me.wang007.verticle.HttpServerVerticle#readiness()}获取
+ *
+ * 记录启动中和已经监听端口的httpServer实例数， 每次变化时重新计算：
+ * 没有启动中的实例并且至少有一个实例监听端口时变为就绪， 已经就绪时不会因为扩容而取消就绪；
+ * 所有实例都停止(例如undeploy之后)时取消就绪， 之后再次部署的实例启动完成时重新就绪。
+ * vertxBoot关闭时{@link #shutdown()}， 之后不会再变为就绪， 让负载均衡先摘除流量。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class Readiness {
+
+    public static final SharedKey<Readiness> Key = SharedKey.of("readiness", Readiness.class);
+
+    /**
+     * 启动中的实例数， 由this保护
+     */
+    private int starting;
+
+    /**
+     * 已经监听端口的实例数， 由this保护
+     */
+    private int live;
+
+    private volatile boolean ready;
+
+    private volatile boolean shutdown;
+
+    /**
+     * httpServer实例开始启动
+     */
+    public synchronized void starting() {
+        starting++;
+        recompute();
+    }
+
+    /**
+     * httpServer实例已经监听端口
+     */
+    public synchronized void started() {
+        starting--;
+        live++;
+        recompute();
+    }
+
+    /**
+     * httpServer实例启动失败
+     */
+    public synchronized void failed() {
+        starting--;
+        recompute();
+    }
+
+    /**
+     * 已经监听端口的httpServer实例停止
+     */
+    public synchronized void stopped() {
+        live--;
+        recompute();
+    }
+
+    /**
+     * 整个应用关闭， 取消就绪， 之后不会再变为就绪
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        recompute();
+    }
+
+    private void recompute() {
+        if (shutdown || live <= 0) ready = false;
+        else if (starting <= 0) ready = true;
+        //还有实例在启动中时保持原状态： 首次启动时等待所有实例， 扩容时不取消就绪
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return 已经监听端口的实例数
+     */
+    public synchronized int live() {
+        return live;
+    }
+}
@@ -0,0 +1,119 @@
+package me.wang007.warmup;
+
+import io.vertx.core.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * httpServer监听端口之前的预热参数，通过{@link me.wang007.verticle.HttpServerVerticle#warmUp()}提供
+ *
+ * 预热时不经过socket，在进程内把{@link #getRequests()}直接交给主路由器处理，一轮发送所有请求，等待全部响应之后进行下一轮。
+ * 满足以下任一条件时结束：
+ * 1. 超过{@link #timeBudget}；
+ * 2. 达到{@link #maxIterations}轮；
+ * 3. 至少{@link #minIterations}轮之后，最近{@link #settleWindow}内JIT编译耗时低于{@link #settleThreshold}。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class WarmUpOptions {
+
+    private final List<WarmUpRequest> requests = new ArrayList<>();
+
+    /**
+     * 预热的时间预算， 单位：ms
+     */
+    private long timeBudget = 10_000;
+
+    /**
+     * 最少预热轮数
+     */
+    private int minIterations = 100;
+
+    /**
+     * 最多预热轮数
+     */
+    private int maxIterations = 100_000;
+
+    /**
+     * 判断JIT是否稳定的时间窗口， 单位：ms
+     */
+    private long settleWindow = 1000;
+
+    /**
+     * 时间窗口内JIT编译耗时低于该值认为已经稳定， 单位：ms
+     */
+    private long settleThreshold = 10;
+
+    /**
+     * 单个请求的超时时间， 超时算作失败， 单位：ms
+     */
+    private long requestTimeout = 5000;
+
+    public List<WarmUpRequest> getRequests() {
+        return requests;
+    }
+
+    public WarmUpOptions addRequest(WarmUpRequest request) {
+        requests.add(request);
+        return this;
+    }
+
+    public WarmUpOptions addRequest(HttpMethod method, String uri) {
+        return addRequest(new WarmUpRequest(method, uri));
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    public WarmUpOptions setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+        return this;
+    }
+
+    public int getMinIterations() {
+        return minIterations;
+    }
+
+    public WarmUpOptions setMinIterations(int minIterations) {
+        this.minIterations = minIterations;
+        return this;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public WarmUpOptions setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    public long getSettleWindow() {
+        return settleWindow;
+    }
+
+    public WarmUpOptions setSettleWindow(long settleWindow) {
+        this.settleWindow = settleWindow;
+        return this;
+    }
+
+    public long getSettleThreshold() {
+        return settleThreshold;
+    }
+
+    public WarmUpOptions setSettleThreshold(long settleThreshold) {
+        this.settleThreshold = settleThreshold;
+        return this;
+    }
+
+    public long getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public WarmUpOptions setRequestTimeout(long requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+}
@@ -0,0 +1,60 @@
+package me.wang007.warmup;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+
+/**
+ * 预热时发送的模拟请求
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class WarmUpRequest {
+
+    private final HttpMethod method;
+
+    private final String uri;
+
+    private final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+
+    private Buffer body;
+
+    /**
+     * @param method 请求方法
+     * @param uri    包含query的uri， 例如：/user/get?id=1
+     */
+    public WarmUpRequest(HttpMethod method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public WarmUpRequest putHeader(String name, String value) {
+        headers.add(name, value);
+        return this;
+    }
+
+    public WarmUpRequest setBody(Buffer body) {
+        this.body = body;
+        return this;
+    }
+
+    public WarmUpRequest setBody(String body) {
+        return setBody(Buffer.buffer(body));
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public MultiMap getHeaders() {
+        return headers;
+    }
+
+    public Buffer getBody() {
+        return body;
+    }
+}
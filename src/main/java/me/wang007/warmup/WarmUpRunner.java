@@ -0,0 +1,128 @@
+package me.wang007.warmup;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.Router;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在当前context上执行预热， 每一轮之间让出eventLoop， 不会长时间阻塞。
+ *
+ * 预热失败不影响启动， 只打印日志。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class WarmUpRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private final Vertx vertx;
+
+    private final Router router;
+
+    private final WarmUpOptions options;
+
+    private final String name;
+
+    private final CompilationMXBean compilation;
+
+    private final Promise<Void> promise = Promise.promise();
+
+    private long start;
+
+    private int iterations;
+
+    private long requests;
+
+    private long errors;
+
+    private long windowStart;
+
+    private long windowCompilationTime;
+
+    private boolean settled;
+
+    private WarmUpRunner(Vertx vertx, Router router, WarmUpOptions options, String name) {
+        this.vertx = vertx;
+        this.router = router;
+        this.options = options;
+        this.name = name;
+        CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+        this.compilation = bean != null && bean.isCompilationTimeMonitoringSupported() ? bean : null;
+    }
+
+    /**
+     * 访问日志、请求跟踪等据此跳过预热的模拟请求
+     *
+     * @param request 请求
+     * @return 是否是预热的模拟请求
+     */
+    public static boolean isWarmUp(HttpServerRequest request) {
+        return FakeExchange.isFake(request);
+    }
+
+    /**
+     * 必须在router所在的context上调用
+     *
+     * @param vertx   vertx
+     * @param router  主路由器
+     * @param options 预热参数
+     * @param name    用于日志
+     * @return 预热完成， 不会失败
+     */
+    public static Future<Void> run(Vertx vertx, Router router, WarmUpOptions options, String name) {
+        if (options == null || options.getRequests().isEmpty()) return Future.succeededFuture();
+        WarmUpRunner runner = new WarmUpRunner(vertx, router, options, name);
+        runner.start = runner.windowStart = System.currentTimeMillis();
+        runner.windowCompilationTime = runner.compilationTime();
+        runner.iteration();
+        return runner.promise.future();
+    }
+
+    private void iteration() {
+        long now = System.currentTimeMillis();
+        if (finished(now)) {
+            logger.info("{} warm up finished, iterations: {}, requests: {}, errors: {}, jit settled: {}, cost: {}ms",
+                    name, iterations, requests, errors, settled, now - start);
+            promise.complete();
+            return;
+        }
+        iterations++;
+        List<Future> futures = new ArrayList<>(options.getRequests().size());
+        for (WarmUpRequest request : options.getRequests()) {
+            requests++;
+            futures.add(new FakeExchange(vertx, request).send(router, options.getRequestTimeout())
+                    .onComplete(ar -> {
+                        if (ar.failed() || ar.result() >= 500) errors++;
+                    }));
+        }
+        //下一轮在新的任务中执行， 让出eventLoop
+        CompositeFuture.join(futures).onComplete(ar -> vertx.runOnContext(v -> iteration()));
+    }
+
+    private boolean finished(long now) {
+        if (now - start >= options.getTimeBudget()) return true;
+        if (iterations >= options.getMaxIterations()) return true;
+        if (compilation == null || now - windowStart < options.getSettleWindow()) return false;
+
+        long time = compilationTime();
+        long delta = time - windowCompilationTime;
+        windowStart = now;
+        windowCompilationTime = time;
+        settled = iterations >= options.getMinIterations() && delta < options.getSettleThreshold();
+        return settled;
+    }
+
+    private long compilationTime() {
+        return compilation == null ? 0 : compilation.getTotalCompilationTime();
+    }
+}
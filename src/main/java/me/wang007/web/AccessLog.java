@@ -0,0 +1,319 @@
+package me.wang007.web;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.json.JsonWriter;
+import me.wang007.router.HandlerDecorator;
+import me.wang007.shared.SharedKey;
+import me.wang007.warmup.WarmUpRunner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步的访问日志， 每个请求一行json：
+ * {"ts":请求开始时间(ms),"method":"GET","route":"/user/:id","status":200,"bytes":响应字节数,"latencyUs":耗时(us)}
+ *
+ * route是处理该请求的{@link me.wang007.router.LoadRouter}中route的完整路径(模板， 不是实际的请求路径)，
+ * 不是由LoadRouter处理的请求(例如静态文件、404)为null。
+ *
+ * 请求结束时只把几个字段写入当前线程预先分配好的环形缓冲区， 不加锁、不分配对象、不做io。
+ * 单个后台线程定时取出所有缓冲区中的记录， 编码之后按批通过{@link FileChannel}写入文件。
+ * 缓冲区写满(后台线程跟不上)时丢弃新的记录并计数， 见{@link #dropped()}， 不会阻塞eventLoop。
+ *
+ * 由{@link me.wang007.verticle.HttpServerVerticle}注册， 所有httpServer实例共享， 通过{@link me.wang007.constant.VertxBootConst#Access_Log_Path_Key}等配置。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class AccessLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLog.class);
+
+    public static final SharedKey<AccessLog> Key = SharedKey.of("accessLog", AccessLog.class);
+
+    /**
+     * RoutingContext中保存route路径的key
+     */
+    private static final String Route_Key = "__accessLog.route";
+
+    private final AccessLogOptions options;
+
+    private final FastThreadLocal<Ring> local = new FastThreadLocal<>();
+
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private volatile Thread writer;
+
+    private volatile boolean running;
+
+    /**
+     * jvm退出时写完剩余的记录， close时移除
+     */
+    private Thread shutdownHook;
+
+    public AccessLog(AccessLogOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * 启动后台写入线程， 重复调用无效。 jvm退出时写完缓冲区中剩余的记录。
+     * 通过vertxBoot启动时在vertx关闭时close， 否则由httpServer实例stop时close
+     */
+    public synchronized void start() {
+        if (writer != null) return;
+        running = true;
+        Thread t = new Thread(this::run, "vertx-start-access-log");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+        shutdownHook = new Thread(this::close, "vertx-start-access-log-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        logger.info("access log started, path: {}, sample rate: {}", options.getPath(), options.getSampleRate());
+    }
+
+    /**
+     * 停止后台写入线程， 写完缓冲区中剩余的记录之后返回， 最多等待1s
+     */
+    public void close() {
+        Thread t;
+        Thread hook;
+        synchronized (this) {
+            t = writer;
+            if (t == null || !running) return;
+            running = false;
+            hook = shutdownHook;
+            shutdownHook = null;
+        }
+        if (hook != null && Thread.currentThread() != hook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                //jvm正在退出
+            }
+        }
+        LockSupport.unpark(t);
+        try {
+            t.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return 放在主路由器最前面的handler， 按照采样率记录请求， 预热的模拟请求不记录
+     */
+    public Handler<RoutingContext> routerHandler() {
+        double sampleRate = options.getSampleRate();
+        return ctx -> {
+            if ((sampleRate < 1 && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate))
+                    || WarmUpRunner.isWarmUp(ctx.request())) {
+                ctx.next();
+                return;
+            }
+            long start = System.currentTimeMillis();
+            long begin = System.nanoTime();
+            ctx.addEndHandler(ar -> record(ctx.request().method().name(), ctx.get(Route_Key),
+                    ctx.response().getStatusCode(), ctx.response().bytesWritten(), start, System.nanoTime() - begin));
+            ctx.next();
+        };
+    }
+
+    /**
+     * @return 用于{@link me.wang007.router.LoadRouter}的handler装饰器， 记录处理请求的route路径
+     */
+    public HandlerDecorator handlerDecorator() {
+        return (loadRouter, path, handler) -> ctx -> {
+            ctx.put(Route_Key, path);
+            handler.handle(ctx);
+        };
+    }
+
+    /**
+     * 记录一次请求， 缓冲区满时丢弃
+     *
+     * @param method  请求方法
+     * @param route   route路径， 可以为null
+     * @param status  响应状态码
+     * @param bytes   响应字节数
+     * @param start   请求开始时间， 单位：ms
+     * @param latency 耗时， 单位：ns
+     */
+    public void record(String method, String route, int status, long bytes, long start, long latency) {
+        if (!ring().offer(method, route, status, bytes, start, latency)) dropped.increment();
+    }
+
+    /**
+     * @return 因为缓冲区满被丢弃的记录数
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return 已写入文件的记录数
+     */
+    public long written() {
+        return written.sum();
+    }
+
+    private Ring ring() {
+        Ring ring = local.get();
+        if (ring == null) {
+            ring = new Ring(options.getBufferSize());
+            local.set(ring);
+            rings.add(ring);
+        }
+        return ring;
+    }
+
+    private void run() {
+        Path path = Paths.get(options.getPath());
+        long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(1, options.getFlushInterval()));
+        int batchSize = Math.max(1024, options.getBatchSize());
+        JsonWriter json = new JsonWriter(batchSize + 1024);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (running) {
+                    //积累的记录超过一批时马上继续写， 否则等待下一轮
+                    if (drain(json, channel, batchSize) < batchSize) LockSupport.parkNanos(interval);
+                }
+                drain(json, channel, batchSize);
+            }
+        } catch (Throwable e) {
+            logger.error("write access log failed, access log stopped. path: " + path, e);
+            running = false;
+        }
+    }
+
+    /**
+     * @return 本轮写入的字节数
+     */
+    private long drain(JsonWriter json, FileChannel channel, int batchSize) throws IOException {
+        long bytes = 0;
+        int count = 0;
+        for (Ring ring : rings) {
+            long head = ring.head.get();
+            long tail = ring.tail.get();
+            while (head < tail) {
+                ring.entries[(int) (head++ & ring.mask)].writeTo(json);
+                json.raw('\n');
+                count++;
+                if (json.size() >= batchSize) {
+                    ring.head.lazySet(head);
+                    bytes += flush(json, channel, count);
+                    count = 0;
+                }
+            }
+            ring.head.lazySet(head);
+        }
+        if (json.size() > 0) bytes += flush(json, channel, count);
+        return bytes;
+    }
+
+    private long flush(JsonWriter json, FileChannel channel, int count) throws IOException {
+        ByteBuffer buffer = json.toByteBuffer();
+        int size = buffer.remaining();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        json.reset();
+        written.add(count);
+        return size;
+    }
+
+    /**
+     * 单生产者单消费者的环形缓冲区， 生产者是写入记录的线程(eventLoop)， 消费者是后台写入线程。
+     * 记录对象预先分配好， 生产者只修改字段
+     */
+    static final class Ring {
+
+        final Entry[] entries;
+
+        final int mask;
+
+        /**
+         * 下一个写入的位置， 只有生产者修改
+         */
+        final AtomicLong tail = new AtomicLong();
+
+        /**
+         * 下一个读取的位置， 只有消费者修改
+         */
+        final AtomicLong head = new AtomicLong();
+
+        /**
+         * 生产者缓存的head， 避免每次都读取volatile
+         */
+        private long cachedHead;
+
+        Ring(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.entries = new Entry[size];
+            for (int i = 0; i < size; i++) entries[i] = new Entry();
+            this.mask = size - 1;
+        }
+
+        boolean offer(String method, String route, int status, long bytes, long start, long latency) {
+            long t = tail.get();
+            if (t - cachedHead >= entries.length) {
+                cachedHead = head.get();
+                if (t - cachedHead >= entries.length) return false;
+            }
+            Entry e = entries[(int) (t & mask)];
+            e.start = start;
+            e.method = method;
+            e.route = route;
+            e.status = status;
+            e.bytes = bytes;
+            e.latency = latency;
+            tail.lazySet(t + 1);
+            return true;
+        }
+    }
+
+    static final class Entry {
+
+        long start;
+
+        String method;
+
+        String route;
+
+        int status;
+
+        long bytes;
+
+        long latency;
+
+        void writeTo(JsonWriter json) {
+            json.beginObject()
+                    .name("ts").value(start)
+                    .name("method").value(method)
+                    .name("route").value(route)
+                    .name("status").value(status)
+                    .name("bytes").value(bytes)
+                    .name("latencyUs").value(TimeUnit.NANOSECONDS.toMicros(latency))
+                    .endObject();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package me.wang007.web;
+
+import me.wang007.constant.VertxBootConst;
+import me.wang007.utils.StringUtils;
+
+import java.util.function.Function;
+
+/**
+ * {@link AccessLog}的参数， 一般通过{@link #fromProperties(Function)}从application.properties中读取
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class AccessLogOptions {
+
+    /**
+     * 日志文件， 不存在时创建， 追加写入
+     */
+    private String path;
+
+    /**
+     * 采样率， 0 ~ 1
+     */
+    private double sampleRate = 1;
+
+    /**
+     * 每个eventLoop的环形缓冲区大小， 向上取整到2的幂。 写满时丢弃新的记录， 不阻塞eventLoop
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * 一次写入文件的最大字节数
+     */
+    private int batchSize = 64 * 1024;
+
+    /**
+     * 后台线程写入文件的间隔， 单位：ms。 缓冲区中积累的记录超过{@link #batchSize}时立即写入
+     */
+    private long flushInterval = 200;
+
+    /**
+     * @param properties 属性， 例如：vertxBoot::getProperty
+     * @return 参数， 没有配置{@link VertxBootConst#Access_Log_Path_Key}时为null
+     */
+    public static AccessLogOptions fromProperties(Function<String, String> properties) {
+        String path = properties.apply(VertxBootConst.Access_Log_Path_Key);
+        if (StringUtils.isBlank(path)) return null;
+        AccessLogOptions options = new AccessLogOptions().setPath(path.trim());
+        String value = properties.apply(VertxBootConst.Access_Log_Sample_Rate_Key);
+        if (StringUtils.isNotBlank(value)) options.setSampleRate(Double.parseDouble(value.trim()));
+        value = properties.apply(VertxBootConst.Access_Log_Buffer_Size_Key);
+        if (StringUtils.isNotBlank(value)) options.setBufferSize(Integer.parseInt(value.trim()));
+        value = properties.apply(VertxBootConst.Access_Log_Flush_Interval_Key);
+        if (StringUtils.isNotBlank(value)) options.setFlushInterval(Long.parseLong(value.trim()));
+        return options;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public AccessLogOptions setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public AccessLogOptions setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public AccessLogOptions setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public AccessLogOptions setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public AccessLogOptions setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+}
@@ -0,0 +1,209 @@
+package me.wang007.web;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.json.PojoCodecs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 内容固定的响应， 例如：探活、CORS预检、固定的json。
+ *
+ * 状态码、响应头、响应体在构建时编码好， 响应头的name、value使用{@link HttpHeaders#createOptimized(String)}，
+ * 响应体是一个可以重复写出的buffer， Date响应头使用{@link DateHeader}缓存的值。 每次响应只是把这些值写到response上。
+ *
+ * 可以直接作为route handler， 也可以通过{@link me.wang007.verticle.HttpServerVerticle#constant}注册， 不经过router。
+ *
+ * <code>
+ *     ConstantResponse pong = ConstantResponse.text("pong");
+ *     ConstantResponse preflight = ConstantResponse.builder(204)
+ *             .header("Access-Control-Allow-Origin", "*")
+ *             .header("Access-Control-Allow-Methods", "GET, POST")
+ *             .header("Access-Control-Max-Age", "86400")
+ *             .build();
+ * </code>
+ *
+ * 不可变， 线程安全。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class ConstantResponse implements Handler<RoutingContext> {
+
+    private static final CharSequence Json_Type = HttpHeaders.createOptimized("application/json; charset=utf-8");
+    private static final CharSequence Text_Type = HttpHeaders.createOptimized("text/plain; charset=utf-8");
+
+    private final int status;
+
+    private final CharSequence[] names;
+
+    private final CharSequence[] values;
+
+    /**
+     * null：没有响应体
+     */
+    private final Buffer body;
+
+    private final boolean date;
+
+    /**
+     * names[i]在前面已经出现过， 写出时追加而不是覆盖
+     */
+    private final boolean[] append;
+
+    /**
+     * 作为route handler使用时缓存的dateHeader
+     */
+    private volatile DateHeader dateHeader;
+
+    private volatile Vertx vertx;
+
+    private ConstantResponse(Builder builder) {
+        this.status = builder.status;
+        this.date = builder.date;
+        List<CharSequence> names = new ArrayList<>(builder.names);
+        List<CharSequence> values = new ArrayList<>(builder.values);
+        if (builder.body != null) {
+            names.add(HttpHeaders.CONTENT_LENGTH);
+            values.add(HttpHeaders.createOptimized(Integer.toString(builder.body.length)));
+            //写出时netty会release， unreleasable保证同一个buffer可以一直写下去
+            this.body = Buffer.buffer(Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(builder.body)));
+        } else {
+            this.body = null;
+        }
+        this.names = names.toArray(new CharSequence[0]);
+        this.values = values.toArray(new CharSequence[0]);
+        this.append = new boolean[this.names.length];
+        for (int i = 0; i < this.names.length; i++) {
+            for (int j = 0; j < i && !append[i]; j++) {
+                append[i] = this.names[j].toString().equalsIgnoreCase(this.names[i].toString());
+            }
+        }
+    }
+
+    public static Builder builder(int status) {
+        return new Builder(status);
+    }
+
+    /**
+     * @param value JsonObject、JsonArray、{@link me.wang007.annotation.JsonCodec} pojo等， 构建时编码一次
+     * @return 200, application/json
+     */
+    public static ConstantResponse json(Object value) {
+        return builder(200).contentType(Json_Type).body(PojoCodecs.encode(value)).build();
+    }
+
+    /**
+     * @param text 文本
+     * @return 200, text/plain
+     */
+    public static ConstantResponse text(String text) {
+        return builder(200).contentType(Text_Type).body(text).build();
+    }
+
+    /**
+     * @param status 状态码
+     * @return 没有响应体的响应
+     */
+    public static ConstantResponse status(int status) {
+        return builder(status).build();
+    }
+
+    @Override
+    public void handle(RoutingContext ctx) {
+        DateHeader dateHeader = null;
+        if (date) {
+            dateHeader = this.dateHeader;
+            if (dateHeader == null || vertx != ctx.vertx()) {
+                dateHeader = DateHeader.get(ctx.vertx());
+                this.dateHeader = dateHeader;
+                this.vertx = ctx.vertx();
+            }
+        }
+        write(ctx.response(), dateHeader);
+    }
+
+    /**
+     * 写出响应
+     *
+     * @param response   response
+     * @param dateHeader Date响应头， null：不输出
+     */
+    public void write(HttpServerResponse response, DateHeader dateHeader) {
+        response.setStatusCode(status);
+        MultiMap headers = response.headers();
+        for (int i = 0; i < names.length; i++) {
+            //覆盖response上已有的同名响应头(例如之前的handler设置的Content-Type)， builder中同名的多个值都保留
+            if (append[i]) headers.add(names[i], values[i]);
+            else headers.set(names[i], values[i]);
+        }
+        if (date && dateHeader != null) headers.set(HttpHeaders.DATE, dateHeader.value());
+        if (body == null) response.end();
+        else response.end(body);
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public static class Builder {
+
+        private final int status;
+
+        private final List<CharSequence> names = new ArrayList<>();
+
+        private final List<CharSequence> values = new ArrayList<>();
+
+        private byte[] body;
+
+        private boolean date = true;
+
+        private Builder(int status) {
+            this.status = status;
+        }
+
+        public Builder header(CharSequence name, CharSequence value) {
+            names.add(optimized(name));
+            values.add(optimized(value));
+            return this;
+        }
+
+        public Builder contentType(CharSequence contentType) {
+            return header(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+
+        public Builder body(Buffer body) {
+            this.body = body.getBytes();
+            return this;
+        }
+
+        public Builder body(String body) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            return this;
+        }
+
+        /**
+         * @param date 是否输出Date响应头， 默认：true
+         * @return this
+         */
+        public Builder date(boolean date) {
+            this.date = date;
+            return this;
+        }
+
+        public ConstantResponse build() {
+            return new ConstantResponse(this);
+        }
+
+        private static CharSequence optimized(CharSequence s) {
+            return s instanceof String ? HttpHeaders.createOptimized((String) s) : s;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package me.wang007.web;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.impl.VertxInternal;
+import me.wang007.boot.VertxBoot;
+import me.wang007.shared.SharedKey;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存的Date响应头， 由定时器每秒刷新一次， 响应时不需要再格式化时间。
+ *
+ * 同一个vertx只创建一个， 只有一个定时器， vertx关闭时取消。
+ * 定时器所在的verticle被卸载之后定时器也会被取消， 此时读取时发现过期会自己刷新。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public final class DateHeader {
+
+    public static final SharedKey<DateHeader> Key = SharedKey.of("dateHeader", DateHeader.class);
+
+    private static final long Refresh_Interval = 1000;
+
+    /**
+     * http响应头中的时间， 即RFC 7231的IMF-fixdate。 {@link DateTimeFormatter#RFC_1123_DATE_TIME}的日期不补0， 不能使用
+     */
+    private static final DateTimeFormatter Http_Date =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    /**
+     * 没有通过vertxBoot启动的vertx {@code ->} dateHeader， vertx关闭时移除
+     */
+    private static final Map<Vertx, DateHeader> standalone = new ConcurrentHashMap<>();
+
+    private final Vertx vertx;
+
+    private final long timerId;
+
+    private volatile Value value;
+
+    private DateHeader(Vertx vertx) {
+        this.vertx = vertx;
+        value = format(System.currentTimeMillis());
+        timerId = vertx.setPeriodic(Refresh_Interval, id -> value = format(System.currentTimeMillis()));
+        ((VertxInternal) vertx).addCloseHook(completion -> {
+            close();
+            completion.complete();
+        });
+    }
+
+    /**
+     * 同一个vertx共享一个。 通过vertxBoot启动时保存在{@link VertxBoot#registry()}中
+     *
+     * @param vertx vertx
+     * @return dateHeader
+     */
+    public static DateHeader get(Vertx vertx) {
+        VertxBoot boot = VertxBoot.get(vertx);
+        if (boot == null) return standalone.computeIfAbsent(vertx, DateHeader::new);
+        return boot.registry().computeIfAbsent(Key, () -> new DateHeader(vertx));
+    }
+
+    /**
+     * 取消定时器， vertx关闭时自动调用。 之后读取时发现过期会自己刷新
+     */
+    public void close() {
+        vertx.cancelTimer(timerId);
+        standalone.remove(vertx, this);
+    }
+
+    /**
+     * @return Date响应头的值
+     */
+    public CharSequence value() {
+        Value v = value;
+        long now = System.currentTimeMillis();
+        if (now - v.time >= Refresh_Interval * 2) value = v = format(now);
+        return v.text;
+    }
+
+    /**
+     * @param millis 时间戳， 单位：ms
+     * @return IMF-fixdate格式的时间， 例如：Fri, 06 Nov 2026 08:09:07 GMT
+     */
+    public static String httpDate(long millis) {
+        return Http_Date.format(Instant.ofEpochMilli(millis));
+    }
+
+    private static Value format(long now) {
+        return new Value(HttpHeaders.createOptimized(httpDate(now)), now);
+    }
+
+    private static class Value {
+
+        final CharSequence text;
+
+        final long time;
+
+        Value(CharSequence text, long time) {
+            this.text = text;
+            this.time = time;
+        }
+    }
+}
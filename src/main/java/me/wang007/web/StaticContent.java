@@ -0,0 +1,479 @@
+package me.wang007.web;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileProps;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.impl.MimeMapping;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.RoutingContext;
+import me.wang007.router.RouteUtils;
+import me.wang007.shared.SharedKey;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 静态文件。
+ *
+ * 文件的元信息(Content-Type、ETag、Last-Modified等响应头)在第一次访问时计算好， 之后直接使用。
+ * 小文件连同gzip、br版本一起缓存在内存中， 响应时不读磁盘也不压缩； 大文件通过{@link HttpServerResponse#sendFile(String)}响应，
+ * 没有开启ssl和httpServer压缩时由内核零拷贝发送。
+ *
+ * 文件旁边有预先压缩好的.br、.gz文件时(例如：app.js.br)， 根据Accept-Encoding直接发送压缩文件。
+ * 没有.gz文件时， 缓存的文本类文件在加载时gzip压缩一次。 jdk没有brotli编码器， br只使用预先压缩好的文件。
+ *
+ * 运行期间文件被认为是不变的， 更新文件之后调用{@link #invalidate()}。 不存在的文件交给下一个route处理，
+ * 并且在{@link StaticContentOptions#getNotFoundTtl()}内不再访问磁盘。
+ *
+ * 缓存的文件数和内存都是有界的， 超过{@link StaticContentOptions#getCacheMaxEntries()}或者{@link StaticContentOptions#getCacheMaxSize()}时
+ * 淘汰最久未访问的文件(LRU)。 命中时只记录访问时间， 不加锁； 淘汰在加载文件的worker线程中进行。
+ *
+ * 所有httpServer实例共享， 线程安全。
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class StaticContent {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticContent.class);
+
+    public static final SharedKey<StaticContent> Key = SharedKey.of("staticContent", StaticContent.class);
+
+    /**
+     * 小于该大小的文件不压缩
+     */
+    private static final int Min_Compress_Size = 256;
+
+    private static final CharSequence Br = HttpHeaders.createOptimized("br");
+    private static final CharSequence Gzip = HttpHeaders.createOptimized("gzip");
+
+    private final Vertx vertx;
+
+    private final StaticContentOptions options;
+
+    /**
+     * 路径前缀， 不以"/"结尾
+     */
+    private final String prefix;
+
+    private final String root;
+
+    /**
+     * relative path -> file
+     */
+    private final ConcurrentHashMap<String, StaticFile> files = new ConcurrentHashMap<>();
+
+    /**
+     * 不存在的文件 relative path -> 过期时间(System.nanoTime)
+     */
+    private final ConcurrentHashMap<String, Long> missing = new ConcurrentHashMap<>();
+
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    private final long notFoundTtl;
+
+    public StaticContent(Vertx vertx, StaticContentOptions options) {
+        this.vertx = vertx;
+        this.options = options;
+        String path = RouteUtils.checkPath(options.getPath());
+        this.prefix = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        String root = options.getRoot();
+        this.root = root.isEmpty() || root.endsWith("/") ? root : root + "/";
+        this.notFoundTtl = TimeUnit.MILLISECONDS.toNanos(Math.max(0, options.getNotFoundTtl()));
+    }
+
+    /**
+     * @return 注册的route路径
+     */
+    public String routePath() {
+        return prefix + "/*";
+    }
+
+    public Handler<RoutingContext> handler() {
+        return this::handle;
+    }
+
+    /**
+     * 清空缓存， 文件更新之后调用
+     */
+    public synchronized void invalidate() {
+        files.clear();
+        missing.clear();
+        cachedBytes.set(0);
+    }
+
+    /**
+     * @return 缓存的文件数
+     */
+    public int cachedFiles() {
+        return files.size();
+    }
+
+    /**
+     * @return 内存中缓存的字节数
+     */
+    public long cachedBytes() {
+        return cachedBytes.get();
+    }
+
+    private void handle(RoutingContext ctx) {
+        HttpMethod method = ctx.request().method();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            ctx.next();
+            return;
+        }
+        String relative = relativePath(ctx.normalizedPath());
+        if (relative == null) {
+            ctx.next();
+            return;
+        }
+        StaticFile file = files.get(relative);
+        if (file != null) {
+            file.accessed = System.nanoTime();
+            send(ctx, file);
+            return;
+        }
+        if (notFound(relative)) {
+            ctx.next();
+            return;
+        }
+        Future<StaticFile> load = vertx.executeBlocking(promise -> {
+            try {
+                promise.complete(loadAndCache(relative));
+            } catch (Exception e) {
+                promise.fail(e);
+            }
+        }, false);
+        load.onComplete(ar -> {
+            if (ar.failed()) {
+                logger.warn("load static file failed. path: " + relative, ar.cause());
+                ctx.fail(ar.cause());
+                return;
+            }
+            StaticFile loaded = ar.result();
+            if (loaded == null) ctx.next();
+            else send(ctx, loaded);
+        });
+    }
+
+    /**
+     * @return 文件最近被确认不存在， 并且还没有过期
+     */
+    private boolean notFound(String relative) {
+        if (notFoundTtl <= 0) return false;
+        Long expireAt = missing.get(relative);
+        if (expireAt == null) return false;
+        if (expireAt - System.nanoTime() > 0) return true;
+        missing.remove(relative, expireAt);
+        return false;
+    }
+
+    /**
+     * 在worker线程中执行， 加载文件并放入缓存， 不存在时记录到{@link #missing}
+     *
+     * @return null：文件不存在
+     */
+    private StaticFile loadAndCache(String relative) throws IOException {
+        StaticFile loaded = load(relative);
+        if (loaded == null) {
+            if (notFoundTtl > 0) {
+                long now = System.nanoTime();
+                //随机路径的请求不能让不存在的记录无限增长
+                if (missing.size() >= options.getCacheMaxEntries()) missing.values().removeIf(expireAt -> expireAt - now <= 0);
+                if (missing.size() >= options.getCacheMaxEntries()) missing.clear();
+                missing.put(relative, now + notFoundTtl);
+            }
+            return null;
+        }
+        synchronized (this) {
+            StaticFile prev = files.putIfAbsent(relative, loaded);
+            if (prev != null) return prev;  //并发加载了同一个文件
+            missing.remove(relative);
+            cachedBytes.addAndGet(loaded.memory);
+            evict();
+        }
+        return loaded;
+    }
+
+    /**
+     * 淘汰最久未访问的文件， 直到文件数和内存都不超过上限。 只在新文件放入缓存时调用， 由this保护
+     */
+    private void evict() {
+        int maxEntries = Math.max(1, options.getCacheMaxEntries());
+        while (files.size() > maxEntries || (cachedBytes.get() > options.getCacheMaxSize() && !files.isEmpty())) {
+            Map.Entry<String, StaticFile> eldest = null;
+            for (Map.Entry<String, StaticFile> e : files.entrySet()) {
+                if (eldest == null || e.getValue().accessed - eldest.getValue().accessed < 0) eldest = e;
+            }
+            if (eldest == null) return;
+            files.remove(eldest.getKey());
+            cachedBytes.addAndGet(-eldest.getValue().memory);
+        }
+    }
+
+    private void send(RoutingContext ctx, StaticFile file) {
+        HttpServerRequest request = ctx.request();
+        HttpServerResponse response = ctx.response();
+        Variant variant = file.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        MultiMap headers = response.headers();
+        headers.set(HttpHeaders.CONTENT_TYPE, file.contentType);
+        headers.set(HttpHeaders.LAST_MODIFIED, file.lastModified);
+        headers.set(HttpHeaders.ETAG, variant.etag);
+        if (file.cacheControl != null) headers.set(HttpHeaders.CACHE_CONTROL, file.cacheControl);
+        if (file.vary) headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (variant.encoding != null) headers.set(HttpHeaders.CONTENT_ENCODING, variant.encoding);
+
+        if (notModified(request, file)) {
+            response.setStatusCode(304).end();
+            return;
+        }
+        if (variant.body != null || HttpMethod.HEAD.equals(request.method())) {
+            headers.set(HttpHeaders.CONTENT_LENGTH, variant.length);
+            if (variant.body == null) response.end();
+            else response.end(Buffer.buffer(Unpooled.wrappedBuffer(variant.body)));
+            return;
+        }
+        response.sendFile(variant.file, ar -> {
+            if (ar.failed() && !response.ended()) ctx.fail(ar.cause());
+        });
+    }
+
+    private static boolean notModified(HttpServerRequest request, StaticFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) return "*".equals(ifNoneMatch) || ifNoneMatch.contains(file.tag);
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != null && ifModifiedSince.equals(file.lastModifiedValue);
+    }
+
+    /**
+     * @param path 规范化之后的请求路径
+     * @return 相对于根目录的路径， null：不处理
+     */
+    private String relativePath(String path) {
+        if (path == null || !path.startsWith(prefix)) return null;
+        String rest = path.substring(prefix.length());
+        if (rest.isEmpty()) rest = "/";
+        if (rest.charAt(0) != '/') return null;     //例如：前缀/static， 请求/staticxxx
+        if (rest.endsWith("/")) rest += options.getIndexPage();
+        if (rest.contains("/..") || rest.indexOf('\\') >= 0 || rest.indexOf('\0') >= 0) return null;
+        return rest.substring(1);
+    }
+
+    /**
+     * 在worker线程中执行
+     *
+     * @return null：文件不存在
+     */
+    private StaticFile load(String relative) throws IOException {
+        FileSystem fs = vertx.fileSystem();
+        String path = root + relative;
+        if (!fs.existsBlocking(path)) return null;
+        FileProps props = fs.propsBlocking(path);
+        if (!props.isRegularFile()) return null;
+
+        long size = props.size();
+        String contentType = contentType(relative);
+        String brFile = options.isPrecompressed() ? precompressed(fs, path + ".br") : null;
+        String gzFile = options.isPrecompressed() ? precompressed(fs, path + ".gz") : null;
+
+        byte[] body = null, br = null, gz = null;
+        long memory = 0;
+        if (size <= options.getCacheMaxFileSize()) {
+            body = fs.readFileBlocking(path).getBytes();
+            if (brFile != null) br = readSmall(fs, brFile);
+            if (gzFile != null) gz = readSmall(fs, gzFile);
+            else if (options.isCompress() && body.length >= Min_Compress_Size && compressible(contentType)) {
+                byte[] compressed = gzip(body);
+                if (compressed.length < body.length * 0.9) gz = compressed;   //压缩效果不明显时不使用
+            }
+            memory = body.length + (br == null ? 0 : br.length) + (gz == null ? 0 : gz.length);
+            if (memory > options.getCacheMaxSize()) {
+                //单个文件就超过缓存上限， 通过sendFile响应
+                memory = 0;
+                body = br = gz = null;
+            }
+        }
+
+        String tag = Long.toHexString(size) + "-" + Long.toHexString(props.lastModifiedTime());
+        Variant identity = new Variant("\"" + tag + "\"", null, body, path, size);
+        Variant brVariant = br != null || brFile != null ?
+                new Variant("\"" + tag + "-br\"", Br, br, brFile, br != null ? br.length : fs.propsBlocking(brFile).size()) : null;
+        Variant gzVariant = gz != null || gzFile != null ?
+                new Variant("\"" + tag + "-gz\"", Gzip, gz, gzFile, gz != null ? gz.length : fs.propsBlocking(gzFile).size()) : null;
+
+        String lastModified = DateHeader.httpDate(props.lastModifiedTime());
+        CharSequence cacheControl = options.getMaxAge() >= 0 ? HttpHeaders.createOptimized("public, max-age=" + options.getMaxAge()) : null;
+        return new StaticFile(tag, HttpHeaders.createOptimized(contentType), lastModified, cacheControl,
+                identity, brVariant, gzVariant, memory);
+    }
+
+    private static String precompressed(FileSystem fs, String path) {
+        return fs.existsBlocking(path) && fs.propsBlocking(path).isRegularFile() ? path : null;
+    }
+
+    private byte[] readSmall(FileSystem fs, String path) {
+        if (fs.propsBlocking(path).size() > options.getCacheMaxFileSize()) return null;
+        return fs.readFileBlocking(path).getBytes();
+    }
+
+    private static String contentType(String relative) {
+        String type = MimeMapping.getMimeTypeForFilename(relative);
+        if (type == null) return "application/octet-stream";
+        if (type.startsWith("text/") || "application/javascript".equals(type) || "application/json".equals(type)) {
+            return type + ";charset=utf-8";
+        }
+        return type;
+    }
+
+    private static boolean compressible(String contentType) {
+        return contentType.startsWith("text/") || contentType.startsWith("application/javascript")
+                || contentType.startsWith("application/json") || contentType.startsWith("application/xml")
+                || contentType.startsWith("image/svg+xml") || contentType.startsWith("application/wasm");
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 64);
+        //只压缩一次， 使用最高压缩级别
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param acceptEncoding 请求头Accept-Encoding
+     * @param coding         编码， 例如：br
+     * @return 是否接受该编码， q=0表示不接受
+     */
+    private static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) return false;
+        int len = acceptEncoding.length();
+        int n = coding.length();
+        int i = 0;
+        while (i < len) {
+            int end = acceptEncoding.indexOf(',', i);
+            if (end < 0) end = len;
+            int s = i;
+            while (s < end && acceptEncoding.charAt(s) == ' ') s++;
+            if (acceptEncoding.regionMatches(true, s, coding, 0, n)) {
+                int j = s + n;
+                while (j < end && acceptEncoding.charAt(j) == ' ') j++;
+                if (j == end) return true;
+                if (acceptEncoding.charAt(j) == ';') return !zeroQuality(acceptEncoding.substring(j + 1, end));
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    private static boolean zeroQuality(String params) {
+        int q = params.indexOf("q=");
+        if (q < 0) return false;
+        try {
+            return Double.parseDouble(params.substring(q + 2).trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static class Variant {
+
+        final CharSequence etag;
+
+        /**
+         * Content-Encoding， null：未压缩
+         */
+        final CharSequence encoding;
+
+        /**
+         * 缓存的内容， null：通过sendFile发送{@link #file}
+         */
+        final byte[] body;
+
+        final String file;
+
+        final CharSequence length;
+
+        Variant(String etag, CharSequence encoding, byte[] body, String file, long length) {
+            this.etag = HttpHeaders.createOptimized(etag);
+            this.encoding = encoding;
+            this.body = body;
+            this.file = file;
+            this.length = HttpHeaders.createOptimized(Long.toString(length));
+        }
+    }
+
+    private static class StaticFile {
+
+        /**
+         * size-lastModified， 用于If-None-Match
+         */
+        final String tag;
+
+        final CharSequence contentType;
+
+        final String lastModifiedValue;
+
+        final CharSequence lastModified;
+
+        final CharSequence cacheControl;
+
+        final Variant identity;
+
+        final Variant br;
+
+        final Variant gzip;
+
+        final boolean vary;
+
+        /**
+         * 占用的缓存字节数
+         */
+        final long memory;
+
+        /**
+         * 最近一次访问的时间(System.nanoTime)， 用于LRU淘汰
+         */
+        volatile long accessed = System.nanoTime();
+
+        StaticFile(String tag, CharSequence contentType, String lastModified, CharSequence cacheControl,
+                   Variant identity, Variant br, Variant gzip, long memory) {
+            this.tag = tag;
+            this.contentType = contentType;
+            this.lastModifiedValue = lastModified;
+            this.lastModified = HttpHeaders.createOptimized(lastModified);
+            this.cacheControl = cacheControl;
+            this.identity = identity;
+            this.br = br;
+            this.gzip = gzip;
+            this.vary = br != null || gzip != null;
+            this.memory = memory;
+        }
+
+        Variant select(String acceptEncoding) {
+            if (br != null && accepts(acceptEncoding, "br")) return br;
+            if (gzip != null && accepts(acceptEncoding, "gzip")) return gzip;
+            return identity;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package me.wang007.web;
+
+import me.wang007.constant.VertxBootConst;
+import me.wang007.utils.StringUtils;
+
+import java.util.function.Function;
+
+/**
+ * {@link StaticContent}的参数， 一般通过{@link #fromProperties(Function)}从application.properties中读取
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class StaticContentOptions {
+
+    /**
+     * 访问路径前缀， 例如：/static， 该前缀下的所有请求都由{@link StaticContent}处理
+     */
+    private String path = "/";
+
+    /**
+     * 文件根目录， 相对路径时先从工作目录查找， 再从classpath中查找
+     */
+    private String root = "webroot";
+
+    /**
+     * 访问目录时返回的文件
+     */
+    private String indexPage = "index.html";
+
+    /**
+     * 不超过该大小的文件缓存在内存中， 单位：byte。 更大的文件通过sendFile响应
+     */
+    private int cacheMaxFileSize = 64 * 1024;
+
+    /**
+     * 内存中缓存的文件(包括压缩版本)的总大小上限， 单位：byte。 超过之后淘汰最久未访问的文件
+     */
+    private long cacheMaxSize = 32 * 1024 * 1024;
+
+    /**
+     * 缓存的文件数上限(包括通过sendFile响应的大文件的元信息)， 超过之后淘汰最久未访问的文件。 同时也是不存在的文件记录数的上限
+     */
+    private int cacheMaxEntries = 10000;
+
+    /**
+     * 文件不存在的结果缓存多久， 单位：ms。 {@code <=} 0 时每次都检查磁盘
+     */
+    private long notFoundTtl = 10_000;
+
+    /**
+     * Cache-Control的max-age， 单位：s。 {@code <} 0 时不输出Cache-Control
+     */
+    private long maxAge = 86400;
+
+    /**
+     * 缓存文件时是否预先gzip压缩文本类的文件
+     */
+    private boolean compress = true;
+
+    /**
+     * 是否使用文件旁边预先压缩好的.br、.gz文件， 例如：app.js.br
+     */
+    private boolean precompressed = true;
+
+    /**
+     * @param properties 属性， 例如：vertxBoot::getProperty
+     * @return 参数， 没有配置{@link VertxBootConst#Static_Path_Key}时为null
+     */
+    public static StaticContentOptions fromProperties(Function<String, String> properties) {
+        String path = properties.apply(VertxBootConst.Static_Path_Key);
+        if (StringUtils.isBlank(path)) return null;
+        StaticContentOptions options = new StaticContentOptions().setPath(path.trim());
+        String value = properties.apply(VertxBootConst.Static_Root_Key);
+        if (StringUtils.isNotBlank(value)) options.setRoot(value.trim());
+        value = properties.apply(VertxBootConst.Static_Cache_Max_File_Size_Key);
+        if (StringUtils.isNotBlank(value)) options.setCacheMaxFileSize(Integer.parseInt(value.trim()));
+        value = properties.apply(VertxBootConst.Static_Cache_Max_Size_Key);
+        if (StringUtils.isNotBlank(value)) options.setCacheMaxSize(Long.parseLong(value.trim()));
+        value = properties.apply(VertxBootConst.Static_Cache_Max_Entries_Key);
+        if (StringUtils.isNotBlank(value)) options.setCacheMaxEntries(Integer.parseInt(value.trim()));
+        value = properties.apply(VertxBootConst.Static_Not_Found_Ttl_Key);
+        if (StringUtils.isNotBlank(value)) options.setNotFoundTtl(Long.parseLong(value.trim()));
+        value = properties.apply(VertxBootConst.Static_Max_Age_Key);
+        if (StringUtils.isNotBlank(value)) options.setMaxAge(Long.parseLong(value.trim()));
+        value = properties.apply(VertxBootConst.Static_Compress_Key);
+        if (StringUtils.isNotBlank(value)) options.setCompress(Boolean.parseBoolean(value.trim()));
+        return options;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public StaticContentOptions setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public StaticContentOptions setRoot(String root) {
+        this.root = root;
+        return this;
+    }
+
+    public String getIndexPage() {
+        return indexPage;
+    }
+
+    public StaticContentOptions setIndexPage(String indexPage) {
+        this.indexPage = indexPage;
+        return this;
+    }
+
+    public int getCacheMaxFileSize() {
+        return cacheMaxFileSize;
+    }
+
+    public StaticContentOptions setCacheMaxFileSize(int cacheMaxFileSize) {
+        this.cacheMaxFileSize = cacheMaxFileSize;
+        return this;
+    }
+
+    public long getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public StaticContentOptions setCacheMaxSize(long cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+        return this;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public StaticContentOptions setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+        return this;
+    }
+
+    public long getNotFoundTtl() {
+        return notFoundTtl;
+    }
+
+    public StaticContentOptions setNotFoundTtl(long notFoundTtl) {
+        this.notFoundTtl = notFoundTtl;
+        return this;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public StaticContentOptions setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+        return this;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public StaticContentOptions setCompress(boolean compress) {
+        this.compress = compress;
+        return this;
+    }
+
+    public boolean isPrecompressed() {
+        return precompressed;
+    }
+
+    public StaticContentOptions setPrecompressed(boolean precompressed) {
+        this.precompressed = precompressed;
+        return this;
+    }
+}
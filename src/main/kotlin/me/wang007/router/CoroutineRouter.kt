@@ -1,98 +1,166 @@
-//package me.wang007.router
-//
-//import io.vertx.core.Future
-//import io.vertx.core.Vertx
-//import io.vertx.ext.web.Route
-//import io.vertx.ext.web.Router
-//import io.vertx.ext.web.RoutingContext
-//import io.vertx.kotlin.coroutines.dispatcher
-//import kotlinx.coroutines.CoroutineScope
-//import kotlinx.coroutines.coroutineScope
-//import kotlinx.coroutines.launch
-//import me.wang007.router.LoadRouter
-//import me.wang007.verticle.HttpServerVerticle
-//import kotlin.coroutines.CoroutineContext
-//
-///**
-// *  实现kt协程的LoadRouter
-// *
-// *  created by wang007 on 2019/2/28
-// */
-//abstract class CoroutineRouter<T: HttpServerVerticle> : LoadRouter, CoroutineScope {
-//
-//    protected lateinit var vertx: Vertx
-//
-//    protected lateinit var router: Router
-//
-//    override val coroutineContext: CoroutineContext by lazy { vertx.dispatcher() }
-//
-//
-//    final override fun start(future: Future<Void>) {
-//        launch {
-//            start()
-//            future.complete()
-//        }
-//    }
-//
-//    final override fun <E : HttpServerVerticle?> init(router: Router?, vertx: Vertx?, server: E) {
-//        super.init(router, vertx, server)
-//        this.vertx = vertx!!
-//        this.router = router!!
-//        init(server as T)
-//    }
-//
-//
-//
-//
-//    /**
-//     * 子类进行初始化
-//     */
-//    protected open fun init(http: T) {}
-//
-//    protected abstract suspend fun start()
-//
-//
-//
-//
-////    /**
-////     * 拓展route协程handler
-////     */
-////    suspend fun Route.coHandler(handler: suspend (RoutingContext) -> Unit): Route = handler { rc ->
-////        launch {
-////            try {
-////                handler(rc)
-////            } catch (e: Throwable) {
-////                rc.fail(e)
-////            }
-////        }
-////    }
-////
-////    /**
-////     * 拓展Router的协程方法
-////     *
-////     */
-////    suspend fun Router.route(path: String, handler: suspend (RoutingContext) -> Unit): Route {
-////        return this.route(path).coHandler(handler)
-////    }
-////
-////    suspend fun Router.get(path: String, handler: suspend (RoutingContext) -> Unit): Route {
-////        return this.get(path).coHandler(handler)
-////    }
-////
-////    suspend fun Router.post(path: String, handler: suspend (RoutingContext) -> Unit): Route {
-////        return this.post(path).coHandler(handler)
-////    }
-////
-////    suspend fun Router.put(path: String, handler: suspend (RoutingContext) -> Unit): Route {
-////        return this.put(path).coHandler(handler)
-////    }
-////
-////    suspend fun Router.patch(path: String, handler: suspend (RoutingContext) -> Unit): Route {
-////        return this.patch(path).coHandler(handler)
-////    }
-////
-////    suspend fun Router.delete(path: String, handler: suspend (RoutingContext) -> Unit): Route {
-////        return this.delete(path).coHandler(handler)
-////    }
-//
-//}
\ No newline at end of file
+package me.wang007.router
+
+import io.vertx.core.Context
+import io.vertx.core.Promise
+import io.vertx.core.Vertx
+import io.vertx.ext.web.Route
+import io.vertx.ext.web.Router
+import io.vertx.ext.web.RoutingContext
+import io.vertx.kotlin.coroutines.dispatcher
+import kotlinx.coroutines.*
+import me.wang007.verticle.HttpServerVerticle
+import kotlin.coroutines.CoroutineContext
+
+/**
+ *  实现kt协程的LoadRouter
+ *
+ *  handler运行在verticle的context dispatcher上，即和普通的callback handler在同一个eventLoop上。
+ *  客户端断开连接时，handler所在的协程会被取消， 避免已经被放弃的请求继续调用下游服务。
+ *
+ *  <code>
+ *      \@Route(mountPath = "/user")
+ *      class UserRouter : CoroutineRouter<HttpServerVerticle>() {
+ *
+ *          override suspend fun start(router: Router) {
+ *              router.get("/:id", maxConcurrency = 100) { rc ->
+ *                  val user = userClient.find(rc.pathParam("id")).await()
+ *                  rc.json(user)
+ *              }
+ *          }
+ *      }
+ *  </code>
+ *
+ *  created by wang007 on 2019/2/28
+ */
+abstract class CoroutineRouter<T : HttpServerVerticle> : LoadRouter, CoroutineScope {
+
+    protected lateinit var vertx: Vertx
+
+    protected lateinit var router: Router
+
+    protected lateinit var server: T
+
+    private lateinit var context: Context
+
+    private val job = SupervisorJob()
+
+    override val coroutineContext: CoroutineContext by lazy { context.dispatcher() + job }
+
+    @Suppress("UNCHECKED_CAST")
+    final override fun <E : HttpServerVerticle> init(router: Router, vertx: Vertx, server: E) {
+        this.vertx = vertx
+        this.router = router
+        this.server = server as T
+        this.context = vertx.orCreateContext
+        init(this.server)
+    }
+
+    /**
+     * 协程以UNDISPATCHED的方式启动， 第一次挂起之前注册的route都是同步完成的。
+     * [start]执行完成之后httpServer才会监听端口
+     */
+    final override fun start(startPromise: Promise<Void>) {
+        launch(start = CoroutineStart.UNDISPATCHED) {
+            try {
+                start(router)
+                startPromise.complete()
+            } catch (e: Throwable) {
+                startPromise.fail(e)
+            }
+        }
+    }
+
+    /**
+     * verticle卸载时取消所有还在执行的协程， 子类重写时需要调用super.stop()
+     */
+    override fun stop() {
+        job.cancel()
+    }
+
+    /**
+     * 子类进行初始化
+     */
+    protected open fun init(http: T) {}
+
+    /**
+     * 在这里注册route
+     *
+     * @param router 当使用[me.wang007.annotation.Route.mountPath]挂载路径，router为subRouter
+     */
+    protected abstract suspend fun start(router: Router)
+
+    /**
+     * 拓展route协程handler
+     *
+     * @param maxConcurrency 该route最大的并发处理数，超过时直接响应503。 <= 0 表示不限制。
+     *                       每个verticle实例单独计数
+     * @param block 协程handler
+     */
+    fun Route.coHandler(maxConcurrency: Int = 0, block: suspend (RoutingContext) -> Unit): Route {
+        val limiter = if (maxConcurrency > 0) ConcurrencyLimiter(maxConcurrency) else null
+        return handler { rc ->
+            if (limiter != null && !limiter.tryAcquire()) {
+                rc.response().setStatusCode(503).end()
+                return@handler
+            }
+            val job = launch(start = CoroutineStart.UNDISPATCHED) {
+                try {
+                    block(rc)
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (e: Throwable) {
+                    rc.fail(e)
+                } finally {
+                    limiter?.release()
+                }
+            }
+            //客户端断开连接，取消协程。不占用response的closeHandler，用户代码中设置的closeHandler不会被覆盖
+            if (job.isActive) rc.addEndHandler { if (it.failed()) job.cancel() }
+        }
+    }
+
+    /**
+     * 拓展Router的协程方法
+     */
+    fun Router.route(path: String, maxConcurrency: Int = 0, handler: suspend (RoutingContext) -> Unit): Route {
+        return this.route(path).coHandler(maxConcurrency, handler)
+    }
+
+    fun Router.get(path: String, maxConcurrency: Int = 0, handler: suspend (RoutingContext) -> Unit): Route {
+        return this.get(path).coHandler(maxConcurrency, handler)
+    }
+
+    fun Router.post(path: String, maxConcurrency: Int = 0, handler: suspend (RoutingContext) -> Unit): Route {
+        return this.post(path).coHandler(maxConcurrency, handler)
+    }
+
+    fun Router.put(path: String, maxConcurrency: Int = 0, handler: suspend (RoutingContext) -> Unit): Route {
+        return this.put(path).coHandler(maxConcurrency, handler)
+    }
+
+    fun Router.patch(path: String, maxConcurrency: Int = 0, handler: suspend (RoutingContext) -> Unit): Route {
+        return this.patch(path).coHandler(maxConcurrency, handler)
+    }
+
+    fun Router.delete(path: String, maxConcurrency: Int = 0, handler: suspend (RoutingContext) -> Unit): Route {
+        return this.delete(path).coHandler(maxConcurrency, handler)
+    }
+
+    /**
+     * route的并发计数， 只在verticle的eventLoop上访问， 不需要同步
+     */
+    private class ConcurrencyLimiter(private val max: Int) {
+        private var current = 0
+
+        fun tryAcquire(): Boolean {
+            if (current >= max) return false
+            current++
+            return true
+        }
+
+        fun release() {
+            current--
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package boot;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import me.wang007.annotation.Deploy;
+import me.wang007.boot.ClusterPlacement;
+import me.wang007.boot.DeploymentState;
+import me.wang007.boot.VerticleDeployment;
+import me.wang007.cluster.LocalClusterCoordinator;
+import me.wang007.container.Component;
+import me.wang007.verticle.StartVerticleFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 多个{@link LocalClusterCoordinator}共享一个vertx模拟多个节点， 每个节点一个{@link ClusterPlacement}
+ *
+ * created by wang007 on 2026/10/19
+ */
+public class ClusterPlacementTest {
+
+    @Deploy(placement = Deploy.Placement.SINGLETON)
+    public static class SingletonVerticle extends AbstractVerticle {
+    }
+
+    /**
+     * 前{@link #failures}次启动失败
+     */
+    @Deploy(placement = Deploy.Placement.SINGLETON)
+    public static class FlakyVerticle extends AbstractVerticle {
+
+        static final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void start(Promise<Void> startPromise) {
+            if (failures.getAndDecrement() > 0) startPromise.fail("flaky");
+            else startPromise.complete();
+        }
+    }
+
+    private Vertx vertx;
+
+    private LocalClusterCoordinator.LocalCluster cluster;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        vertx.registerVerticleFactory(new StartVerticleFactory());
+        cluster = new LocalClusterCoordinator.LocalCluster();
+    }
+
+    @After
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Test
+    public void ownersTest() {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) members.add("node-" + i);
+        List<String> reversed = new ArrayList<>(members);
+        Collections.reverse(reversed);
+
+        int moved = 0;
+        for (int i = 0; i < 100; i++) {
+            String name = "verticle-" + i;
+            List<String> owners = ClusterPlacement.owners(name, members, 3);
+            Assert.assertEquals(3, owners.size());
+            //和成员列表的顺序无关
+            Assert.assertEquals(owners, ClusterPlacement.owners(name, reversed, 3));
+
+            //离开的节点不是owner时不变
+            List<String> left = new ArrayList<>(members);
+            left.removeIf(node -> !owners.contains(node) && node.endsWith("9"));
+            Assert.assertEquals(owners, ClusterPlacement.owners(name, left, 3));
+
+            //新加入的节点最多替换一个owner
+            List<String> joined = new ArrayList<>(members);
+            joined.add("node-new");
+            List<String> after = ClusterPlacement.owners(name, joined, 3);
+            List<String> kept = new ArrayList<>(after);
+            kept.retainAll(owners);
+            Assert.assertTrue(kept.size() >= 2);
+            if (after.contains("node-new")) moved++;
+        }
+        //大约 3/11 的verticle迁移到新节点
+        Assert.assertTrue("moved: " + moved, moved > 5 && moved < 60);
+
+        Assert.assertEquals(Arrays.asList("a"), ClusterPlacement.owners("v", Collections.singletonList("a"), 3));
+    }
+
+    @Test
+    public void rebalanceTest() {
+        Node a = join(SingletonVerticle.class);
+        Node b = join(SingletonVerticle.class);
+        await(() -> ready().size() == 1);
+
+        //节点加入， 单例只在一个节点上运行
+        Node c = join(SingletonVerticle.class);
+        await(() -> ready().size() == 1 && pending() == 2);
+        Node owner = ready().get(0);
+        Assert.assertEquals(ClusterPlacement.owners(SingletonVerticle.class.getName(), cluster(), 1),
+                Collections.singletonList(owner.coordinator.nodeId()));
+
+        //owner离开， 单例转移到剩下的节点
+        owner.coordinator.leave();
+        await(() -> ready().size() == 1 && ready().get(0) != owner);
+        Assert.assertFalse(owner.deployment.deployed());
+        Assert.assertTrue(owner.deployment.isStandby());
+        Assert.assertTrue(Arrays.asList(a, b, c).contains(ready().get(0)));
+    }
+
+    @Test
+    public void failoverTest() {
+        FlakyVerticle.failures.set(2);
+        Node a = join(FlakyVerticle.class);
+
+        //部署失败之后重试， 直到部署成功
+        await(() -> a.deployment.getState() == DeploymentState.READY);
+        Assert.assertEquals(-1, FlakyVerticle.failures.get());
+        Assert.assertFalse(a.deployment.isStandby());
+
+        //一直失败的单例持续重试
+        FlakyVerticle.failures.set(Integer.MAX_VALUE);
+        a.coordinator.leave();
+        await(() -> a.deployment.getState() == DeploymentState.PENDING && a.deployment.isStandby());
+        Node b = join(FlakyVerticle.class);
+        await(() -> b.deployment.getState() == DeploymentState.FAILED);
+
+        //其他节点加入之后， 不再负责的节点停止重试并待命， 由新的owner部署
+        Node c = join(FlakyVerticle.class);
+        String ownerId = ClusterPlacement.owners(FlakyVerticle.class.getName(),
+                Arrays.asList(b.coordinator.nodeId(), c.coordinator.nodeId()), 1).get(0);
+        Node owner = ownerId.equals(b.coordinator.nodeId()) ? b : c;
+        Node other = owner == b ? c : b;
+        await(() -> other.deployment.isStandby() && other.deployment.getState() == DeploymentState.PENDING);
+        FlakyVerticle.failures.set(0);
+        await(() -> owner.deployment.getState() == DeploymentState.READY);
+        Assert.assertEquals(Collections.singletonList(owner), ready());
+    }
+
+    private Node join(Class<?> verticle) {
+        Component component = Component.Builder.builder()
+                .clazz(verticle)
+                .annotations(Arrays.asList(verticle.getAnnotations()))
+                .componentName(verticle.getSimpleName())
+                .build();
+        Node node = new Node(new LocalClusterCoordinator(cluster, vertx),
+                new VerticleDeployment(component, new DeploymentOptions(), null, null, null));
+        ClusterPlacement placement = new ClusterPlacement(vertx, node.coordinator, 20);
+        placement.add(node.deployment);
+        placement.start();
+        nodes.add(node);
+        return node;
+    }
+
+    private List<String> cluster() {
+        List<String> ids = new ArrayList<>();
+        for (Node node : nodes) ids.add(node.coordinator.nodeId());
+        return ids;
+    }
+
+    private List<Node> ready() {
+        List<Node> ready = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.deployment.getState() == DeploymentState.READY) ready.add(node);
+        }
+        return ready;
+    }
+
+    private int pending() {
+        int n = 0;
+        for (Node node : nodes) {
+            if (node.deployment.getState() == DeploymentState.PENDING && node.deployment.isStandby()) n++;
+        }
+        return n;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) Assert.fail("timeout");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static final class Node {
+        final LocalClusterCoordinator coordinator;
+        final VerticleDeployment deployment;
+
+        Node(LocalClusterCoordinator coordinator, VerticleDeployment deployment) {
+            this.coordinator = coordinator;
+            this.deployment = deployment;
+        }
+    }
+}
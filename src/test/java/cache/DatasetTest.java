@@ -0,0 +1,98 @@
+package cache;
+
+import me.wang007.cache.CacheManager;
+import me.wang007.cache.DatasetParser;
+import me.wang007.cache.OffHeapStore;
+import me.wang007.exception.VertxStartException;
+import me.wang007.shared.SharedRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class DatasetTest {
+
+    /**
+     * 每行一个 key=value
+     */
+    private static DatasetParser lines(AtomicInteger calls) {
+        return (source, builder) -> {
+            calls.incrementAndGet();
+            byte[] bytes = new byte[source.remaining()];
+            source.get(bytes);
+            for (String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+                int i = line.indexOf('=');
+                if (i > 0) builder.put(line.substring(0, i), line.substring(i + 1));
+            }
+        };
+    }
+
+    @Test
+    public void loadTest() throws Exception {
+        Path dir = Files.createTempDirectory("dataset");
+        Path source = Files.write(dir.resolve("source.txt"), "a=1\nb=2\n".getBytes(StandardCharsets.UTF_8));
+        Path snapshot = dir.resolve("source.snapshot");
+        AtomicInteger calls = new AtomicInteger();
+
+        SharedRegistry registry = new SharedRegistry();
+        OffHeapStore store = CacheManager.loadDataset(registry, "kv", lines(calls), source, snapshot, 1024);
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals("2", store.get("b").toString());
+        Assert.assertSame(store, registry.get(OffHeapStore.key("kv")));
+        Assert.assertTrue(Files.isRegularFile(snapshot));
+        Assert.assertEquals(1, calls.get());
+
+        //snapshot比source新， 直接打开snapshot， 不再解析
+        OffHeapStore reopen = CacheManager.loadDataset(new SharedRegistry(), "kv", lines(calls), source, snapshot, 1024);
+        Assert.assertEquals("1", reopen.get("a").toString());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void duplicateNameTest() throws Exception {
+        Path source = Files.createTempFile("dataset", ".txt");
+        Files.write(source, "a=1\n".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger calls = new AtomicInteger();
+
+        SharedRegistry registry = new SharedRegistry();
+        OffHeapStore first = CacheManager.loadDataset(registry, "kv", lines(calls), source, null, 1024);
+        try {
+            CacheManager.loadDataset(registry, "kv", lines(calls), source, null, 1024);
+            Assert.fail("repeated dataset name should fail");
+        } catch (VertxStartException e) {
+            Assert.assertTrue(e.getMessage().contains("kv"));
+        }
+        //重复的数据集不会解析
+        Assert.assertEquals(1, calls.get());
+        Assert.assertSame(first, registry.get(OffHeapStore.key("kv")));
+    }
+
+    @Test
+    public void parseFailureTest() throws Exception {
+        Path dir = Files.createTempDirectory("dataset");
+        Path source = Files.write(dir.resolve("source.txt"), "a=1\n".getBytes(StandardCharsets.UTF_8));
+        Path snapshot = dir.resolve("source.snapshot");
+
+        SharedRegistry registry = new SharedRegistry();
+        try {
+            CacheManager.loadDataset(registry, "kv", (src, builder) -> {
+                builder.put("a", "1");
+                throw new IOException("bad line");
+            }, source, snapshot, 1024);
+            Assert.fail("parse failure should fail");
+        } catch (VertxStartException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+        Assert.assertNull(registry.get(OffHeapStore.key("kv")));
+        //解析失败不会留下不完整的snapshot
+        Assert.assertFalse(Files.exists(snapshot));
+        Assert.assertFalse(Files.exists(dir.resolve("source.snapshot.tmp")));
+    }
+}
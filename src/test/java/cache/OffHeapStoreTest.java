@@ -0,0 +1,47 @@
+package cache;
+
+import me.wang007.cache.OffHeapStore;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class OffHeapStoreTest {
+
+    @Test
+    public void directTest() {
+        OffHeapStore.Builder builder = OffHeapStore.builder().slabSize(1024);
+        for (int i = 0; i < 1000; i++) {
+            builder.put("key" + i, "value" + i);
+        }
+        builder.put("key1", "override");
+        OffHeapStore store = builder.build();
+
+        Assert.assertEquals(1000, store.size());
+        Assert.assertEquals("value999", store.get("key999").toString());
+        Assert.assertEquals("override", store.get("key1").toString());
+        Assert.assertNull(store.get("key1000"));
+    }
+
+    @Test
+    public void mappedTest() throws Exception {
+        Path file = Files.createTempFile("off-heap", ".bin");
+        try {
+            OffHeapStore.Builder builder = OffHeapStore.builder(file).slabSize(1024);
+            for (int i = 0; i < 1000; i++) {
+                builder.put("key" + i, "value" + i);
+            }
+            Assert.assertEquals("value10", builder.build().get("key10").toString());
+
+            OffHeapStore reopen = OffHeapStore.open(file);
+            Assert.assertEquals(1000, reopen.size());
+            Assert.assertEquals("value999", reopen.get("key999").toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
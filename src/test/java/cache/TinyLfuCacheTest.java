@@ -0,0 +1,70 @@
+package cache;
+
+import me.wang007.cache.TinyLfuCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class TinyLfuCacheTest {
+
+    @Test
+    public void boundedTest() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 0);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertEquals(900, cache.evictions());
+    }
+
+    @Test
+    public void scanResistantTest() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 0);
+        //热点数据
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get(i) == null) cache.put(i, i);
+            }
+        }
+        //一次性扫描
+        for (int i = 1000; i < 10000; i++) {
+            if (cache.get(i) == null) cache.put(i, i);
+        }
+
+        int hit = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(i) != null) hit++;
+        }
+        Assert.assertTrue("hot keys hit: " + hit, hit >= 45);
+    }
+
+    @Test
+    public void ttlTest() {
+        AtomicLong now = new AtomicLong(0);
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 1000, now::get);
+        cache.put("name", "wang007");
+        Assert.assertEquals("wang007", cache.get("name"));
+
+        now.set(999);
+        Assert.assertEquals("wang007", cache.get("name"));
+
+        now.set(1000);
+        Assert.assertNull(cache.get("name"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void invalidateTest() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 0);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Assert.assertEquals("1", cache.invalidate("a"));
+        Assert.assertNull(cache.get("a"));
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,97 @@
+package json;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.wang007.json.ImmutableJsonArray;
+import me.wang007.json.ImmutableJsonObject;
+import me.wang007.utils.CheckUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class ImmutableJsonTest {
+
+    private static JsonObject source() {
+        return new JsonObject()
+                .put("name", "wang007")
+                .put("profile", new JsonObject().put("age", 18))
+                .put("tags", new JsonArray().add("a").add(new JsonObject().put("b", 1)));
+    }
+
+    @Test
+    public void deepFreezeTest() {
+        JsonObject source = source();
+        ImmutableJsonObject json = ImmutableJsonObject.of(source);
+
+        source.getJsonObject("profile").put("age", 20);
+        Assert.assertEquals(18, (int) json.getJsonObject("profile").getInteger("age"));
+
+        Assert.assertTrue(json.getJsonObject("profile") instanceof ImmutableJsonObject);
+        Assert.assertTrue(json.getJsonArray("tags") instanceof ImmutableJsonArray);
+        Assert.assertTrue(json.getJsonArray("tags").getJsonObject(1) instanceof ImmutableJsonObject);
+
+        try {
+            json.getJsonObject("profile").put("age", 1);
+            Assert.fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        try {
+            json.getJsonArray("tags").add("c");
+            Assert.fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Test
+    public void copyFreeTest() {
+        ImmutableJsonObject json = ImmutableJsonObject.of(source());
+        Assert.assertSame(json, json.copy());
+        Assert.assertSame(json, CheckUtil.checkAndCopy(json, true));
+        Assert.assertSame(json, ImmutableJsonObject.of(json));
+
+        //放入普通的json再复制， 不可变的部分共享
+        JsonObject outer = new JsonObject().put("shared", json).copy();
+        Assert.assertSame(json, outer.getJsonObject("shared"));
+    }
+
+    @Test
+    public void mutableAndEncodeTest() {
+        JsonObject source = source();
+        ImmutableJsonObject json = ImmutableJsonObject.of(source);
+        //和JsonObject#equals一样比较类型， 保证对称
+        Assert.assertNotEquals(source, json);
+        Assert.assertNotEquals(json, source);
+        Assert.assertEquals(ImmutableJsonObject.of(source), json);
+        Assert.assertEquals(ImmutableJsonObject.of(source).hashCode(), json.hashCode());
+        Assert.assertEquals(source, json.toMutable());
+        Assert.assertEquals(source.encode(), json.encode());
+        Assert.assertEquals(json.encode(), json.toBuffer().toString());
+
+        JsonObject mutable = json.toMutable();
+        mutable.getJsonObject("profile").put("age", 30);
+        Assert.assertEquals(18, (int) json.getJsonObject("profile").getInteger("age"));
+    }
+
+    @Test
+    public void binaryTest() {
+        byte[] bytes = {1, 2, 3};
+        JsonObject source = new JsonObject()
+                .put("bytes", bytes)
+                .put("buffer", Buffer.buffer(new byte[]{4, 5}))
+                .put("list", new JsonArray().add(new byte[]{6}));
+        ImmutableJsonObject json = ImmutableJsonObject.of(source);
+        Assert.assertEquals(source.encode(), json.encode());
+
+        //修改原始数据和取出的数据都不会影响冻结的json
+        bytes[0] = 9;
+        json.getBinary("bytes")[1] = 9;
+        json.getBuffer("buffer").setByte(0, (byte) 9);
+        json.getJsonArray("list").getBinary(0)[0] = 9;
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, json.getBinary("bytes"));
+        Assert.assertArrayEquals(new byte[]{4, 5}, json.getBuffer("buffer").getBytes());
+        Assert.assertArrayEquals(new byte[]{6}, json.getJsonArray("list").getBinary(0));
+    }
+}
@@ -0,0 +1,220 @@
+package json;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import me.wang007.annotation.JsonCodec;
+import me.wang007.json.PojoCodecs;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class PojoCodecTest {
+
+    public enum Gender {MALE, FEMALE}
+
+    @JsonCodec
+    public static class Address {
+        public String city;
+        public int zip;
+    }
+
+    @JsonCodec
+    public static class Event {
+        public Gender gender;
+        public Instant at;
+    }
+
+    @JsonCodec
+    public static class Measure {
+        public float ratio;
+        public Float weight;
+        public JsonObject extra;
+    }
+
+    @JsonCodec
+    public static class User {
+        private long id;
+        private String name;
+        private boolean admin;
+        private Double score;
+        private Gender gender;
+        private Address address;
+        private List<Address> history;
+        private Map<String, Integer> counters;
+        private JsonObject extra;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        public void setAdmin(boolean admin) {
+            this.admin = admin;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+
+        public Gender getGender() {
+            return gender;
+        }
+
+        public void setGender(Gender gender) {
+            this.gender = gender;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+
+        public List<Address> getHistory() {
+            return history;
+        }
+
+        public void setHistory(List<Address> history) {
+            this.history = history;
+        }
+
+        public Map<String, Integer> getCounters() {
+            return counters;
+        }
+
+        public void setCounters(Map<String, Integer> counters) {
+            this.counters = counters;
+        }
+
+        public JsonObject getExtra() {
+            return extra;
+        }
+
+        public void setExtra(JsonObject extra) {
+            this.extra = extra;
+        }
+    }
+
+    private static User user() {
+        Address address = new Address();
+        address.city = "广州\n\"天河\"";
+        address.zip = 510000;
+        User user = new User();
+        user.setId(Long.MAX_VALUE);
+        user.setName("wang007 😀");
+        user.setAdmin(true);
+        user.setGender(Gender.MALE);
+        user.setAddress(address);
+        user.setHistory(Arrays.asList(address, address));
+        user.setCounters(Collections.singletonMap("login", 3));
+        user.setExtra(new JsonObject().put("a", 1).put("b", new JsonObject().put("c", "d")));
+        return user;
+    }
+
+    @Test
+    public void encodeTest() {
+        Buffer buffer = PojoCodecs.encode(user());
+        JsonObject json = buffer.toJsonObject();
+        Assert.assertEquals(Long.MAX_VALUE, (long) json.getLong("id"));
+        Assert.assertEquals("wang007 😀", json.getString("name"));
+        Assert.assertEquals("广州\n\"天河\"", json.getJsonObject("address").getString("city"));
+        Assert.assertEquals(2, json.getJsonArray("history").size());
+        Assert.assertEquals("MALE", json.getString("gender"));
+        Assert.assertFalse(json.containsKey("score"));  //null不输出
+        Assert.assertEquals("d", json.getJsonObject("extra").getJsonObject("b").getString("c"));
+    }
+
+    @Test
+    public void roundTripTest() {
+        User user = PojoCodecs.decode(PojoCodecs.encode(user()), User.class);
+        Assert.assertEquals(Long.MAX_VALUE, user.getId());
+        Assert.assertTrue(user.isAdmin());
+        Assert.assertNull(user.getScore());
+        Assert.assertEquals(Gender.MALE, user.getGender());
+        Assert.assertEquals(510000, user.getAddress().zip);
+        Assert.assertEquals("广州\n\"天河\"", user.getHistory().get(1).city);
+        Assert.assertEquals(3, (int) user.getCounters().get("login"));
+        Assert.assertEquals(1, (int) user.getExtra().getInteger("a"));
+    }
+
+    @Test
+    public void unknownFieldsTest() {
+        Buffer buffer = Buffer.buffer("{\"id\":1,\"unknown\":{\"x\":[1,2,{\"y\":null}]},\"score\":null,\"name\":\"n\"}");
+        User user = PojoCodecs.decode(buffer, User.class);
+        Assert.assertEquals(1, user.getId());
+        Assert.assertEquals("n", user.getName());
+        Assert.assertNull(user.getScore());
+    }
+
+    @Test
+    public void invalidValueTest() {
+        Event event = PojoCodecs.decode(Buffer.buffer("{\"gender\":\"FEMALE\",\"at\":\"2026-10-19T00:00:00Z\"}"), Event.class);
+        Assert.assertEquals(Gender.FEMALE, event.gender);
+        Assert.assertEquals(Instant.parse("2026-10-19T00:00:00Z"), event.at);
+
+        //值不合法也是DecodeException， JsonRoutes响应400
+        try {
+            PojoCodecs.decode(Buffer.buffer("{\"gender\":\"OTHER\"}"), Event.class);
+            Assert.fail();
+        } catch (DecodeException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        try {
+            PojoCodecs.decode(Buffer.buffer("{\"at\":\"yesterday\"}"), Event.class);
+            Assert.fail();
+        } catch (DecodeException e) {
+            Assert.assertTrue(e.getCause() instanceof DateTimeException);
+        }
+    }
+
+    @Test
+    public void floatAndBinaryTest() {
+        Measure measure = new Measure();
+        measure.ratio = 1.1f;
+        measure.weight = 0.3f;
+        measure.extra = new JsonObject().put("data", new byte[]{(byte) 0xfb, (byte) 0xff, 1});
+        Buffer buffer = PojoCodecs.encode(measure);
+
+        //float不扩展成double输出
+        Assert.assertTrue(buffer.toString(), buffer.toString().contains("\"ratio\":1.1,"));
+        Assert.assertTrue(buffer.toString(), buffer.toString().contains("\"weight\":0.3,"));
+
+        //byte[]和vert.x json使用同样的base64编码
+        JsonObject json = buffer.toJsonObject();
+        Assert.assertArrayEquals(new byte[]{(byte) 0xfb, (byte) 0xff, 1}, json.getJsonObject("extra").getBinary("data"));
+        Measure decoded = PojoCodecs.decode(buffer, Measure.class);
+        Assert.assertEquals(1.1f, decoded.ratio, 0);
+        Assert.assertEquals(0.3f, decoded.weight, 0);
+    }
+}
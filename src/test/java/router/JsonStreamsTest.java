@@ -0,0 +1,256 @@
+package router;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import me.wang007.router.JsonStreamOptions;
+import me.wang007.router.JsonStreams;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class JsonStreamsTest {
+
+    private Vertx vertx;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Test
+    public void pipeTest() {
+        Source source = new Source();
+        Sink sink = new Sink();
+        Future<Void> future = JsonStreams.pipe(source, sink,
+                new JsonStreamOptions().setFormat(JsonStreamOptions.Format.NDJSON).setFlushInterval(0), vertx);
+        source.emit(new JsonObject().put("a", 1));
+        source.emit(new JsonObject().put("a", 2));
+        source.end();
+
+        Assert.assertTrue(future.succeeded());
+        Assert.assertTrue(sink.ended);
+        Assert.assertEquals("{\"a\":1}\n{\"a\":2}\n", sink.content());
+
+        source = new Source();
+        sink = new Sink();
+        future = JsonStreams.pipe(source, sink,
+                new JsonStreamOptions().setFormat(JsonStreamOptions.Format.ARRAY).setFlushInterval(0), vertx);
+        source.emit(new JsonObject().put("a", 1));
+        source.emit("b");
+        source.end();
+        Assert.assertTrue(future.succeeded());
+        Assert.assertEquals(new JsonArray().add(new JsonObject().put("a", 1)).add("b"), new JsonArray(sink.content()));
+
+        //空的stream
+        source = new Source();
+        sink = new Sink();
+        future = JsonStreams.pipe(source, sink,
+                new JsonStreamOptions().setFormat(JsonStreamOptions.Format.ARRAY).setFlushInterval(0), vertx);
+        source.end();
+        Assert.assertTrue(future.succeeded());
+        Assert.assertEquals("[]", sink.content());
+    }
+
+    @Test
+    public void backpressureTest() {
+        Source source = new Source();
+        Sink sink = new Sink();
+        sink.full = true;
+        Future<Void> future = JsonStreams.pipe(source, sink, new JsonStreamOptions().setBatchSize(1).setFlushInterval(0), vertx);
+
+        //写队列满时暂停， drain之后恢复
+        source.emit(1);
+        Assert.assertTrue(source.paused);
+        Assert.assertEquals(1, sink.writes.size());
+        sink.full = false;
+        sink.drain();
+        Assert.assertFalse(source.paused);
+
+        source.emit(2);
+        Assert.assertFalse(source.paused);
+        source.end();
+        Assert.assertTrue(future.succeeded());
+        Assert.assertEquals("1\n2\n", sink.content());
+    }
+
+    @Test
+    public void batchTest() throws Exception {
+        Source source = new Source();
+        Sink sink = new Sink();
+        CompletableFuture<Integer> writes = new CompletableFuture<>();
+        CompletableFuture<String> content = new CompletableFuture<>();
+        vertx.runOnContext(v -> {
+            JsonStreams.pipe(source, sink, new JsonStreamOptions().setBatchSize(1024).setFlushInterval(10), vertx)
+                    .onSuccess(nothing -> content.complete(sink.content()));
+            //不满一批， 等到flushInterval之后一起写出
+            source.emit(1);
+            source.emit(2);
+            writes.complete(sink.writes.size());
+            vertx.setTimer(100, id -> source.end());
+        });
+        Assert.assertEquals(0, (int) writes.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("1\n2\n", content.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, sink.writes.size());
+    }
+
+    @Test
+    public void earlyCloseTest() {
+        Source source = new Source();
+        Sink sink = new Sink();
+        Future<Void> future = JsonStreams.pipe(source, sink, new JsonStreamOptions().setBatchSize(1).setFlushInterval(0), vertx);
+        source.emit(1);
+
+        //客户端断开， 暂停数据源， 之后的元素丢弃
+        sink.fail(new VertxException("Connection was closed"));
+        Assert.assertTrue(future.failed());
+        Assert.assertTrue(source.paused);
+        source.emit(2);
+        source.end();
+        Assert.assertEquals(1, sink.writes.size());
+        Assert.assertFalse(sink.ended);
+    }
+
+    /**
+     * 由测试直接驱动的数据源
+     */
+    private static class Source implements ReadStream<Object> {
+
+        Handler<Object> handler;
+        Handler<Void> endHandler;
+        boolean paused;
+
+        void emit(Object item) {
+            handler.handle(item);
+        }
+
+        void end() {
+            endHandler.handle(null);
+        }
+
+        @Override
+        public ReadStream<Object> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> handler(Handler<Object> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> pause() {
+            paused = true;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> resume() {
+            paused = false;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> fetch(long amount) {
+            return resume();
+        }
+
+        @Override
+        public ReadStream<Object> endHandler(Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+    }
+
+    /**
+     * 记录写入的buffer， 写队列是否满由测试控制
+     */
+    private static class Sink implements WriteStream<Buffer> {
+
+        final List<Buffer> writes = new ArrayList<>();
+        Handler<Throwable> exceptionHandler;
+        Handler<Void> drainHandler;
+        boolean full;
+        boolean ended;
+
+        String content() {
+            Buffer all = Buffer.buffer();
+            for (Buffer b : writes) all.appendBuffer(b);
+            return all.toString();
+        }
+
+        void drain() {
+            drainHandler.handle(null);
+        }
+
+        void fail(Throwable e) {
+            exceptionHandler.handle(e);
+        }
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            this.exceptionHandler = handler;
+            return this;
+        }
+
+        @Override
+        public Future<Void> write(Buffer data) {
+            writes.add(data.copy());
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+            handler.handle(write(data));
+        }
+
+        @Override
+        public Future<Void> end() {
+            ended = true;
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public void end(Handler<AsyncResult<Void>> handler) {
+            handler.handle(end());
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return full;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+            this.drainHandler = handler;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package socket;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.json.JsonObject;
+import me.wang007.annotation.Socket.SlowConsumer;
+import me.wang007.socket.Broadcaster;
+import me.wang007.socket.SocketConnection;
+import me.wang007.socket.SocketEndpoint;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class BroadcasterTest {
+
+    /**
+     * 写队列满之前最多广播的次数
+     */
+    private static final int Max_Publish = 4000;
+
+    private Vertx vertx;
+
+    private HttpClient client;
+
+    private Broadcaster broadcaster;
+
+    private int port;
+
+    /**
+     * 最近一个建立的连接和所在的context
+     */
+    private volatile SocketConnection connection;
+
+    private volatile Context context;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        broadcaster = new Broadcaster();
+    }
+
+    @After
+    public void tearDown() {
+        vertx.close();
+    }
+
+    /**
+     * 按照query订阅topic， 收到的消息加上echo:前缀直接发送回去
+     */
+    private void start(SlowConsumer slowConsumer) throws Exception {
+        SocketEndpoint endpoint = new SocketEndpoint() {
+            @Override
+            public void onOpen(SocketConnection conn) {
+                if (conn.query() != null) conn.subscribe(conn.query());
+                context = Vertx.currentContext();
+                connection = conn;
+            }
+
+            @Override
+            public void onMessage(SocketConnection conn, Buffer message) {
+                conn.send("echo:" + message);
+            }
+        };
+        HttpServer server = vertx.createHttpServer().webSocketHandler(ws -> {
+            ws.setWriteQueueMaxSize(1024);
+            broadcaster.accept(ws, endpoint, slowConsumer);
+        });
+        port = await(server.listen(0)).actualPort();
+    }
+
+    private Client connect(String topic) throws Exception {
+        connection = null;
+        Promise<WebSocket> promise = Promise.promise();
+        client.webSocket(port, "localhost", "/ws?" + topic, promise);
+        Client c = new Client(await(promise.future()));
+        await(() -> connection != null);
+        return c;
+    }
+
+    @Test
+    public void broadcastTest() throws Exception {
+        start(SlowConsumer.COALESCE);
+        Client a1 = connect("a");
+        Client a2 = connect("a");
+        Client b = connect("b");
+        Assert.assertEquals(3, broadcaster.connections());
+
+        broadcaster.publish("a", "hello");
+        broadcaster.publish("b", new JsonObject().put("b", 1));
+        broadcaster.publish("a", Buffer.buffer("data"));
+        broadcaster.publish("c", "nobody");
+
+        //Buffer作为binary消息发送
+        await(() -> a1.received().size() == 2 && a2.received().size() == 2 && b.received().size() == 1);
+        Assert.assertEquals(Arrays.asList("hello", "binary:data"), a1.received());
+        Assert.assertEquals(Arrays.asList("hello", "binary:data"), a2.received());
+        Assert.assertEquals(Collections.singletonList("{\"b\":1}"), b.received());
+
+        //直接发送只发给该连接
+        a1.ws.writeTextMessage("ping");
+        await(() -> a1.received().size() == 3);
+        Assert.assertEquals("echo:ping", a1.received().get(2));
+        Assert.assertEquals(2, a2.received().size());
+
+        b.ws.close();
+        await(() -> broadcaster.connections() == 2);
+        Assert.assertEquals(4, broadcaster.published());
+    }
+
+    @Test
+    public void coalesceTest() throws Exception {
+        start(SlowConsumer.COALESCE);
+        Client c = connect("a");
+        SocketConnection conn = connection;
+        c.ws.pause();
+
+        int published = fill(() -> broadcaster.coalesced() > 0);
+
+        //写队列满之后， topic只保留最新的一条， 直接发送的消息全部保留并且保持顺序
+        context.runOnContext(v -> {
+            conn.send("d1");
+            broadcaster.publish("a", "x");
+            broadcaster.publish("a", "last");
+            conn.send("d2");
+        });
+        c.ws.resume();
+        await(() -> c.received().contains("last"));
+        List<String> received = c.received();
+        Assert.assertEquals(Arrays.asList("d1", "d2", "last"), received.subList(received.size() - 3, received.size()));
+        Assert.assertFalse(received.contains("x"));
+        Assert.assertTrue(received.size() < published + 4);
+        Assert.assertFalse(conn.isClosed());
+        Assert.assertEquals(0, broadcaster.dropped());
+
+        //drain之后恢复正常写出
+        broadcaster.publish("a", "after");
+        await(() -> c.received().contains("after"));
+    }
+
+    @Test
+    public void dropTest() throws Exception {
+        start(SlowConsumer.DROP);
+        Client c = connect("a");
+        c.ws.pause();
+
+        fill(() -> broadcaster.dropped() > 0);
+        //已经在关闭的连接不再写出， 只统计一次
+        broadcaster.publish("a", "x");
+        c.ws.resume();
+        await(() -> c.closed.isDone());
+        Assert.assertEquals(1008, (int) c.closed.get());
+        await(() -> broadcaster.connections() == 0);
+        Assert.assertEquals(1, broadcaster.dropped());
+        Assert.assertEquals(0, broadcaster.coalesced());
+        Assert.assertFalse(c.received().contains("x"));
+    }
+
+    @Test
+    public void closeTest() throws Exception {
+        start(SlowConsumer.DROP);
+        Client c = connect("a");
+        SocketConnection conn = connection;
+
+        //端点主动关闭是正常关闭， 不是slow consumer
+        context.runOnContext(v -> conn.close());
+        await(() -> c.closed.isDone());
+        Assert.assertEquals(1000, (int) c.closed.get());
+        await(() -> broadcaster.connections() == 0);
+        Assert.assertEquals(0, broadcaster.dropped());
+    }
+
+    /**
+     * 客户端暂停读取之后持续广播大消息， 直到写队列满
+     *
+     * @return 广播的次数
+     */
+    private int fill(BooleanSupplier full) throws Exception {
+        char[] chars = new char[32 * 1024];
+        Arrays.fill(chars, 'm');
+        String big = new String(chars);
+        for (int i = 1; i <= Max_Publish; i++) {
+            broadcaster.publish("a", big);
+            if (i % 16 == 0) Thread.sleep(1);
+            if (full.getAsBoolean()) return i;
+        }
+        await(full);
+        return Max_Publish;
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        CompletableFuture<T> cf = new CompletableFuture<>();
+        future.onComplete(ar -> {
+            if (ar.succeeded()) cf.complete(ar.result());
+            else cf.completeExceptionally(ar.cause());
+        });
+        return cf.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) Assert.fail("timeout");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * 记录客户端收到的消息， binary消息加上binary:前缀
+     */
+    private static final class Client {
+
+        final WebSocket ws;
+
+        final List<String> messages = new ArrayList<>();
+
+        final CompletableFuture<Short> closed = new CompletableFuture<>();
+
+        Client(WebSocket ws) {
+            this.ws = ws;
+            ws.textMessageHandler(this::add);
+            ws.binaryMessageHandler(data -> add("binary:" + data));
+            ws.closeHandler(v -> closed.complete(ws.closeStatusCode()));
+        }
+
+        private synchronized void add(String message) {
+            messages.add(message);
+        }
+
+        synchronized List<String> received() {
+            return new ArrayList<>(messages);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package trace;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import me.wang007.trace.Span;
+import me.wang007.trace.TraceContext;
+import me.wang007.trace.Tracer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class TracerTest {
+
+    @Test
+    public void headersTest() {
+        TraceContext root = TraceContext.root(true);
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        root.child().inject(headers);
+
+        TraceContext remote = TraceContext.fromHeaders(headers);
+        Assert.assertNotNull(remote);
+        Assert.assertEquals(root.getTraceId(), remote.getTraceId());
+        Assert.assertTrue(remote.isSampled());
+        Assert.assertEquals(16, headers.get(TraceContext.Trace_Id_Header).length());
+
+        headers.set(TraceContext.Trace_Id_Header, "not-hex");
+        Assert.assertNull(TraceContext.fromHeaders(headers));
+    }
+
+    @Test
+    public void ringBufferTest() {
+        Tracer tracer = new Tracer(1, 8);
+        TraceContext root = TraceContext.root(true);
+        for (int i = 0; i < 20; i++) {
+            tracer.record(root.child(), "route", "span-" + i, System.currentTimeMillis(), 1000, 0, false);
+        }
+        tracer.record(TraceContext.root(false), "route", "not-sampled", System.currentTimeMillis(), 1000, 0, false);
+
+        List<Span> spans = tracer.spans();
+        Assert.assertEquals(8, spans.size());
+        Assert.assertEquals("span-12", spans.get(0).getName());
+        Assert.assertEquals("span-19", spans.get(7).getName());
+        Assert.assertEquals(8, tracer.export(root.traceIdHex()).getJsonArray("spans").size());
+        Assert.assertEquals(0, tracer.export("0000000000000001").getJsonArray("spans").size());
+    }
+
+    @Test
+    public void wrapTest() {
+        TraceContext root = TraceContext.root(false);
+        TraceContext[] seen = new TraceContext[1];
+        TraceContext prev = TraceContext.attach(root);
+        Handler<Void> handler;
+        try {
+            handler = TraceContext.wrap(v -> seen[0] = TraceContext.current());
+        } finally {
+            TraceContext.detach(prev);
+        }
+        Assert.assertNull(TraceContext.current());
+        handler.handle(null);
+        Assert.assertSame(root, seen[0]);
+        Assert.assertNull(TraceContext.current());
+    }
+}
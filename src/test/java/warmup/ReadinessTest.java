@@ -0,0 +1,54 @@
+package warmup;
+
+import me.wang007.warmup.Readiness;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class ReadinessTest {
+
+    @Test
+    public void startAndStopTest() {
+        Readiness readiness = new Readiness();
+        readiness.starting();
+        readiness.starting();
+        readiness.started();
+        //还有实例在启动中
+        Assert.assertFalse(readiness.isReady());
+        readiness.failed();
+        Assert.assertTrue(readiness.isReady());
+
+        //扩容时不取消就绪
+        readiness.starting();
+        Assert.assertTrue(readiness.isReady());
+        readiness.started();
+        Assert.assertEquals(2, readiness.live());
+
+        //部分实例停止时保持就绪， 全部停止时取消就绪
+        readiness.stopped();
+        Assert.assertTrue(readiness.isReady());
+        readiness.stopped();
+        Assert.assertFalse(readiness.isReady());
+
+        //重新部署之后恢复就绪
+        readiness.starting();
+        readiness.started();
+        Assert.assertTrue(readiness.isReady());
+    }
+
+    @Test
+    public void shutdownTest() {
+        Readiness readiness = new Readiness();
+        readiness.starting();
+        readiness.started();
+        Assert.assertTrue(readiness.isReady());
+
+        readiness.shutdown();
+        Assert.assertFalse(readiness.isReady());
+        readiness.starting();
+        readiness.started();
+        Assert.assertFalse(readiness.isReady());
+    }
+}
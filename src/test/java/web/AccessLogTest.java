@@ -0,0 +1,47 @@
+package web;
+
+import io.vertx.core.json.JsonObject;
+import me.wang007.web.AccessLog;
+import me.wang007.web.AccessLogOptions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class AccessLogTest {
+
+    @Test
+    public void writeTest() throws Exception {
+        File file = File.createTempFile("access", ".log");
+        file.deleteOnExit();
+        AccessLog accessLog = new AccessLog(new AccessLogOptions().setPath(file.getPath()).setBufferSize(4));
+
+        //写入线程未启动， 缓冲区满之后丢弃
+        for (int i = 0; i < 6; i++) {
+            accessLog.record("GET", i == 0 ? null : "/user/:id", 200, 100 + i, 1000 + i, 1500_000);
+        }
+        Assert.assertEquals(2, accessLog.dropped());
+
+        accessLog.start();
+        accessLog.close();
+        Assert.assertEquals(4, accessLog.written());
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(4, lines.size());
+        JsonObject first = new JsonObject(lines.get(0));
+        Assert.assertNull(first.getString("route"));
+        Assert.assertEquals(1000L, (long) first.getLong("ts"));
+        JsonObject last = new JsonObject(lines.get(3));
+        Assert.assertEquals("GET", last.getString("method"));
+        Assert.assertEquals("/user/:id", last.getString("route"));
+        Assert.assertEquals(200, (int) last.getInteger("status"));
+        Assert.assertEquals(103L, (long) last.getLong("bytes"));
+        Assert.assertEquals(1500L, (long) last.getLong("latencyUs"));
+    }
+}
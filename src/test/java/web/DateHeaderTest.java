@@ -0,0 +1,20 @@
+package web;
+
+import me.wang007.web.DateHeader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class DateHeaderTest {
+
+    @Test
+    public void httpDateTest() {
+        //日期补0
+        Assert.assertEquals("Fri, 06 Nov 2026 08:09:07 GMT", DateHeader.httpDate(Instant.parse("2026-11-06T08:09:07Z").toEpochMilli()));
+        Assert.assertEquals("Thu, 01 Jan 1970 00:00:00 GMT", DateHeader.httpDate(0));
+    }
+}
@@ -0,0 +1,134 @@
+package web;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import me.wang007.web.StaticContent;
+import me.wang007.web.StaticContentOptions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * created by wang007 on 2026/10/19
+ */
+public class StaticContentTest {
+
+    private Vertx vertx;
+
+    private HttpClient client;
+
+    private Path root;
+
+    private int port;
+
+    private StaticContent content;
+
+    @Before
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        client = vertx.createHttpClient();
+        root = Files.createTempDirectory("webroot");
+    }
+
+    @After
+    public void tearDown() {
+        vertx.close();
+    }
+
+    private void start(StaticContentOptions options) throws Exception {
+        content = new StaticContent(vertx, options.setPath("/").setRoot(root.toString()));
+        Router router = Router.router(vertx);
+        router.route(content.routePath()).handler(content.handler());
+        router.route().handler(ctx -> ctx.response().setStatusCode(404).end("fallback"));
+        HttpServer server = vertx.createHttpServer().requestHandler(router);
+        port = await(server.listen(0)).actualPort();
+    }
+
+    private String get(String path) throws Exception {
+        Future<String> f = client.request(HttpMethod.GET, port, "localhost", path)
+                .compose(req -> req.send())
+                .compose(resp -> resp.body().map(body -> resp.statusCode() + " " + body));
+        return await(f);
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        CompletableFuture<T> cf = new CompletableFuture<>();
+        future.onComplete(ar -> {
+            if (ar.succeeded()) cf.complete(ar.result());
+            else cf.completeExceptionally(ar.cause());
+        });
+        return cf.get(5, TimeUnit.SECONDS);
+    }
+
+    private void write(String name, String text) throws Exception {
+        Files.write(root.resolve(name), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void notFoundTtlTest() throws Exception {
+        write("a.txt", "a");
+        start(new StaticContentOptions().setNotFoundTtl(300));
+        Assert.assertEquals("200 a", get("/a.txt"));
+
+        //不存在时交给下一个route， 结果在ttl内缓存
+        Assert.assertEquals("404 fallback", get("/b.txt"));
+        write("b.txt", "b");
+        Assert.assertEquals("404 fallback", get("/b.txt"));
+
+        Thread.sleep(400);
+        Assert.assertEquals("200 b", get("/b.txt"));
+
+        //invalidate同时清空不存在的记录
+        Assert.assertEquals("404 fallback", get("/c.txt"));
+        write("c.txt", "c");
+        content.invalidate();
+        Assert.assertEquals("200 c", get("/c.txt"));
+    }
+
+    @Test
+    public void lruTest() throws Exception {
+        write("a.txt", "a1");
+        write("b.txt", "b1");
+        write("c.txt", "c1");
+        start(new StaticContentOptions().setCacheMaxEntries(2));
+
+        Assert.assertEquals("200 a1", get("/a.txt"));
+        Assert.assertEquals("200 b1", get("/b.txt"));
+        Assert.assertEquals("200 a1", get("/a.txt"));
+        //超过文件数上限， 淘汰最久未访问的b
+        Assert.assertEquals("200 c1", get("/c.txt"));
+        Assert.assertEquals(2, content.cachedFiles());
+
+        //缓存中的文件被认为不会变化， 被淘汰的文件重新加载
+        write("a.txt", "a2");
+        write("b.txt", "b2");
+        Assert.assertEquals("200 a1", get("/a.txt"));
+        Assert.assertEquals("200 b2", get("/b.txt"));
+        Assert.assertEquals(2, content.cachedFiles());
+        Assert.assertEquals(4, content.cachedBytes());
+    }
+
+    @Test
+    public void maxSizeTest() throws Exception {
+        write("a.txt", "aaaa");
+        write("b.txt", "bbbb");
+        start(new StaticContentOptions().setCacheMaxSize(6));
+
+        Assert.assertEquals("200 aaaa", get("/a.txt"));
+        Assert.assertEquals("200 bbbb", get("/b.txt"));
+        //超过内存上限， 淘汰a
+        Assert.assertEquals(1, content.cachedFiles());
+        Assert.assertEquals(4, content.cachedBytes());
+    }
+}